@@ -0,0 +1,91 @@
+package com.valkryst.VTerminal.baker;
+
+import com.valkryst.VTerminal.font.PrebakedAtlas;
+import com.valkryst.VTerminal.font.VFont;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+public class AtlasBaker {
+	/**
+	 * Code point ranges which are baked when none are specified. This covers
+	 * printable ASCII and Latin-1, as well as the Box Drawing, Block
+	 * Elements, and Geometric Shapes blocks.
+	 */
+	private static final String DEFAULT_RANGES = "20-7E,A0-FF,2500-25FF";
+
+	/**
+	 * Bakes a TrueType font into a prebaked atlas.
+	 *
+	 * The atlas is written to {@code <output prefix>.png} and
+	 * {@code <output prefix>.metrics}, and can be loaded with
+	 * {@link VFont#VFont(java.io.InputStream, java.io.InputStream)}.
+	 *
+	 * @param args
+	 * 		The path to a TTF font file, a point size, an output prefix, and
+	 * 		optionally a comma-separated list of hexadecimal code points and
+	 * 		code point ranges, such as {@code 20-7E,2500-257F,263A}.
+	 *
+	 * @throws IOException If an I/O error occurs.
+	 * @throws FontFormatException If there is an error with the font file.
+	 */
+	public static void main(final String[] args) throws IOException, FontFormatException {
+		if (args.length < 3 || args.length > 4) {
+			System.err.println("Usage: java -jar atlas-baker.jar <font.ttf> <point size> <output prefix> [code point ranges]");
+			System.err.println("Code point ranges default to " + DEFAULT_RANGES + ".");
+			System.exit(1);
+		}
+
+		final var fontPath = Path.of(args[0]);
+		final var pointSize = Integer.parseInt(args[1]);
+		final var imagePath = Path.of(args[2] + ".png");
+		final var metricsPath = Path.of(args[2] + ".metrics");
+		final var codePoints = parseRanges(args.length == 4 ? args[3] : DEFAULT_RANGES);
+
+		final VFont font;
+		try (final var inputStream = Files.newInputStream(fontPath)) {
+			font = new VFont(inputStream, pointSize);
+		}
+
+		final var atlas = PrebakedAtlas.bake(font, codePoints);
+		try (
+			final var imageOutputStream = Files.newOutputStream(imagePath);
+			final var metricsOutputStream = Files.newOutputStream(metricsPath)
+		) {
+			atlas.write(imageOutputStream, metricsOutputStream);
+		}
+
+		System.out.println("Baked " + atlas.getGlyphCount() + " glyphs of " + atlas.getCellWidth() + "x" + atlas.getCellHeight() + " pixels into " + imagePath + " and " + metricsPath + ".");
+	}
+
+	/**
+	 * Parses a comma-separated list of hexadecimal code points and inclusive
+	 * code point ranges.
+	 *
+	 * @param ranges The list, such as {@code 20-7E,263A}.
+	 * @return The code points.
+	 */
+	static int[] parseRanges(final String ranges) {
+		IntStream codePoints = IntStream.empty();
+
+		for (final var range : ranges.split(",")) {
+			final var bounds = range.trim().split("-");
+			if (bounds.length < 1 || bounds.length > 2) {
+				throw new IllegalArgumentException("'" + range + "' is not a code point or a range of code points.");
+			}
+
+			final int start = Integer.parseInt(bounds[0].trim(), 16);
+			final int end = bounds.length == 2 ? Integer.parseInt(bounds[1].trim(), 16) : start;
+			if (!Character.isValidCodePoint(start) || !Character.isValidCodePoint(end) || start > end) {
+				throw new IllegalArgumentException("'" + range + "' is not a valid range of code points.");
+			}
+
+			codePoints = IntStream.concat(codePoints, IntStream.rangeClosed(start, end));
+		}
+
+		return codePoints.toArray();
+	}
+}
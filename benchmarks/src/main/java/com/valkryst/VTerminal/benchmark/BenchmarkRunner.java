@@ -0,0 +1,28 @@
+package com.valkryst.VTerminal.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+	/**
+	 * Runs the benchmarks with the GC profiler enabled, so that the allocation
+	 * rate of each benchmark is reported alongside its timings.
+	 *
+	 * @param args Standard JMH command line options.
+	 *
+	 * @throws CommandLineOptionException If the options are invalid.
+	 * @throws RunnerException If a benchmark fails.
+	 */
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+		final var options = new OptionsBuilder().parent(new CommandLineOptions(args))
+												.addProfiler(GCProfiler.class)
+												.jvmArgsAppend("-Djava.awt.headless=true")
+												.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,58 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.component.VPanel;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/** Creates the data used by the benchmarks. */
+final class Fixtures {
+	/** Seed for all random data, so that every run uses the same data. */
+	private static final long SEED = 0x5EED;
+
+	private Fixtures() {}
+
+	/**
+	 * Creates a panel whose tiles have random printable ASCII characters, and
+	 * colors from a small palette.
+	 *
+	 * @param widthInTiles Width of the panel, in tiles.
+	 * @param heightInTiles Height of the panel, in tiles.
+	 * @return The panel.
+	 */
+	static VPanel createRandomPanel(final int widthInTiles, final int heightInTiles) {
+		final var random = new Random(SEED);
+		final int[] palette = { 0xFF282A36, 0xFF44475A, 0xFFF8F8F2, 0xFF6272A4, 0xFF8BE9FD, 0xFF50FA7B, 0xFFFF79C6, 0xFFFF5555 };
+
+		final var panel = new VPanel(widthInTiles, heightInTiles);
+		for (int y = 0 ; y < heightInTiles ; y++) {
+			for (int x = 0 ; x < widthInTiles ; x++) {
+				panel.setCodePointAt(x, y, 33 + random.nextInt(94));
+				panel.setBackgroundAt(x, y, palette[random.nextInt(palette.length)]);
+				panel.setForegroundAt(x, y, palette[random.nextInt(palette.length)]);
+			}
+		}
+
+		return panel;
+	}
+
+	/**
+	 * Creates an image with random ARGB pixels.
+	 *
+	 * @param width Width of the image.
+	 * @param height Height of the image.
+	 * @return The image.
+	 */
+	static BufferedImage createRandomImage(final int width, final int height) {
+		final var random = new Random(SEED);
+
+		final var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0 ; y < height ; y++) {
+			for (int x = 0 ; x < width ; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+
+		return image;
+	}
+}
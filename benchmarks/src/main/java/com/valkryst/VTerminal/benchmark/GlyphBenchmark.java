@@ -0,0 +1,82 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.font.VFont;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** Measures the generation and lookup of glyph images by {@code VFont}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GlyphBenchmark {
+	private BenchmarkFont font;
+	private BufferedImage image;
+	private Graphics2D graphics;
+
+	private int index = 0;
+
+	@Setup
+	public void setup() throws IOException, FontFormatException {
+		font = new BenchmarkFont();
+		image = new BufferedImage(font.getMaxTileWidth(), font.getMaxTileHeight(), BufferedImage.TYPE_INT_RGB);
+		graphics = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	/** Empties the cache before each invocation of the cold benchmarks. */
+	@State(Scope.Thread)
+	public static class ColdCache {
+		@Setup(Level.Invocation)
+		public void clear(final GlyphBenchmark benchmark) {
+			benchmark.font.clearCache();
+		}
+	}
+
+	@Benchmark
+	public Image generateImageColdMiss(final ColdCache coldCache) {
+		return font.generateImage('A', Color.MAGENTA, null);
+	}
+
+	@Benchmark
+	public Image generateImageWarmHit() {
+		return font.generateImage(nextCodePoint(), Color.MAGENTA, null);
+	}
+
+	@Benchmark
+	public boolean drawGlyphWarmHit() {
+		return font.drawGlyph(graphics, nextCodePoint(), 0xFFFF00FF, null, 0, 0);
+	}
+
+	/**
+	 * Cycles through the printable ASCII characters.
+	 *
+	 * @return The next code point.
+	 */
+	private int nextCodePoint() {
+		index = (index + 1) % 94;
+		return 33 + index;
+	}
+
+	/** Exposes the cache of a {@code VFont}, so that it can be cleared. */
+	private static class BenchmarkFont extends VFont {
+		private BenchmarkFont() throws IOException, FontFormatException {
+			super(BenchmarkFont.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+		}
+
+		private void clearCache() {
+			imageCache.invalidateAll();
+			glyphAtlas.clear();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.component.RenderMode;
+import com.valkryst.VTerminal.component.VPanel;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/** Measures headless painting of a {@code VPanel} into a {@code BufferedImage}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaintBenchmark {
+	/** Width and height of the panel, in tiles. */
+	@Param({ "80x24", "200x60", "400x200" })
+	public String size;
+
+	/**
+	 * Region of the panel to paint. A full clip covers the entire panel, and a
+	 * partial clip covers the centre quarter of it.
+	 */
+	@Param({ "FULL", "PARTIAL" })
+	public String clip;
+
+	/** How the panel paints its tiles. */
+	@Param({ "DIRECT", "BUFFERED", "SOFTWARE", "PARALLEL" })
+	public RenderMode renderMode;
+
+	private VPanel panel;
+	private BufferedImage image;
+	private Graphics2D graphics;
+
+	/** Whether the next full update sets the alternate foreground color. */
+	private boolean alternateForeground = false;
+
+	@Setup
+	public void setup() {
+		final var dimensions = size.split("x");
+		panel = Fixtures.createRandomPanel(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int width = panel.getWidthInTiles() * laf.getTileWidth();
+		final int height = panel.getHeightInTiles() * laf.getTileHeight();
+		panel.setSize(width, height);
+		panel.setRenderMode(renderMode);
+
+		image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		graphics = image.createGraphics();
+
+		if (clip.equals("FULL")) {
+			graphics.setClip(0, 0, width, height);
+		} else {
+			graphics.setClip(width / 4, height / 4, width / 2, height / 2);
+		}
+
+		// Ensures that every glyph is cached before measuring.
+		panel.paintComponent(graphics);
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paint() {
+		panel.paintComponent(graphics);
+		return image;
+	}
+
+	/**
+	 * Changes the foreground color of every tile, and then paints. In the
+	 * buffered render modes, this rasterizes every tile into the backbuffer.
+	 */
+	@Benchmark
+	public BufferedImage paintAfterFullUpdate() {
+		alternateForeground = !alternateForeground;
+		panel.setForeground(alternateForeground ? Color.GREEN : Color.WHITE);
+		panel.paintComponent(graphics);
+		return image;
+	}
+}
@@ -0,0 +1,59 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.GrayscaleFilter;
+import com.jhlabs.image.MarbleFilter;
+import com.valkryst.VTerminal.image.AlphaOp;
+import com.valkryst.VTerminal.image.BrightnessOp;
+import com.valkryst.VTerminal.image.RecolorOp;
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.util.concurrent.TimeUnit;
+
+/** Measures {@code SequentialOp} chains applied to tile-sized images. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SequentialOpBenchmark {
+	/** Number of operations in the chain. */
+	@Param({ "1", "2", "3" })
+	public int length;
+
+	private SequentialOp sequentialOp;
+	/** Chain of point operations, which are fused into one pass. */
+	private SequentialOp pointOps;
+	private BufferedImage image;
+
+	@Setup
+	public void setup() {
+		final var ops = new BufferedImageOp[] { new GaussianFilter(), new MarbleFilter(), new GrayscaleFilter() };
+
+		final var chain = new BufferedImageOp[length];
+		System.arraycopy(ops, 0, chain, 0, length);
+		sequentialOp = new SequentialOp(chain);
+
+		final var allPointOps = new BufferedImageOp[] { new BrightnessOp(0.5f), new AlphaOp(0.5f), new RecolorOp(Color.RED) };
+		final var pointChain = new BufferedImageOp[length];
+		System.arraycopy(allPointOps, 0, pointChain, 0, length);
+		pointOps = new SequentialOp(pointChain);
+
+		image = Fixtures.createRandomImage(10, 19);
+	}
+
+	@Benchmark
+	public BufferedImage filter() {
+		return sequentialOp.filter(image, null);
+	}
+
+	@Benchmark
+	public BufferedImage filterPointOps() {
+		return pointOps.filter(image, null);
+	}
+}
@@ -0,0 +1,60 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.component.VPanel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures the throughput of the {@code VPanel} tile mutation methods. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TileMutationBenchmark {
+	private static final int WIDTH = 200;
+	private static final int HEIGHT = 60;
+
+	private VPanel panel;
+
+	private int x = 0;
+	private int y = 0;
+	private int value = 0;
+
+	@Setup
+	public void setup() {
+		panel = new VPanel(WIDTH, HEIGHT);
+	}
+
+	@Benchmark
+	public void setCodePointAt() {
+		next();
+		panel.setCodePointAt(x, y, 33 + (value % 94));
+	}
+
+	@Benchmark
+	public void setBackgroundAt() {
+		next();
+		panel.setBackgroundAt(x, y, 0xFF000000 | value);
+	}
+
+	@Benchmark
+	public void setForegroundAt() {
+		next();
+		panel.setForegroundAt(x, y, 0xFF000000 | value);
+	}
+
+	/** Moves to the next tile, and changes the value to write to it. */
+	private void next() {
+		if (++x == WIDTH) {
+			x = 0;
+
+			if (++y == HEIGHT) {
+				y = 0;
+			}
+		}
+
+		value = (value + 7) & 0xFFFFFF;
+	}
+}
@@ -0,0 +1,43 @@
+package com.valkryst.VTerminal.benchmark;
+
+import com.valkryst.VTerminal.palette.VColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures the {@code VColor} shading and tinting methods. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VColorBenchmark {
+	private final VColor color = new VColor(120, 80, 200, 255);
+
+	private double amount = 0;
+
+	@Benchmark
+	public VColor shade() {
+		return color.shade(nextAmount());
+	}
+
+	@Benchmark
+	public VColor tint() {
+		return color.tint(nextAmount());
+	}
+
+	/**
+	 * Cycles through amounts within (0, 1).
+	 *
+	 * @return The next amount.
+	 */
+	private double nextAmount() {
+		amount += 0.01;
+		if (amount >= 1) {
+			amount = 0.01;
+		}
+
+		return amount;
+	}
+}
@@ -22,7 +22,8 @@ public class ExampleG {
 			frame.pack();
 			frame.setLocationRelativeTo(null);
 
-			final var sequentialOp = new SequentialOp(
+			final var sequentialOp = SequentialOp.keyed(
+				"marble-gaussian",
 				new MarbleFilter(),
 				new GaussianFilter()
 			);
@@ -0,0 +1,40 @@
+package drawing_a_screen;
+
+import com.valkryst.VTerminal.component.VFrame;
+import com.valkryst.VTerminal.image.AlphaOp;
+import com.valkryst.VTerminal.image.AnimatedOp;
+import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+public class ExampleH {
+	public static void main(final String[] args) {
+		try {
+			UIManager.setLookAndFeel(VTerminalLookAndFeel.getInstance(24));
+		} catch (final UnsupportedLookAndFeelException e) {
+			e.printStackTrace();
+		}
+
+		SwingUtilities.invokeLater(() -> {
+			final var frame = new VFrame(40, 20);
+			frame.setVisible(true);
+			frame.pack();
+			frame.setLocationRelativeTo(null);
+
+			// Pulses from opaque to faint, and back, once per second.
+			final var pulse = new AnimatedOp(1, TimeUnit.SECONDS, 16, index -> {
+				final float alpha = 0.2f + 0.8f * Math.abs(1 - index / 8f);
+				return SequentialOp.of(new AlphaOp(alpha));
+			});
+
+			final var panel = frame.getContentPane();
+			final var text = "Pulsing";
+			for (int x = 0 ; x < text.length() ; x++) {
+				panel.setCodePointAt(x, 0, text.charAt(x));
+				panel.setSequentialImageOpAt(x, 0, pulse);
+			}
+		});
+	}
+}
@@ -1,14 +1,12 @@
 package repainting_a_screen;
 
+import com.valkryst.VTerminal.component.GameLoop;
 import com.valkryst.VTerminal.component.VFrame;
 import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
 
 import javax.swing.*;
 import java.awt.*;
-import java.lang.reflect.InvocationTargetException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
 
 public class ExampleB {
 	public static void main(final String[] args) {
@@ -24,9 +22,8 @@ public class ExampleB {
 			frame.pack();
 			frame.setLocationRelativeTo(null);
 
-			Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() -> {
-				final var panel = frame.getContentPane();
-
+			final var panel = frame.getContentPane();
+			new GameLoop(panel, 60, tick -> {
 				for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 					for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
 						panel.setCodePointAt(x, y, getRandomCodePoint());
@@ -34,13 +31,7 @@ public class ExampleB {
 						panel.setForegroundAt(x, y, getRandomColor());
 					}
 				}
-
-				try {
-					SwingUtilities.invokeAndWait(panel::repaint);
-				} catch (final InterruptedException | InvocationTargetException e) {
-					e.printStackTrace();
-				}
-			}, 0, 16, TimeUnit.MILLISECONDS);
+			}).start();
 		});
 	}
 
@@ -0,0 +1,314 @@
+package com.valkryst.VTerminal.component;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paints a {@link VPanel} onto a canvas from a dedicated render thread, at a
+ * target frame rate, through a page-flipped {@link BufferStrategy}.
+ *
+ * Unlike Swing's repaint manager, which coalesces repaint requests and
+ * paints them whenever the event dispatch thread is free, the render thread
+ * paints one frame per frame period regardless of the input load.
+ *
+ * The panel is painted while the render thread holds the panel's monitor.
+ * Tiles which are changed from another thread should be changed within a
+ * block which is synchronized on the panel, so that no frame shows a
+ * partial change.
+ *
+ * The render thread never calls into Swing. The panel is resized to fill the
+ * canvas on the event dispatch thread, and is painted through
+ * {@link VPanel#renderFrame}.
+ */
+public class ActiveRenderer {
+	/** Number of buffers in the buffer strategy. */
+	private static final int BUFFER_COUNT = 2;
+
+	/**
+	 * Time before the start of each frame at which the render thread stops
+	 * sleeping and begins to spin, as sleeps commonly overshoot by up to a
+	 * millisecond.
+	 */
+	private static final long SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/** Weight of the latest frame in the average frame time. */
+	private static final double AVERAGE_FRAME_WEIGHT = 0.05;
+
+	/** Canvas onto which the panel is painted. */
+	@Getter private final Canvas canvas;
+	/** Panel to paint. */
+	private final VPanel panel;
+
+	/** Target number of frames per second. */
+	@Getter private final int targetFps;
+	/** Duration of each frame, in nanoseconds. */
+	private final long frameNanos;
+
+	/** Thread which paints the frames, or null if stopped. */
+	private Thread thread;
+	/** Whether the render thread should continue to paint frames. */
+	private volatile boolean running = false;
+
+	/** Number of frames which have been shown. */
+	@Getter private volatile long frameCount = 0;
+	/**
+	 * Number of frames which were skipped because a previous frame took
+	 * longer than a frame period.
+	 */
+	@Getter private volatile long missedFrameCount = 0;
+	/** Number of times the contents of the buffers were lost and repainted. */
+	@Getter private volatile long restoredFrameCount = 0;
+	/** Time between the starts of the last two frames, in nanoseconds. */
+	@Getter private volatile long lastFrameNanos = 0;
+	/** Moving average of the time between the starts of frames, in nanoseconds. */
+	@Getter private volatile long averageFrameNanos = 0;
+	/** Time taken to paint and show the last frame, in nanoseconds. */
+	@Getter private volatile long lastRenderNanos = 0;
+
+	/** Time at which the last frame started, in nanoseconds, or 0 if none has. */
+	private long lastFrameStart = 0;
+
+	/**
+	 * Constructs a new instance of {@code ActiveRenderer}.
+	 *
+	 * @param panel Panel to paint.
+	 * @param targetFps Target number of frames per second.
+	 */
+	ActiveRenderer(final @NonNull VPanel panel, final int targetFps) {
+		if (targetFps < 1) {
+			throw new IllegalArgumentException("The target FPS must be >= 1.");
+		}
+
+		this.panel = panel;
+		this.targetFps = targetFps;
+		frameNanos = TimeUnit.SECONDS.toNanos(1) / targetFps;
+
+		canvas = new Canvas();
+		canvas.setIgnoreRepaint(true);
+		canvas.setBackground(panel.getBackground());
+
+		// Component events are dispatched on the event dispatch thread.
+		canvas.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(final ComponentEvent event) {
+				synchronized (panel) {
+					panel.setSize(canvas.getWidth(), canvas.getHeight());
+				}
+			}
+		});
+	}
+
+	/** Starts the render thread, if it isn't running. */
+	synchronized void start() {
+		if (thread != null) {
+			return;
+		}
+
+		running = true;
+		lastFrameStart = 0;
+
+		thread = new Thread(this::run, "VTerminal Active Renderer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/** Stops the render thread, and waits for it to finish its frame. */
+	synchronized void stop() {
+		if (thread == null) {
+			return;
+		}
+
+		running = false;
+		LockSupport.unpark(thread);
+
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		thread = null;
+
+		final var strategy = canvas.getBufferStrategy();
+		if (strategy != null) {
+			strategy.dispose();
+		}
+	}
+
+	/**
+	 * Determines whether the render thread is running.
+	 *
+	 * @return Whether the render thread is running.
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Retrieves the average number of frames shown per second.
+	 *
+	 * @return The average number of frames per second, or 0 if fewer than two frames have been shown.
+	 */
+	public double getAverageFps() {
+		final long average = averageFrameNanos;
+		return average == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / (double) average;
+	}
+
+	/** Paints frames until the renderer is stopped. */
+	private void run() {
+		long nextFrameStart = System.nanoTime();
+
+		while (running) {
+			waitUntil(nextFrameStart);
+			if (!running) {
+				break;
+			}
+
+			final long frameStart = System.nanoTime();
+
+			/*
+			 * The canvas loses its buffer strategy whenever it is made
+			 * undisplayable, such as when the frame enters full screen mode,
+			 * so it is recreated once the canvas is displayable again.
+			 */
+			if (canvas.isDisplayable() && canvas.getWidth() > 0 && canvas.getHeight() > 0) {
+				final var strategy = getBufferStrategy();
+				if (strategy != null) {
+					render(strategy);
+				}
+			}
+
+			recordFrame(frameStart, System.nanoTime());
+
+			/*
+			 * When a frame overruns by more than a frame period, the frames
+			 * which should have been shown in the meantime are skipped rather
+			 * than rendered back-to-back to catch up.
+			 */
+			nextFrameStart += frameNanos;
+
+			final long now = System.nanoTime();
+			if (now - nextFrameStart > frameNanos) {
+				missedFrameCount += (now - nextFrameStart) / frameNanos;
+				nextFrameStart = now;
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the canvas' buffer strategy, creating it if necessary.
+	 *
+	 * @return The buffer strategy, or null if it couldn't be created.
+	 */
+	private BufferStrategy getBufferStrategy() {
+		final var strategy = canvas.getBufferStrategy();
+		if (strategy != null) {
+			return strategy;
+		}
+
+		try {
+			final var capabilities = new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true), BufferCapabilities.FlipContents.UNDEFINED);
+			canvas.createBufferStrategy(BUFFER_COUNT, capabilities);
+		} catch (final AWTException e) {
+			// Page flipping isn't supported, so fall back to the best strategy available.
+			canvas.createBufferStrategy(BUFFER_COUNT);
+		} catch (final IllegalStateException e) {
+			// The canvas was made undisplayable since it was checked.
+			return null;
+		}
+
+		return canvas.getBufferStrategy();
+	}
+
+	/**
+	 * Paints and shows one frame, repainting it if the contents of the
+	 * buffers are lost or restored in the meantime.
+	 *
+	 * @param strategy The canvas' buffer strategy.
+	 */
+	private void render(final BufferStrategy strategy) {
+		boolean lost;
+		do {
+			boolean restored;
+			do {
+				final var graphics = strategy.getDrawGraphics();
+				try {
+					paintPanel(graphics);
+				} finally {
+					graphics.dispose();
+				}
+
+				restored = strategy.contentsRestored();
+				if (restored) {
+					restoredFrameCount++;
+				}
+			} while (restored);
+
+			strategy.show();
+
+			lost = strategy.contentsLost();
+			if (lost) {
+				restoredFrameCount++;
+			}
+		} while (lost);
+
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	/**
+	 * Paints the panel onto a graphics context.
+	 *
+	 * @param graphics A graphics context.
+	 */
+	private void paintPanel(final Graphics graphics) {
+		graphics.setClip(0, 0, canvas.getWidth(), canvas.getHeight());
+		panel.renderFrame(graphics);
+	}
+
+	/**
+	 * Updates the frame-time accounting with a frame which has been shown.
+	 *
+	 * @param frameStart Time at which the frame started, in nanoseconds.
+	 * @param frameEnd Time at which the frame was shown, in nanoseconds.
+	 */
+	void recordFrame(final long frameStart, final long frameEnd) {
+		lastRenderNanos = frameEnd - frameStart;
+
+		if (lastFrameStart != 0) {
+			final long frameTime = frameStart - lastFrameStart;
+			lastFrameNanos = frameTime;
+
+			final long average = averageFrameNanos;
+			averageFrameNanos = average == 0 ? frameTime : Math.round(average + (frameTime - average) * AVERAGE_FRAME_WEIGHT);
+		}
+
+		lastFrameStart = frameStart;
+		frameCount++;
+	}
+
+	/**
+	 * Waits until a point in time, by sleeping until shortly before it and
+	 * then spinning, so that frames start with little jitter.
+	 *
+	 * @param deadline The point in time, in nanoseconds.
+	 */
+	private void waitUntil(final long deadline) {
+		long remaining = deadline - System.nanoTime();
+
+		while (running && remaining > SPIN_NANOS) {
+			LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+			remaining = deadline - System.nanoTime();
+		}
+
+		while (running && deadline - System.nanoTime() > 0) {
+			Thread.onSpinWait();
+		}
+	}
+}
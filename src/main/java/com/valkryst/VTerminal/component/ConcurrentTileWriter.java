@@ -0,0 +1,335 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import lombok.NonNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Allows any number of threads to change the tiles of a {@link VPanel},
+ * without blocking and without racing against its paints.
+ *
+ * Producer threads record their changes in a {@link Batch}, and then submit
+ * it to a lock-free queue. Submitted batches are applied, in the order in
+ * which they were submitted, at the start of the panel's next paint, on the
+ * thread which paints the panel. Each batch is applied in full before any
+ * tile is painted, so no paint shows part of a batch.
+ *
+ * Submitting a batch also posts a request to the event dispatch thread to
+ * apply the queued batches and repaint the changed tiles. At most one
+ * request is pending at a time, so producers which submit many batches
+ * don't flood the event queue.
+ */
+public class ConcurrentTileWriter {
+	/** Panel whose tiles are changed. */
+	private final VPanel panel;
+
+	/** Batches which have been submitted, but not yet applied. */
+	private final ConcurrentLinkedQueue<Batch> queue = new ConcurrentLinkedQueue<>();
+
+	/** Whether a request to apply the queued batches has been posted, and not yet run. */
+	private final AtomicBoolean applyPending = new AtomicBoolean(false);
+
+	/**
+	 * Constructs a new instance of {@code ConcurrentTileWriter}.
+	 *
+	 * @param panel Panel whose tiles are changed.
+	 */
+	ConcurrentTileWriter(final @NonNull VPanel panel) {
+		this.panel = panel;
+	}
+
+	/**
+	 * Creates a batch of changes.
+	 *
+	 * A batch is not thread-safe, so it should only be used by the thread
+	 * which created it.
+	 *
+	 * @return The batch.
+	 */
+	public Batch createBatch() {
+		return new Batch();
+	}
+
+	/**
+	 * Changes the code point of a tile, as a batch of one change.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param codePoint A new code point.
+	 */
+	public void setCodePointAt(final int x, final int y, final int codePoint) {
+		createBatch().setCodePointAt(x, y, codePoint).submit();
+	}
+
+	/**
+	 * Changes the background color of a tile, as a batch of one change.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setBackgroundAt(final int x, final int y, final int argb) {
+		createBatch().setBackgroundAt(x, y, argb).submit();
+	}
+
+	/**
+	 * Changes the foreground color of a tile, as a batch of one change.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setForegroundAt(final int x, final int y, final int argb) {
+		createBatch().setForegroundAt(x, y, argb).submit();
+	}
+
+	/**
+	 * Determines whether any submitted batch hasn't yet been applied.
+	 *
+	 * @return Whether any batch is queued.
+	 */
+	public boolean hasQueuedBatches() {
+		return !queue.isEmpty();
+	}
+
+	/**
+	 * Adds a batch to the queue, and requests that the queued batches be
+	 * applied, unless a request is already pending.
+	 *
+	 * @param batch The batch.
+	 */
+	private void enqueue(final Batch batch) {
+		queue.add(batch);
+
+		if (applyPending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(() -> {
+				applyPending.set(false);
+
+				synchronized (panel) {
+					if (apply()) {
+						panel.repaintDirty();
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Applies every queued batch to the panel.
+	 *
+	 * This must only be called by the thread which paints the panel.
+	 *
+	 * @return Whether any batch was applied.
+	 */
+	boolean apply() {
+		boolean applied = false;
+
+		Batch batch;
+		while ((batch = queue.poll()) != null) {
+			batch.applyTo(panel);
+			applied = true;
+		}
+
+		return applied;
+	}
+
+	/**
+	 * A list of changes to the tiles of a panel, which are applied together.
+	 *
+	 * The coordinates of each change are validated when it is recorded, so
+	 * that an invalid change is reported to the thread which made it.
+	 */
+	public final class Batch {
+		/** Type of a change to a tile's code point. */
+		private static final int CODE_POINT = 0;
+		/** Type of a change to a tile's background color. */
+		private static final int BACKGROUND = 1;
+		/** Type of a change to a tile's foreground color. */
+		private static final int FOREGROUND = 2;
+		/** Type of a change to a tile's sequential image operation. */
+		private static final int SEQUENTIAL_OP = 3;
+
+		/**
+		 * Changes, as consecutive triples of type, tile index, and value. The
+		 * value of a sequential image operation change is its index within
+		 * {@link #sequentialOps}.
+		 */
+		private int[] changes = new int[48];
+		/** Number of elements of {@link #changes} which are in use. */
+		private int length = 0;
+		/** Sequential image operations of the batch's changes, or null if there are none. */
+		private List<SequentialOp> sequentialOps;
+
+		/** Whether the batch has been submitted. */
+		private boolean submitted = false;
+
+		private Batch() {}
+
+		/**
+		 * Records a change.
+		 *
+		 * @param type Type of the change.
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param value Value of the change.
+		 */
+		private void record(final int type, final int x, final int y, final int value) {
+			if (submitted) {
+				throw new IllegalStateException("The batch has already been submitted.");
+			}
+
+			if (x < 0 || x >= panel.getWidthInTiles() || y < 0 || y >= panel.getHeightInTiles()) {
+				throw new ArrayIndexOutOfBoundsException("The tile at (" + x + ", " + y + ") is outside the panel.");
+			}
+
+			if (length + 3 > changes.length) {
+				changes = Arrays.copyOf(changes, changes.length * 2);
+			}
+
+			changes[length++] = type;
+			changes[length++] = y * panel.getWidthInTiles() + x;
+			changes[length++] = value;
+		}
+
+		/**
+		 * Changes the code point of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param codePoint A new code point.
+		 * @return This batch.
+		 */
+		public Batch setCodePointAt(final int x, final int y, final int codePoint) {
+			record(CODE_POINT, x, y, codePoint);
+			return this;
+		}
+
+		/**
+		 * Changes the background color of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param color A new color, or null for {@code UIManager.getColor("Panel.background")}.
+		 * @return This batch.
+		 */
+		public Batch setBackgroundAt(final int x, final int y, final Color color) {
+			return setBackgroundAt(x, y, (color == null ? UIManager.getColor("Panel.background") : color).getRGB());
+		}
+
+		/**
+		 * Changes the background color of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param argb A new color, in ARGB.
+		 * @return This batch.
+		 */
+		public Batch setBackgroundAt(final int x, final int y, final int argb) {
+			record(BACKGROUND, x, y, argb);
+			return this;
+		}
+
+		/**
+		 * Changes the foreground color of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param color A new color, or null for {@code UIManager.getColor("Panel.foreground")}.
+		 * @return This batch.
+		 */
+		public Batch setForegroundAt(final int x, final int y, final Color color) {
+			return setForegroundAt(x, y, (color == null ? UIManager.getColor("Panel.foreground") : color).getRGB());
+		}
+
+		/**
+		 * Changes the foreground color of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param argb A new color, in ARGB.
+		 * @return This batch.
+		 */
+		public Batch setForegroundAt(final int x, final int y, final int argb) {
+			record(FOREGROUND, x, y, argb);
+			return this;
+		}
+
+		/**
+		 * Changes the sequential image operation of a tile.
+		 *
+		 * @param x X-Axis coordinate of the tile.
+		 * @param y Y-Axis coordinate of the tile.
+		 * @param sequentialOp A new sequential image operation, or null.
+		 * @return This batch.
+		 */
+		public Batch setSequentialImageOpAt(final int x, final int y, final SequentialOp sequentialOp) {
+			if (sequentialOps == null) {
+				sequentialOps = new ArrayList<>();
+			}
+
+			record(SEQUENTIAL_OP, x, y, sequentialOps.size());
+			sequentialOps.add(sequentialOp);
+			return this;
+		}
+
+		/**
+		 * Submits the batch, so that its changes are applied before the
+		 * panel's next paint.
+		 *
+		 * The batch can't be changed once it has been submitted. Submitting
+		 * an empty batch has no effect.
+		 */
+		public void submit() {
+			if (submitted) {
+				throw new IllegalStateException("The batch has already been submitted.");
+			}
+
+			submitted = true;
+
+			if (length > 0) {
+				enqueue(this);
+			}
+		}
+
+		/**
+		 * Applies the batch's changes to a panel.
+		 *
+		 * @param panel The panel.
+		 */
+		private void applyTo(final VPanel panel) {
+			final int widthInTiles = panel.getWidthInTiles();
+
+			for (int i = 0 ; i < length ; i += 3) {
+				final int x = changes[i + 1] % widthInTiles;
+				final int y = changes[i + 1] / widthInTiles;
+				final int value = changes[i + 2];
+
+				switch (changes[i]) {
+					case CODE_POINT: {
+						panel.setCodePointAt(x, y, value);
+						break;
+					}
+					case BACKGROUND: {
+						panel.setBackgroundAt(x, y, value);
+						break;
+					}
+					case FOREGROUND: {
+						panel.setForegroundAt(x, y, value);
+						break;
+					}
+					case SEQUENTIAL_OP: {
+						panel.setSequentialImageOpAt(x, y, sequentialOps.get(value));
+						break;
+					}
+				}
+			}
+		}
+	}
+}
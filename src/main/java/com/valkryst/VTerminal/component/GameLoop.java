@@ -0,0 +1,315 @@
+package com.valkryst.VTerminal.component;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs fixed-timestep updates of a {@link VPanel} on a dedicated game thread,
+ * and requests that the panel be rendered after each update which changed
+ * it.
+ *
+ * Updates run at a fixed rate, regardless of how long rendering takes. When
+ * the game thread falls behind, it runs several updates back-to-back to catch
+ * up, but never more than the maximum frame skip; any updates beyond that are
+ * skipped, so that the loop can't spiral into running only updates.
+ *
+ * Render requests are decoupled from updates. The game thread never waits
+ * for the event dispatch thread: it posts at most one render request at a
+ * time, and requests made while one is pending are coalesced into it. When
+ * an update leaves the panel clean, no render is requested at all, so an idle
+ * screen costs the event dispatch thread nothing.
+ *
+ * Each update is run while holding the panel's monitor, which the panel
+ * also holds whenever it is painted. Tiles which are changed from another
+ * thread should be changed within a block which is synchronized on the panel.
+ *
+ * When an update throws an exception, the loop stops and the exception is
+ * reported to the game thread's uncaught exception handler. When the panel's frame is
+ * actively rendering, see {@link VFrame#startActiveRendering(int)}, the
+ * render requests have no effect and the panel is rendered by the frame's
+ * render thread instead.
+ */
+public class GameLoop {
+	/** Default maximum number of updates which are run without rendering. */
+	public static final int DEFAULT_MAX_FRAME_SKIP = 5;
+
+	/** Weight of the latest sample in each average time. */
+	private static final double AVERAGE_WEIGHT = 0.05;
+
+	/** Panel to update and render. */
+	private final VPanel panel;
+	/** Listener to call on each update. */
+	private final UpdateListener updateListener;
+
+	/** Target number of updates per second. */
+	@Getter private final int updatesPerSecond;
+	/** Duration of each update step, in nanoseconds. */
+	private final long stepNanos;
+
+	/** Maximum number of updates which are run, to catch up, without rendering. */
+	@Getter private volatile int maxFrameSkip = DEFAULT_MAX_FRAME_SKIP;
+
+	/** Thread which runs the updates, or null if stopped. */
+	private Thread thread;
+	/** Whether the game thread should continue to run updates. */
+	private volatile boolean running = false;
+
+	/** Whether a render request has been posted, and not yet run. */
+	private final AtomicBoolean renderPending = new AtomicBoolean(false);
+
+	/** Number of updates which have been run. */
+	@Getter private volatile long updateCount = 0;
+	/** Number of updates which were skipped because the loop fell too far behind. */
+	@Getter private volatile long skippedUpdateCount = 0;
+	/** Number of renders which have been run. */
+	@Getter private volatile long renderCount = 0;
+	/** Moving average of the time taken by each update, in nanoseconds. */
+	@Getter private volatile long averageUpdateNanos = 0;
+	/** Moving average of the time taken by each render, in nanoseconds. */
+	@Getter private volatile long averageRenderNanos = 0;
+	/** Number of updates which were run in the last full second. */
+	@Getter private volatile int measuredUps = 0;
+	/** Number of renders which were run in the last full second. */
+	@Getter private volatile int measuredFps = 0;
+
+	/** Time at which the current second of update measurements began. */
+	private long updateSecondStart = 0;
+	/** Number of updates which have been run in the current second. */
+	private int updatesThisSecond = 0;
+	/** Time at which the current second of render measurements began. */
+	private long renderSecondStart = 0;
+	/** Number of renders which have been run in the current second. */
+	private int rendersThisSecond = 0;
+
+	/**
+	 * Constructs a new instance of {@code GameLoop}.
+	 *
+	 * @param panel Panel to update and render.
+	 * @param updatesPerSecond Target number of updates per second.
+	 * @param updateListener Listener to call on each update.
+	 */
+	public GameLoop(final @NonNull VPanel panel, final int updatesPerSecond, final @NonNull UpdateListener updateListener) {
+		if (updatesPerSecond < 1) {
+			throw new IllegalArgumentException("The updates per second must be >= 1.");
+		}
+
+		this.panel = panel;
+		this.updatesPerSecond = updatesPerSecond;
+		this.updateListener = updateListener;
+		stepNanos = TimeUnit.SECONDS.toNanos(1) / updatesPerSecond;
+	}
+
+	/**
+	 * Starts the game thread, if it isn't running.
+	 *
+	 * If the game thread stopped because an update threw an exception, then
+	 * it's replaced by a new thread.
+	 */
+	public synchronized void start() {
+		if (thread != null) {
+			if (running) {
+				return;
+			}
+
+			// The thread stopped itself, and has at most its exit left to run.
+			try {
+				thread.join();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+
+		running = true;
+
+		thread = new Thread(this::run, "VTerminal Game Loop");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the game thread, and waits for it to finish its update.
+	 *
+	 * This must not be called from within an update.
+	 */
+	public synchronized void stop() {
+		if (thread == null) {
+			return;
+		}
+
+		running = false;
+		LockSupport.unpark(thread);
+
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		thread = null;
+	}
+
+	/**
+	 * Determines whether the game thread is running.
+	 *
+	 * @return Whether the game thread is running.
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Sets the maximum number of updates which are run, to catch up, without
+	 * rendering.
+	 *
+	 * @param maxFrameSkip The maximum frame skip.
+	 */
+	public void setMaxFrameSkip(final int maxFrameSkip) {
+		if (maxFrameSkip < 0) {
+			throw new IllegalArgumentException("The maximum frame skip must be >= 0.");
+		}
+
+		this.maxFrameSkip = maxFrameSkip;
+	}
+
+	/**
+	 * Runs updates until the loop is stopped, or until an update throws an
+	 * exception.
+	 */
+	private void run() {
+		try {
+			runUpdates();
+		} catch (final RuntimeException e) {
+			final var thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		} finally {
+			running = false;
+		}
+	}
+
+	/** Runs updates until the loop is stopped. */
+	private void runUpdates() {
+		long previousTime = System.nanoTime();
+		long lag = stepNanos;
+		long tick = 0;
+
+		while (running) {
+			final long now = System.nanoTime();
+			lag += now - previousTime;
+			previousTime = now;
+
+			/*
+			 * One update is run for each step which has elapsed, plus up to
+			 * the maximum frame skip to catch up. Any steps beyond that are
+			 * dropped.
+			 */
+			int updates = 0;
+			while (lag >= stepNanos && updates <= maxFrameSkip && running) {
+				update(tick++);
+				lag -= stepNanos;
+				updates++;
+			}
+
+			if (lag >= stepNanos) {
+				skippedUpdateCount += lag / stepNanos;
+				lag %= stepNanos;
+			}
+
+			if (updates > 0 && panel.isDirty()) {
+				requestRender();
+			}
+
+			final long sleepNanos = stepNanos - lag - (System.nanoTime() - previousTime);
+			if (sleepNanos > 0) {
+				LockSupport.parkNanos(this, sleepNanos);
+			}
+		}
+	}
+
+	/**
+	 * Runs one update.
+	 *
+	 * @param tick Number of updates which preceded this one.
+	 */
+	private void update(final long tick) {
+		final long start = System.nanoTime();
+
+		synchronized (panel) {
+			updateListener.update(tick);
+		}
+
+		final long end = System.nanoTime();
+		averageUpdateNanos = average(averageUpdateNanos, end - start);
+		updateCount++;
+
+		if (end - updateSecondStart >= TimeUnit.SECONDS.toNanos(1)) {
+			measuredUps = updateSecondStart == 0 ? 0 : updatesThisSecond;
+			updateSecondStart = end;
+			updatesThisSecond = 0;
+		}
+
+		updatesThisSecond++;
+	}
+
+	/**
+	 * Posts a render request to the event dispatch thread, unless one is
+	 * already pending.
+	 */
+	private void requestRender() {
+		if (renderPending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this::render);
+		}
+	}
+
+	/**
+	 * Repaints every tile which has changed since the last render, on the
+	 * event dispatch thread.
+	 *
+	 * Only the panel's dirty region is painted, so that no other component
+	 * of the window is painted while the panel's monitor is held.
+	 */
+	private void render() {
+		renderPending.set(false);
+
+		final long start = System.nanoTime();
+
+		synchronized (panel) {
+			panel.repaintDirty();
+
+			final var repaintManager = RepaintManager.currentManager(panel);
+			final var dirtyRegion = repaintManager.getDirtyRegion(panel);
+			if (!dirtyRegion.isEmpty()) {
+				repaintManager.markCompletelyClean(panel);
+				panel.paintImmediately(dirtyRegion);
+			}
+		}
+
+		final long end = System.nanoTime();
+		averageRenderNanos = average(averageRenderNanos, end - start);
+		renderCount++;
+
+		if (end - renderSecondStart >= TimeUnit.SECONDS.toNanos(1)) {
+			measuredFps = renderSecondStart == 0 ? 0 : rendersThisSecond;
+			renderSecondStart = end;
+			rendersThisSecond = 0;
+		}
+
+		rendersThisSecond++;
+	}
+
+	/**
+	 * Adds a sample to a moving average.
+	 *
+	 * @param average The average, or 0 if there have been no samples.
+	 * @param sample The sample.
+	 * @return The new average.
+	 */
+	private static long average(final long average, final long sample) {
+		return average == 0 ? sample : Math.round(average + (sample - average) * AVERAGE_WEIGHT);
+	}
+}
@@ -0,0 +1,38 @@
+package com.valkryst.VTerminal.component;
+
+/** The ways in which a {@link VPanel} can paint its tiles. */
+public enum RenderMode {
+	/** Every tile within the clip region is drawn on every paint. */
+	DIRECT,
+
+	/**
+	 * Tiles are rasterized into a panel-sized backbuffer when they change, and
+	 * each paint copies the clip region from the backbuffer.
+	 *
+	 * This trades the memory of one panel-sized image for paints whose cost
+	 * does not depend on the number of tiles, which suits mostly static
+	 * screens that are frequently repainted by overlapping components.
+	 */
+	BUFFERED,
+
+	/**
+	 * As {@link #BUFFERED}, but tiles are rasterized by writing their pixels
+	 * directly into the backbuffer's pixel array, rather than with one Java2D
+	 * call per background and glyph.
+	 *
+	 * This avoids Java2D's per-call overhead, which dominates when many
+	 * small tiles change at once.
+	 */
+	SOFTWARE,
+
+	/**
+	 * As {@link #SOFTWARE}, but when many tiles change at once, the panel is
+	 * divided into horizontal bands of rows which are rasterized concurrently
+	 * on the common {@link java.util.concurrent.ForkJoinPool}.
+	 *
+	 * Each band writes to its own rows of the backbuffer, so the bands don't
+	 * need to be composited; the backbuffer is copied once they're finished.
+	 * This suits large panels which are frequently redrawn in full.
+	 */
+	PARALLEL
+}
@@ -0,0 +1,205 @@
+package com.valkryst.VTerminal.component;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * The tiles of one frame of a double-buffered {@link VPanel}.
+ *
+ * A buffer is written by a single producer thread, and then published to
+ * the panel with {@link VPanel#swap()}. It is not thread-safe.
+ *
+ * Tile data is stored in flat, row-major arrays, where the tile at (x, y) is
+ * found at index (y * widthInTiles + x).
+ */
+public final class TileBuffer {
+	/** Width of the buffer, in tiles. */
+	@Getter private final int widthInTiles;
+	/** Height of the buffer, in tiles. */
+	@Getter private final int heightInTiles;
+
+	/** Code point of each tile. */
+	final int[] codePoints;
+	/** Background color, in ARGB, of each tile. */
+	final int[] backgroundColors;
+	/** Foreground color, in ARGB, of each tile. */
+	final int[] foregroundColors;
+	/** Sequential image operation of each tile, or null if no tile has ever had an operation. */
+	SequentialOp[] sequentialImageOps;
+
+	/**
+	 * Number of the swap which published the buffer, or 0 if it has never
+	 * been published.
+	 */
+	long sequence = 0;
+
+	/**
+	 * Constructs a new instance of {@code TileBuffer}, which holds the given
+	 * arrays rather than copies of them.
+	 *
+	 * @param widthInTiles Width of the buffer, in tiles.
+	 * @param heightInTiles Height of the buffer, in tiles.
+	 * @param codePoints Code point of each tile.
+	 * @param backgroundColors Background color of each tile.
+	 * @param foregroundColors Foreground color of each tile.
+	 * @param sequentialImageOps Sequential image operation of each tile, or null.
+	 */
+	TileBuffer(final int widthInTiles, final int heightInTiles, final int @NonNull [] codePoints, final int @NonNull [] backgroundColors, final int @NonNull [] foregroundColors, final SequentialOp[] sequentialImageOps) {
+		this.widthInTiles = widthInTiles;
+		this.heightInTiles = heightInTiles;
+		this.codePoints = codePoints;
+		this.backgroundColors = backgroundColors;
+		this.foregroundColors = foregroundColors;
+		this.sequentialImageOps = sequentialImageOps;
+	}
+
+	/**
+	 * Constructs a copy of a buffer.
+	 *
+	 * @return The copy.
+	 */
+	TileBuffer copy() {
+		return new TileBuffer(widthInTiles, heightInTiles, codePoints.clone(), backgroundColors.clone(), foregroundColors.clone(), sequentialImageOps == null ? null : sequentialImageOps.clone());
+	}
+
+	/**
+	 * Retrieves the index of a tile within the tile arrays.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The index of the tile.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the buffer.
+	 */
+	private int getTileIndex(final int x, final int y) {
+		if (x < 0 || x >= widthInTiles || y < 0 || y >= heightInTiles) {
+			throw new ArrayIndexOutOfBoundsException("The tile at (" + x + ", " + y + ") is outside the buffer.");
+		}
+
+		return y * widthInTiles + x;
+	}
+
+	/**
+	 * Retrieves the code point of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The code point.
+	 */
+	public int getCodePointAt(final int x, final int y) {
+		return codePoints[getTileIndex(x, y)];
+	}
+
+	/**
+	 * Changes the code point of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param codePoint A new code point.
+	 */
+	public void setCodePointAt(final int x, final int y, final int codePoint) {
+		codePoints[getTileIndex(x, y)] = codePoint;
+	}
+
+	/**
+	 * Retrieves the background color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The color, in ARGB.
+	 */
+	public int getBackgroundAt(final int x, final int y) {
+		return backgroundColors[getTileIndex(x, y)];
+	}
+
+	/**
+	 * Changes the background color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param color A new color, or null for {@code UIManager.getColor("Panel.background")}.
+	 */
+	public void setBackgroundAt(final int x, final int y, final Color color) {
+		setBackgroundAt(x, y, (color == null ? UIManager.getColor("Panel.background") : color).getRGB());
+	}
+
+	/**
+	 * Changes the background color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setBackgroundAt(final int x, final int y, final int argb) {
+		backgroundColors[getTileIndex(x, y)] = argb;
+	}
+
+	/**
+	 * Retrieves the foreground color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The color, in ARGB.
+	 */
+	public int getForegroundAt(final int x, final int y) {
+		return foregroundColors[getTileIndex(x, y)];
+	}
+
+	/**
+	 * Changes the foreground color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param color A new color, or null for {@code UIManager.getColor("Panel.foreground")}.
+	 */
+	public void setForegroundAt(final int x, final int y, final Color color) {
+		setForegroundAt(x, y, (color == null ? UIManager.getColor("Panel.foreground") : color).getRGB());
+	}
+
+	/**
+	 * Changes the foreground color of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setForegroundAt(final int x, final int y, final int argb) {
+		foregroundColors[getTileIndex(x, y)] = argb;
+	}
+
+	/**
+	 * Retrieves the sequential image operation of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The operation, or null.
+	 */
+	public SequentialOp getSequentialImageOpAt(final int x, final int y) {
+		final int index = getTileIndex(x, y);
+		return sequentialImageOps == null ? null : sequentialImageOps[index];
+	}
+
+	/**
+	 * Changes the sequential image operation of a tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param sequentialOp A new sequential image operation, or null.
+	 */
+	public void setSequentialImageOpAt(final int x, final int y, final SequentialOp sequentialOp) {
+		final int index = getTileIndex(x, y);
+
+		if (sequentialImageOps == null) {
+			if (sequentialOp == null) {
+				return;
+			}
+
+			sequentialImageOps = new SequentialOp[codePoints.length];
+		}
+
+		sequentialImageOps[index] = sequentialOp;
+	}
+}
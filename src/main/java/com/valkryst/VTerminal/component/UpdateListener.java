@@ -0,0 +1,12 @@
+package com.valkryst.VTerminal.component;
+
+/** Listens for the fixed-timestep updates of a {@link GameLoop}. */
+@FunctionalInterface
+public interface UpdateListener {
+	/**
+	 * Called once per update, on the game loop's thread.
+	 *
+	 * @param tick Number of updates which preceded this one.
+	 */
+	void update(final long tick);
+}
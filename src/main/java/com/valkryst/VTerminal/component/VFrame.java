@@ -16,6 +16,9 @@ public class VFrame extends JFrame {
 	/** Whether the frame is in full screen mode. */
 	@Getter private boolean isFullScreen = false;
 
+	/** Renderer which paints the content pane, or null if rendering passively. */
+	@Getter private ActiveRenderer activeRenderer;
+
 	/**
 	 * Constructs a new instance of {@code VFrame}.
 	 *
@@ -127,6 +130,76 @@ public class VFrame extends JFrame {
 		super.requestFocus();
 	}
 
+	/**
+	 * Enables active rendering, in which the content pane is painted onto a
+	 * canvas by a dedicated render thread at a target frame rate, rather than
+	 * by Swing's repaint manager.
+	 *
+	 * The canvas replaces the content pane within the frame, so it receives
+	 * the frame's mouse and keyboard input. While actively rendering, the
+	 * content pane's tiles should only be changed within a block which is
+	 * synchronized on the content pane.
+	 *
+	 * This must be called on the event dispatch thread.
+	 *
+	 * @param targetFps Target number of frames per second.
+	 * @return The renderer.
+	 * @throws IllegalStateException If this isn't called on the event dispatch thread, or if the frame is already actively rendering.
+	 * @see ActiveRenderer
+	 */
+	public ActiveRenderer startActiveRendering(final int targetFps) {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			throw new IllegalStateException("Active rendering must be started on the event dispatch thread.");
+		}
+
+		if (activeRenderer != null) {
+			throw new IllegalStateException("The frame is already actively rendering.");
+		}
+
+		final var renderer = new ActiveRenderer(contentPane, targetFps);
+		final var canvas = renderer.getCanvas();
+		canvas.setPreferredSize(contentPane.getWidth() > 0 ? contentPane.getSize() : contentPane.getPreferredSize());
+
+		final var canvasPane = new JPanel(new BorderLayout());
+		canvasPane.add(canvas, BorderLayout.CENTER);
+
+		super.setIgnoreRepaint(true);
+		super.setContentPane(canvasPane);
+		super.revalidate();
+
+		activeRenderer = renderer;
+		renderer.start();
+		canvas.requestFocus();
+		return renderer;
+	}
+
+	/**
+	 * Disables active rendering, and restores the content pane so that it is
+	 * painted by Swing's repaint manager.
+	 *
+	 * This has no effect if the frame isn't actively rendering. It must be
+	 * called on the event dispatch thread.
+	 *
+	 * @throws IllegalStateException If this isn't called on the event dispatch thread.
+	 */
+	public void stopActiveRendering() {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			throw new IllegalStateException("Active rendering must be stopped on the event dispatch thread.");
+		}
+
+		if (activeRenderer == null) {
+			return;
+		}
+
+		activeRenderer.stop();
+		activeRenderer = null;
+
+		super.setIgnoreRepaint(false);
+		super.setContentPane(contentPane);
+		super.revalidate();
+		contentPane.repaint();
+	}
+
 	@Override
 	public void setPreferredSize(final @NonNull Dimension preferredSize) {
 		this.preferredSize = preferredSize;
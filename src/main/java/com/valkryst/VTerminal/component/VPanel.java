@@ -1,21 +1,179 @@
 package com.valkryst.VTerminal.component;
 
+import com.valkryst.VTerminal.font.GlyphKey;
+import com.valkryst.VTerminal.font.VFont;
+import com.valkryst.VTerminal.image.AnimatedOp;
+import com.valkryst.VTerminal.image.AnimationClock;
 import com.valkryst.VTerminal.image.SequentialOp;
-import com.valkryst.VTerminal.palette.VColor;
 import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
+import lombok.Getter;
+import lombok.NonNull;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
 
 public class VPanel extends JPanel implements Scrollable {
+	/** Number of entries in the color cache. Must be a power of two. */
+	private static final int COLOR_CACHE_SIZE = 256;
+
+	/**
+	 * Minimum number of stale tiles for which the parallel render mode
+	 * rasterizes bands concurrently. Below this, the cost of scheduling the
+	 * bands outweighs the work which they share.
+	 */
+	private static final int MIN_PARALLEL_STALE_TILES = 512;
+
+	/** Minimum number of rows in each band, in the parallel render mode. */
+	private static final int MIN_BAND_ROWS = 2;
+
+	/**
+	 * Minimum number of distinct glyphs, with sequential image operations,
+	 * which are filtered in parallel before they're painted.
+	 */
+	private static final int MIN_PREFILTERED_GLYPHS = 2;
+
+	/** Keys of the rendering hints which are used when painting tiles. */
+	private static final RenderingHints.Key[] RENDERING_HINT_KEYS = {
+		RenderingHints.KEY_ALPHA_INTERPOLATION,
+		RenderingHints.KEY_ANTIALIASING,
+		RenderingHints.KEY_COLOR_RENDERING,
+		RenderingHints.KEY_DITHERING,
+		RenderingHints.KEY_INTERPOLATION,
+		RenderingHints.KEY_RENDERING,
+		RenderingHints.KEY_STROKE_CONTROL
+	};
+
+	/** Values of the rendering hints which are used when painting tiles. */
+	private static final Object[] RENDERING_HINT_VALUES = {
+		RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED,
+		RenderingHints.VALUE_ANTIALIAS_OFF,
+		RenderingHints.VALUE_COLOR_RENDER_QUALITY,
+		RenderingHints.VALUE_DITHER_ENABLE,
+		RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+		RenderingHints.VALUE_RENDER_SPEED,
+		RenderingHints.VALUE_STROKE_NORMALIZE
+	};
+
+	/** Width of the panel, in tiles. */
+	private final int widthInTiles;
+	/** Height of the panel, in tiles. */
+	private final int heightInTiles;
+
+	/*
+	 * Tile data is stored in flat, row-major arrays, where the tile at (x, y)
+	 * is found at index (y * widthInTiles + x). Colors are stored as packed
+	 * ARGB ints, so that no Color objects need to be retained per tile.
+	 *
+	 * When the panel is double-buffered, the arrays are those of the front
+	 * buffer, and are replaced whenever a published buffer is shown.
+	 */
+
 	/** Code point of each tile. */
-	private final int[][] codePoints;
-	/** Background color of each tile. */
-	private final Color[][] backgroundColors;
-	/** Foreground color of each tile. */
-	private final Color[][] foregroundColors;
-	/** Sequential image operation of each tile. */
-	private final SequentialOp[][] sequentialImageOps;
+	private int[] codePoints;
+	/** Background color, in ARGB, of each tile. */
+	private int[] backgroundColors;
+	/** Foreground color, in ARGB, of each tile. */
+	private int[] foregroundColors;
+	/**
+	 * Sequential image operation of each tile, or null if no tile has ever
+	 * had an operation.
+	 *
+	 * Few panels ever use operations, so the array is only allocated when
+	 * the first operation is set.
+	 */
+	private SequentialOp[] sequentialImageOps;
+	/** Number of tiles which have a sequential image operation. */
+	private int sequentialImageOpCount = 0;
+
+	/**
+	 * Number of tiles which have an animated operation. While it is above
+	 * zero, and the panel is displayable, the panel listens to the shared
+	 * {@link AnimationClock}.
+	 */
+	private int animatedOpCount = 0;
+	/** Time of the animation clock at which the animated tiles are painted. */
+	private long animationNanos = 0;
+	/** Repaints the animated tiles whose frames have changed, on each tick of the animation clock. */
+	private final LongConsumer animationListener = nanos -> {
+		synchronized (this) {
+			animate(nanos);
+		}
+	};
+
+	/**
+	 * Direct-mapped cache of the Color objects used to paint backgrounds, so
+	 * that a frame whose colors were used by a previous frame doesn't need
+	 * to allocate any.
+	 */
+	private final Color[] colorCache = new Color[COLOR_CACHE_SIZE];
+
+	/** Reused to hold the clip bounds of the graphics context being painted. */
+	private final Rectangle clipBounds = new Rectangle();
+
+	/** Reused to hold the keys of the glyphs which are prefiltered before painting. */
+	private final HashSet<GlyphKey> prefilterKeys = new HashSet<>();
+
+	/** Values of the rendering hints which were replaced while painting. */
+	private final Object[] savedRenderingHintValues = new Object[RENDERING_HINT_KEYS.length];
+
+	/*
+	 * Tiles which have changed since the last call to repaintDirty are tracked
+	 * as a span of columns per row, [dirtyRowStarts[y], dirtyRowEnds[y]). A
+	 * row is clean when its start is greater than or equal to its end.
+	 */
+
+	/** Column of the first dirty tile in each row. */
+	private final int[] dirtyRowStarts;
+	/** Column after the last dirty tile in each row. */
+	private final int[] dirtyRowEnds;
+	/** Whether any tile has changed since the last call to repaintDirty. */
+	private boolean hasDirtyTiles = false;
+
+	/** How the panel paints its tiles. */
+	@Getter private RenderMode renderMode = RenderMode.DIRECT;
+	/** Panel-sized image holding every rasterized tile, when buffered. */
+	private BufferedImage backbuffer;
+	/** Pixels of the backbuffer, in premultiplied ARGB, when rendered in software. */
+	private int[] backbufferPixels;
+	/** Whether the backbuffer was rasterized while the panel was opaque. */
+	private boolean backbufferOpaque;
+	/** Indices of the tiles which must be rasterized into the backbuffer. */
+	private final BitSet staleTiles = new BitSet();
+
+	/** Queues changes to the panel's tiles from other threads. */
+	@Getter private final ConcurrentTileWriter concurrentTileWriter = new ConcurrentTileWriter(this);
+
+	/*
+	 * A double-buffered panel has three tile buffers, which are exchanged by
+	 * reference and never copied. The producer writes the back buffer, and
+	 * swap exchanges it with the published buffer. The painter exchanges the
+	 * published buffer with the front buffer, whose arrays are those of the
+	 * panel, whenever the published buffer is newer. Neither thread ever
+	 * waits for the other, and neither sees a buffer which the other is
+	 * using.
+	 */
+
+	/** Buffer which holds the panel's tile arrays, or null if the panel isn't double-buffered. */
+	private volatile TileBuffer frontBuffer;
+	/** Buffer which was most recently published, or which is waiting to be reused. */
+	private final AtomicReference<TileBuffer> publishedBuffer = new AtomicReference<>();
+	/** Buffer which is written by the producer, or null if the panel isn't double-buffered. */
+	private volatile TileBuffer backBuffer;
+	/** Number of swaps which have been made. Only accessed by the producer. */
+	private long swapCount = 0;
+	/** Whether a request to show the published buffer has been posted, and not yet run. */
+	private final AtomicBoolean showPending = new AtomicBoolean(false);
 
 	/**
 	 * Constructs a new instance of {@code VPanel}.
@@ -32,39 +190,287 @@ public class VPanel extends JPanel implements Scrollable {
 			throw new IllegalArgumentException("The height must be >= 1.");
 		}
 
-		codePoints = new int[heightInTiles][widthInTiles];
-		backgroundColors = new Color[heightInTiles][widthInTiles];
-		foregroundColors = new Color[heightInTiles][widthInTiles];
-		sequentialImageOps = new SequentialOp[heightInTiles][widthInTiles];
+		this.widthInTiles = widthInTiles;
+		this.heightInTiles = heightInTiles;
+
+		final int totalTiles = widthInTiles * heightInTiles;
+		codePoints = new int[totalTiles];
+		backgroundColors = new int[totalTiles];
+		foregroundColors = new int[totalTiles];
 
-		final var backgroundColor = super.getBackground();
-		final var foregroundColor = super.getForeground();
-		for (int y = 0; y < heightInTiles; y++) {
-			for (int x = 0; x < widthInTiles; x++) {
-				codePoints[y][x] = ' ';
-				backgroundColors[y][x] = new VColor(backgroundColor);
-				foregroundColors[y][x] = new VColor(foregroundColor);
+		Arrays.fill(codePoints, ' ');
+		Arrays.fill(backgroundColors, super.getBackground().getRGB());
+		Arrays.fill(foregroundColors, super.getForeground().getRGB());
+
+		dirtyRowStarts = new int[heightInTiles];
+		dirtyRowEnds = new int[heightInTiles];
+		Arrays.fill(dirtyRowStarts, widthInTiles);
+	}
+
+	/**
+	 * Retrieves the index of a tile within the tile arrays.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The index of the tile.
+	 * @throws ArrayIndexOutOfBoundsException If the tile is outside the panel.
+	 */
+	private int getTileIndex(final int x, final int y) {
+		if (x < 0 || x >= widthInTiles || y < 0 || y >= heightInTiles) {
+			throw new ArrayIndexOutOfBoundsException("The tile at (" + x + ", " + y + ") is outside the panel.");
+		}
+
+		return y * widthInTiles + x;
+	}
+
+	/**
+	 * Marks a tile as dirty, so that it is repainted by the next call to
+	 * {@link #repaintDirty()}.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 */
+	private void markTileDirty(final int x, final int y) {
+		if (x < dirtyRowStarts[y]) {
+			dirtyRowStarts[y] = x;
+		}
+
+		if (x >= dirtyRowEnds[y]) {
+			dirtyRowEnds[y] = x + 1;
+		}
+
+		hasDirtyTiles = true;
+
+		if (backbuffer != null) {
+			staleTiles.set(y * widthInTiles + x);
+		}
+	}
+
+	/**
+	 * Marks every tile which lies entirely within a region of the panel as
+	 * clean, as it has just been painted.
+	 *
+	 * The dirty tiles of each row are tracked as a single span, so a span is
+	 * only trimmed where the region covers either of its ends. A span which
+	 * extends past both sides of the region is left as it is.
+	 *
+	 * @param bounds The region, in pixels.
+	 */
+	private void markTilesClean(final Rectangle bounds) {
+		if (!hasDirtyTiles) {
+			return;
+		}
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		final int startX = Math.max(0, Math.floorDiv(bounds.x + tileWidth - 1, tileWidth));
+		final int endX = Math.min(widthInTiles, Math.floorDiv(bounds.x + bounds.width, tileWidth));
+		final int startY = Math.max(0, Math.floorDiv(bounds.y + tileHeight - 1, tileHeight));
+		final int endY = Math.min(heightInTiles, Math.floorDiv(bounds.y + bounds.height, tileHeight));
+
+		boolean dirty = false;
+		for (int y = 0 ; y < heightInTiles ; y++) {
+			final int start = dirtyRowStarts[y];
+			final int end = dirtyRowEnds[y];
+
+			if (y >= startY && y < endY && start < end) {
+				if (start >= startX && end <= endX) {
+					dirtyRowStarts[y] = widthInTiles;
+					dirtyRowEnds[y] = 0;
+				} else if (start >= startX && start < endX) {
+					dirtyRowStarts[y] = endX;
+				} else if (end > startX && end <= endX) {
+					dirtyRowEnds[y] = startX;
+				}
+			}
+
+			dirty |= dirtyRowStarts[y] < dirtyRowEnds[y];
+		}
+
+		hasDirtyTiles = dirty;
+	}
+
+	/**
+	 * Marks every tile as dirty, so that the entire panel is repainted by the
+	 * next call to {@link #repaintDirty()}.
+	 */
+	private void markAllTilesDirty() {
+		Arrays.fill(dirtyRowStarts, 0);
+		Arrays.fill(dirtyRowEnds, widthInTiles);
+		hasDirtyTiles = true;
+
+		if (backbuffer != null) {
+			staleTiles.set(0, widthInTiles * heightInTiles);
+		}
+	}
+
+	/**
+	 * Determines whether any tile has changed since the last call to
+	 * {@link #repaintDirty()}.
+	 *
+	 * @return Whether any tile has changed.
+	 */
+	public boolean isDirty() {
+		return hasDirtyTiles;
+	}
+
+	/**
+	 * Requests a repaint of every tile that has changed since the last call to
+	 * this method, then marks all tiles as clean.
+	 *
+	 * Consecutive rows with identical dirty spans are merged into a single
+	 * tile-aligned region, so that the fewest possible repaint requests are
+	 * made. Unlike {@link #repaint()}, unchanged regions of the panel are not
+	 * repainted.
+	 */
+	public void repaintDirty() {
+		if (!hasDirtyTiles) {
+			return;
+		}
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		int y = 0;
+		while (y < heightInTiles) {
+			final int start = dirtyRowStarts[y];
+			final int end = dirtyRowEnds[y];
+
+			if (start >= end) {
+				y++;
+				continue;
 			}
+
+			int rows = 1;
+			while (y + rows < heightInTiles && dirtyRowStarts[y + rows] == start && dirtyRowEnds[y + rows] == end) {
+				rows++;
+			}
+
+			super.repaint(start * tileWidth, y * tileHeight, (end - start) * tileWidth, rows * tileHeight);
+			y += rows;
 		}
+
+		Arrays.fill(dirtyRowStarts, widthInTiles);
+		Arrays.fill(dirtyRowEnds, 0);
+		hasDirtyTiles = false;
 	}
 
 	private void applyRenderingHints(final Graphics2D graphics) {
-		graphics.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED);
-		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-		graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-		graphics.setRenderingHint(RenderingHints.KEY_DITHERING, RenderingHints.VALUE_DITHER_ENABLE);
-		graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-		graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
-		graphics.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+		for (int i = 0 ; i < RENDERING_HINT_KEYS.length ; i++) {
+			graphics.setRenderingHint(RENDERING_HINT_KEYS[i], RENDERING_HINT_VALUES[i]);
+		}
+	}
+
+	/**
+	 * Saves the current value of each rendering hint, which is changed by
+	 * {@link #applyRenderingHints(Graphics2D)}, so that it can be restored.
+	 *
+	 * @param graphics A graphics context.
+	 */
+	private void saveRenderingHints(final Graphics2D graphics) {
+		for (int i = 0 ; i < RENDERING_HINT_KEYS.length ; i++) {
+			savedRenderingHintValues[i] = graphics.getRenderingHint(RENDERING_HINT_KEYS[i]);
+		}
+	}
+
+	/**
+	 * Restores the rendering hints saved by {@link #saveRenderingHints(Graphics2D)}.
+	 *
+	 * @param graphics A graphics context.
+	 */
+	private void restoreRenderingHints(final Graphics2D graphics) {
+		for (int i = 0 ; i < RENDERING_HINT_KEYS.length ; i++) {
+			final var value = savedRenderingHintValues[i];
+			if (value != null) {
+				graphics.setRenderingHint(RENDERING_HINT_KEYS[i], value);
+			}
+
+			savedRenderingHintValues[i] = null;
+		}
 	}
 
 	@Override
 	public void paintComponent(final Graphics graphics) {
-		super.paintComponent(graphics);
+		/*
+		 * The latest published buffer is shown, and changes queued by other
+		 * threads are applied, before anything is painted, so that the paint
+		 * shows every buffer and queued batch in full. Tiles outside the clip
+		 * region are repainted by a later paint.
+		 *
+		 * The panel's monitor is held throughout, so that no paint shows a
+		 * partial change made by a thread which holds it, such as a GameLoop.
+		 */
+		synchronized (this) {
+			final boolean appliedQueuedChanges = showPublishedBuffer() | concurrentTileWriter.apply();
 
-		final var graphics2D = (Graphics2D) graphics.create();
+			super.paintComponent(graphics);
+			paintTilesWithHints((Graphics2D) graphics);
+
+			if (appliedQueuedChanges) {
+				// The tiles within the clip region have just been painted, so only those outside of it are repainted.
+				clipBounds.setBounds(0, 0, super.getWidth(), super.getHeight());
+				graphics.getClipBounds(clipBounds);
+				markTilesClean(clipBounds);
+				repaintDirty();
+			}
+		}
+	}
+
+	/**
+	 * Paints the panel onto a graphics context, from a thread other than the
+	 * event dispatch thread, such as the render thread of an
+	 * {@link ActiveRenderer}.
+	 *
+	 * Unlike {@link #paintComponent}, the panel is painted without any call
+	 * to Swing and no repaint is requested. The panel must already have been
+	 * sized on the event dispatch thread.
+	 *
+	 * @param graphics A graphics context.
+	 */
+	void renderFrame(final @NonNull Graphics graphics) {
+		synchronized (this) {
+			showPublishedBuffer();
+			concurrentTileWriter.apply();
+
+			final var graphics2D = (Graphics2D) graphics;
+			graphics2D.setColor(super.getBackground());
+			graphics2D.fillRect(0, 0, super.getWidth(), super.getHeight());
+			paintTilesWithHints(graphics2D);
+		}
+	}
+
+	/**
+	 * Paints every tile within the clip region of a graphics context, with
+	 * the panel's rendering hints.
+	 *
+	 * @param graphics2D A graphics context.
+	 */
+	private void paintTilesWithHints(final Graphics2D graphics2D) {
+		/*
+		 * Rather than painting with a copy of the graphics context, which must
+		 * be allocated, the rendering hints are changed and then restored.
+		 */
+		final var color = graphics2D.getColor();
+		saveRenderingHints(graphics2D);
 		applyRenderingHints(graphics2D);
 
+		try {
+			paintTiles(graphics2D);
+		} finally {
+			restoreRenderingHints(graphics2D);
+			graphics2D.setColor(color);
+		}
+	}
+
+	/**
+	 * Paints every tile within the clip region of a graphics context.
+	 *
+	 * @param graphics2D A graphics context.
+	 */
+	private void paintTiles(final Graphics2D graphics2D) {
 		final var laf = VTerminalLookAndFeel.getInstance();
 		final var tileWidth = laf.getTileWidth();
 		final var tileHeight = laf.getTileHeight();
@@ -79,62 +485,656 @@ public class VPanel extends JPanel implements Scrollable {
 		 * on every paint, it is performant to redraw only those tiles that
 		 * will appear within the bounds.
 		 */
-		final var clipBounds = graphics2D.getClip().getBounds2D();
+		clipBounds.setBounds(0, 0, super.getWidth(), super.getHeight());
+		graphics2D.getClipBounds(clipBounds);
+
+		if (renderMode != RenderMode.DIRECT) {
+			updateBackbuffer(tileWidth, tileHeight);
 
-		final int tilesStartX = (int) (clipBounds.getX() / tileWidth);
-		final int tilesStartY = (int) (clipBounds.getY() / tileHeight);
-		int tilesEndX = (int) Math.ceil((clipBounds.getX() + clipBounds.getWidth()) / (double) tileWidth);
-		tilesEndX = Math.min(codePoints[0].length, tilesEndX);
-		int tilesEndY = (int) Math.ceil((clipBounds.getY() + clipBounds.getHeight()) / (double) tileHeight);
-		tilesEndY = Math.min(codePoints.length, tilesEndY);
+			/*
+			 * The backbuffer always holds the latest state of every tile, so the
+			 * clip region can be copied directly from it.
+			 */
+			final int x = clipBounds.x;
+			final int y = clipBounds.y;
+			final int width = Math.min(clipBounds.width, backbuffer.getWidth() - x);
+			final int height = Math.min(clipBounds.height, backbuffer.getHeight() - y);
+
+			if (width > 0 && height > 0) {
+				graphics2D.drawImage(backbuffer, x, y, x + width, y + height, x, y, x + width, y + height, null);
+			}
+
+			return;
+		}
 
 		/*
 		 * To ensure the clip region is fully repainted and that no visual
 		 * artifacts remain after the paint, we must round down to the
 		 * coordinates of the nearest tile and start painting from there.
 		 */
-		final int initialXPosition = (int) (clipBounds.getX() - (clipBounds.getX() % tileWidth));
-		int xPosition = initialXPosition;
-		int yPosition = (int) (clipBounds.getY() - (clipBounds.getY() % tileHeight));
-
-		for (int tilesY = tilesStartY ; tilesY < tilesEndY ; tilesY++) {
-			for (int tilesX = tilesStartX ; tilesX < tilesEndX ; tilesX++) {
-				var backgroundColor = backgroundColors[tilesY][tilesX];
-				var foregroundColor = foregroundColors[tilesY][tilesX];
-
-				if (super.isOpaque()) {
-					if (backgroundColor.getAlpha() != 255) {
-						backgroundColor = new Color(backgroundColor.getRGB(), false);
+		final int tilesStartX = Math.max(0, clipBounds.x / tileWidth);
+		final int tilesStartY = Math.max(0, clipBounds.y / tileHeight);
+		int tilesEndX = (int) Math.ceil((clipBounds.x + clipBounds.width) / (double) tileWidth);
+		tilesEndX = Math.min(widthInTiles, tilesEndX);
+		int tilesEndY = (int) Math.ceil((clipBounds.y + clipBounds.height) / (double) tileHeight);
+		tilesEndY = Math.min(heightInTiles, tilesEndY);
+
+		/*
+		 * Consecutive rows whose backgrounds are identical, within the clip
+		 * region, are painted together so that their background runs can be
+		 * filled as single rectangles.
+		 */
+		int tilesY = tilesStartY;
+		while (tilesY < tilesEndY) {
+			int rows = 1;
+			while (tilesY + rows < tilesEndY && haveEqualBackgrounds(tilesY, tilesY + rows, tilesStartX, tilesEndX)) {
+				rows++;
+			}
+
+			paintTiles(graphics2D, tilesY, rows, tilesStartX, tilesEndX, tileWidth, tileHeight);
+			tilesY += rows;
+		}
+	}
+
+	/**
+	 * Determines whether two rows have identical background colors, within a
+	 * range of columns.
+	 *
+	 * @param rowA Y-Axis coordinate of a row.
+	 * @param rowB Y-Axis coordinate of another row.
+	 * @param tilesStartX X-Axis coordinate of the first column.
+	 * @param tilesEndX X-Axis coordinate after the last column.
+	 * @return Whether the rows have identical backgrounds.
+	 */
+	private boolean haveEqualBackgrounds(final int rowA, final int rowB, final int tilesStartX, final int tilesEndX) {
+		final int indexA = rowA * widthInTiles;
+		final int indexB = rowB * widthInTiles;
+		return Arrays.equals(backgroundColors, indexA + tilesStartX, indexA + tilesEndX, backgroundColors, indexB + tilesStartX, indexB + tilesEndX);
+	}
+
+	/**
+	 * Paints the tiles within a range of columns, of one or more rows, onto a
+	 * graphics context.
+	 *
+	 * @param graphics A graphics context.
+	 * @param tilesY Y-Axis coordinate of the first row.
+	 * @param rows
+	 * 		Number of rows to paint. Every row must have the same backgrounds,
+	 * 		within the range of columns, as the first.
+	 * @param tilesStartX X-Axis coordinate of the first column.
+	 * @param tilesEndX X-Axis coordinate after the last column.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 */
+	private void paintTiles(final Graphics2D graphics, final int tilesY, final int rows, final int tilesStartX, final int tilesEndX, final int tileWidth, final int tileHeight) {
+		if (tilesStartX >= tilesEndX) {
+			return;
+		}
+
+		/*
+		 * When the panel is opaque, the alpha component of every tile's colors
+		 * is ignored.
+		 */
+		final int alphaMask = super.isOpaque() ? 0xFF000000 : 0;
+
+		paintBackgrounds(graphics, tilesY, rows, tilesStartX, tilesEndX, tileWidth, tileHeight, alphaMask);
+
+		for (int row = tilesY ; row < tilesY + rows ; row++) {
+			paintGlyphs(graphics, row, tilesStartX, tilesEndX, tileWidth, tileHeight, alphaMask);
+		}
+	}
+
+	/**
+	 * Paints the backgrounds of the tiles within a range of columns, of one
+	 * or more rows with identical backgrounds.
+	 *
+	 * Each run of adjacent tiles with the same background is filled with a
+	 * single rectangle, which spans every row.
+	 *
+	 * @param graphics A graphics context.
+	 * @param tilesY Y-Axis coordinate of the first row.
+	 * @param rows Number of rows.
+	 * @param tilesStartX X-Axis coordinate of the first column.
+	 * @param tilesEndX X-Axis coordinate after the last column.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 * @param alphaMask Mask to OR with each color.
+	 */
+	private void paintBackgrounds(final Graphics2D graphics, final int tilesY, final int rows, final int tilesStartX, final int tilesEndX, final int tileWidth, final int tileHeight, final int alphaMask) {
+		final int rowIndex = tilesY * widthInTiles;
+		final int yPosition = tilesY * tileHeight;
+		final int height = rows * tileHeight;
+
+		int runStartX = tilesStartX;
+		int runArgb = backgroundColors[rowIndex + tilesStartX] | alphaMask;
+
+		for (int tilesX = tilesStartX + 1 ; tilesX <= tilesEndX ; tilesX++) {
+			// Past the last column, a color which differs from the run's ends the final run.
+			final int argb = tilesX == tilesEndX ? ~runArgb : backgroundColors[rowIndex + tilesX] | alphaMask;
+			if (argb == runArgb) {
+				continue;
+			}
+
+			if ((runArgb >>> 24) > 0) {
+				graphics.setColor(getColor(runArgb));
+				graphics.fillRect(runStartX * tileWidth, yPosition, (tilesX - runStartX) * tileWidth, height);
+			}
+
+			runStartX = tilesX;
+			runArgb = argb;
+		}
+	}
+
+	/**
+	 * Paints the glyphs of the tiles within a range of columns, of a row.
+	 *
+	 * @param graphics A graphics context.
+	 * @param tilesY Y-Axis coordinate of the row.
+	 * @param tilesStartX X-Axis coordinate of the first column.
+	 * @param tilesEndX X-Axis coordinate after the last column.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 * @param alphaMask Mask to OR with each color.
+	 */
+	private void paintGlyphs(final Graphics2D graphics, final int tilesY, final int tilesStartX, final int tilesEndX, final int tileWidth, final int tileHeight, final int alphaMask) {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var sequentialImageOps = sequentialImageOpCount == 0 ? null : this.sequentialImageOps;
+
+		final int yPosition = tilesY * tileHeight;
+		int xPosition = tilesStartX * tileWidth;
+		int index = tilesY * widthInTiles + tilesStartX;
+
+		for (int tilesX = tilesStartX ; tilesX < tilesEndX ; tilesX++, index++) {
+			final int foregroundArgb = foregroundColors[index] | alphaMask;
+
+			if ((foregroundArgb >>> 24) > 0) {
+				final var sequentialOp = sequentialImageOps == null ? null : sequentialImageOps[index];
+				laf.drawGlyph(graphics, codePoints[index], foregroundArgb, sequentialOp, animationNanos, xPosition, yPosition, this, tilesX, tilesY);
+			}
+
+			xPosition += tileWidth;
+		}
+	}
+
+	/**
+	 * Retrieves a Color object for an ARGB value, from the color cache if
+	 * possible.
+	 *
+	 * @param argb A color, in ARGB.
+	 * @return The color.
+	 */
+	private Color getColor(final int argb) {
+		final int index = (argb ^ (argb >>> 8) ^ (argb >>> 16)) & (COLOR_CACHE_SIZE - 1);
+
+		var color = colorCache[index];
+		if (color == null || color.getRGB() != argb) {
+			color = new Color(argb, true);
+			colorCache[index] = color;
+		}
+
+		return color;
+	}
+
+	/**
+	 * Creates the backbuffer if it is missing or the wrong size, and then
+	 * rasterizes every stale tile into it.
+	 *
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 */
+	private void updateBackbuffer(final int tileWidth, final int tileHeight) {
+		final int width = widthInTiles * tileWidth;
+		final int height = heightInTiles * tileHeight;
+		final boolean software = renderMode == RenderMode.SOFTWARE || renderMode == RenderMode.PARALLEL;
+
+		if (backbuffer == null || backbuffer.getWidth() != width || backbuffer.getHeight() != height || backbufferOpaque != super.isOpaque()) {
+			if (software) {
+				backbuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+				backbufferPixels = ((DataBufferInt) backbuffer.getRaster().getDataBuffer()).getData();
+			} else {
+				backbuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				backbufferPixels = null;
+			}
+
+			backbufferOpaque = super.isOpaque();
+			staleTiles.set(0, widthInTiles * heightInTiles);
+		}
+
+		if (staleTiles.isEmpty()) {
+			return;
+		}
+
+		prefilterGlyphs(staleTiles);
+
+		if (software) {
+			/*
+			 * In the parallel render mode, bands of rows are rasterized on the
+			 * common pool while this thread waits. The tiles can't change until
+			 * every band has finished, as they're only changed on this thread.
+			 */
+			final var pool = ForkJoinPool.commonPool();
+			final int bandRows = Math.max(MIN_BAND_ROWS, heightInTiles / (pool.getParallelism() * 4));
+
+			if (renderMode == RenderMode.PARALLEL && heightInTiles >= bandRows * 2 && staleTiles.cardinality() >= MIN_PARALLEL_STALE_TILES) {
+				pool.invoke(new RasterizeBandTask(0, heightInTiles, bandRows, tileWidth, tileHeight));
+			} else {
+				rasterizeStaleTiles(0, heightInTiles, tileWidth, tileHeight);
+			}
+
+			staleTiles.clear();
+			return;
+		}
+
+		final var graphics = backbuffer.createGraphics();
+		applyRenderingHints(graphics);
+
+		/*
+		 * Stale tiles are processed in contiguous runs, split at the end of
+		 * each row, so that runs of adjacent tiles can be painted together.
+		 */
+		int start = staleTiles.nextSetBit(0);
+		while (start >= 0) {
+			final int end = staleTiles.nextClearBit(start);
+
+			int runStart = start;
+			while (runStart < end) {
+				final int y = runStart / widthInTiles;
+				final int startX = runStart % widthInTiles;
+				final int endX = Math.min(widthInTiles, startX + (end - runStart));
+
+				graphics.setComposite(AlphaComposite.Clear);
+				graphics.fillRect(startX * tileWidth, y * tileHeight, (endX - startX) * tileWidth, tileHeight);
+				graphics.setComposite(AlphaComposite.SrcOver);
+
+				paintTiles(graphics, y, 1, startX, endX, tileWidth, tileHeight);
+
+				runStart += endX - startX;
+			}
+
+			start = staleTiles.nextSetBit(end);
+		}
+
+		graphics.dispose();
+		staleTiles.clear();
+	}
+
+	/**
+	 * Filters the glyphs of every tile which has a sequential image operation,
+	 * in parallel, so that painting them only requires a lookup.
+	 *
+	 * This is done automatically for every changed tile before it is
+	 * painted, unless the render mode is {@link RenderMode#DIRECT}. In that
+	 * mode, calling this after assigning operations to many tiles moves their
+	 * filtering out of the paint.
+	 *
+	 * This must only be called on the thread which changes the panel's tiles.
+	 *
+	 * @see VFont#prefilter(java.util.Collection)
+	 */
+	public void prefilterSequentialOps() {
+		prefilterGlyphs(null);
+	}
+
+	/**
+	 * Filters the glyphs of a set of tiles which have sequential image
+	 * operations, in parallel, unless there are too few distinct glyphs to
+	 * share the work.
+	 *
+	 * Glyphs which the font has recently drawn are skipped without
+	 * allocating, so a frame whose glyphs are all cached allocates nothing.
+	 *
+	 * @param tiles Indices of the tiles, or null for every tile.
+	 */
+	private void prefilterGlyphs(final BitSet tiles) {
+		if (sequentialImageOpCount == 0) {
+			return;
+		}
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+
+		// The glyphs must be keyed by the colors with which they're painted.
+		final int alphaMask = super.isOpaque() ? 0xFF000000 : 0;
+
+		int index = tiles == null ? 0 : tiles.nextSetBit(0);
+		while (index >= 0 && index < codePoints.length) {
+			final var sequentialOp = sequentialImageOps[index];
+			final int foregroundArgb = foregroundColors[index] | alphaMask;
+
+			if (sequentialOp != null && (foregroundArgb >>> 24) > 0 && !laf.isCached(codePoints[index], foregroundArgb, sequentialOp, animationNanos)) {
+				prefilterKeys.add(GlyphKey.colored(codePoints[index], foregroundArgb, sequentialOp));
+			}
+
+			index = tiles == null ? index + 1 : tiles.nextSetBit(index + 1);
+		}
+
+		try {
+			if (prefilterKeys.size() >= MIN_PREFILTERED_GLYPHS) {
+				laf.prefilter(prefilterKeys, animationNanos);
+			}
+		} finally {
+			prefilterKeys.clear();
+		}
+	}
+
+	/**
+	 * Rasterizes every stale tile, within a range of rows, by writing their
+	 * pixels directly into the backbuffer.
+	 *
+	 * This only reads the panel's tiles, and only writes to the backbuffer's
+	 * pixels within the rows, so it can run concurrently for disjoint ranges
+	 * of rows.
+	 *
+	 * @param tilesStartY Y-Axis coordinate of the first row.
+	 * @param tilesEndY Y-Axis coordinate after the last row.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 */
+	private void rasterizeStaleTiles(final int tilesStartY, final int tilesEndY, final int tileWidth, final int tileHeight) {
+		for (int y = tilesStartY ; y < tilesEndY ; y++) {
+			final int rowIndex = y * widthInTiles;
+			final int rowEndIndex = rowIndex + widthInTiles;
+
+			int start = staleTiles.nextSetBit(rowIndex);
+			while (start >= 0 && start < rowEndIndex) {
+				final int end = Math.min(rowEndIndex, staleTiles.nextClearBit(start));
+				rasterizeTiles(y, start - rowIndex, end - rowIndex, tileWidth, tileHeight);
+				start = staleTiles.nextSetBit(end);
+			}
+		}
+	}
+
+	/**
+	 * Rasterizes a run of tiles, within a single row, by writing their pixels
+	 * directly into the backbuffer.
+	 *
+	 * @param tilesY Y-Axis coordinate of the row.
+	 * @param tilesStartX X-Axis coordinate of the first tile in the run.
+	 * @param tilesEndX X-Axis coordinate after the last tile in the run.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param tileHeight Height of a tile, in pixels.
+	 */
+	private void rasterizeTiles(final int tilesY, final int tilesStartX, final int tilesEndX, final int tileWidth, final int tileHeight) {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var pixels = backbufferPixels;
+		final int scanline = backbuffer.getWidth();
+		final var sequentialImageOps = sequentialImageOpCount == 0 ? null : this.sequentialImageOps;
+
+		/*
+		 * When the panel is opaque, the alpha component of every tile's colors
+		 * is ignored.
+		 */
+		final int alphaMask = super.isOpaque() ? 0xFF000000 : 0;
+
+		final int yPosition = tilesY * tileHeight;
+		int index = tilesY * widthInTiles + tilesStartX;
+
+		for (int tilesX = tilesStartX ; tilesX < tilesEndX ; tilesX++, index++) {
+			final int xPosition = tilesX * tileWidth;
+			final int offset = yPosition * scanline + xPosition;
+
+			final int background = VFont.premultiply(backgroundColors[index] | alphaMask);
+			for (int y = 0, rowOffset = offset ; y < tileHeight ; y++, rowOffset += scanline) {
+				Arrays.fill(pixels, rowOffset, rowOffset + tileWidth, background);
+			}
+
+			final int foregroundArgb = foregroundColors[index] | alphaMask;
+			if ((foregroundArgb >>> 24) > 0) {
+				final var sequentialOp = sequentialImageOps == null ? null : sequentialImageOps[index];
+				laf.blendGlyph(codePoints[index], foregroundArgb, sequentialOp, animationNanos, pixels, offset, scanline, this, tilesX, tilesY);
+			}
+		}
+	}
+
+	/**
+	 * Rasterizes the stale tiles of a band of rows, splitting the band in half
+	 * until each part has no more than a given number of rows.
+	 */
+	private final class RasterizeBandTask extends RecursiveAction {
+		/** Y-Axis coordinate of the first row. */
+		private final int tilesStartY;
+		/** Y-Axis coordinate after the last row. */
+		private final int tilesEndY;
+		/** Maximum number of rows which are rasterized without splitting. */
+		private final int bandRows;
+		/** Width of a tile, in pixels. */
+		private final int tileWidth;
+		/** Height of a tile, in pixels. */
+		private final int tileHeight;
+
+		private RasterizeBandTask(final int tilesStartY, final int tilesEndY, final int bandRows, final int tileWidth, final int tileHeight) {
+			this.tilesStartY = tilesStartY;
+			this.tilesEndY = tilesEndY;
+			this.bandRows = bandRows;
+			this.tileWidth = tileWidth;
+			this.tileHeight = tileHeight;
+		}
+
+		@Override
+		protected void compute() {
+			if (tilesEndY - tilesStartY <= bandRows) {
+				rasterizeStaleTiles(tilesStartY, tilesEndY, tileWidth, tileHeight);
+				return;
+			}
+
+			final int tilesMiddleY = (tilesStartY + tilesEndY) >>> 1;
+			invokeAll(new RasterizeBandTask(tilesStartY, tilesMiddleY, bandRows, tileWidth, tileHeight),
+					  new RasterizeBandTask(tilesMiddleY, tilesEndY, bandRows, tileWidth, tileHeight));
+		}
+	}
+
+	/**
+	 * Repaints the tile whose glyph has finished rasterizing in the background.
+	 *
+	 * The panel reports the coordinates of each tile, rather than its pixel
+	 * coordinates, when it draws a glyph, so the observer is given the tile's
+	 * coordinates.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @see com.valkryst.VTerminal.font.VFont#setAsynchronous(boolean)
+	 */
+	@Override
+	public boolean imageUpdate(final Image image, final int infoFlags, final int x, final int y, final int width, final int height) {
+		if ((infoFlags & ERROR) != 0) {
+			return false;
+		}
+
+		if ((infoFlags & ALLBITS) == 0) {
+			return true;
+		}
+
+		SwingUtilities.invokeLater(() -> {
+			synchronized (this) {
+				if (x < widthInTiles && y < heightInTiles) {
+					if (backbuffer != null) {
+						staleTiles.set(y * widthInTiles + x);
 					}
 
-					if (foregroundColor.getAlpha() != 255) {
-						foregroundColor = new Color(foregroundColor.getRGB(), false);
+					final var laf = VTerminalLookAndFeel.getInstance();
+					super.repaint(x * laf.getTileWidth(), y * laf.getTileHeight(), laf.getTileWidth(), laf.getTileHeight());
+				}
+			}
+		});
+
+		return false;
+	}
+
+	/**
+	 * Retrieves the back buffer, into which a producer thread can write the
+	 * panel's next frame, and makes the panel double-buffered if it isn't.
+	 *
+	 * The back buffer must only be used by a single producer thread, which
+	 * publishes it with {@link #swap()}. After a swap, the back buffer holds
+	 * an earlier frame, so it should be rewritten in full.
+	 *
+	 * When the back buffer is first retrieved, it is created as a copy of the
+	 * panel's tiles. As the tiles may be changed on the event dispatch thread
+	 * at any time, the copy is made on that thread, unless the caller holds
+	 * the panel's monitor.
+	 *
+	 * @return The back buffer.
+	 */
+	public TileBuffer getBackBuffer() {
+		final var buffer = backBuffer;
+		if (buffer != null) {
+			return buffer;
+		}
+
+		if (SwingUtilities.isEventDispatchThread() || Thread.holdsLock(this)) {
+			return createBackBuffer();
+		}
+
+		try {
+			SwingUtilities.invokeAndWait(this::createBackBuffer);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while creating the back buffer.", e);
+		} catch (final InvocationTargetException e) {
+			throw new IllegalStateException("Failed to create the back buffer.", e.getCause());
+		}
+
+		return backBuffer;
+	}
+
+	/**
+	 * Creates the back buffer, and the front and published buffers, as copies
+	 * of the panel's tiles, if they don't exist.
+	 *
+	 * @return The back buffer.
+	 */
+	private synchronized TileBuffer createBackBuffer() {
+		if (backBuffer == null) {
+			final var front = new TileBuffer(widthInTiles, heightInTiles, codePoints, backgroundColors, foregroundColors, sequentialImageOps);
+			publishedBuffer.set(front.copy());
+			backBuffer = front.copy();
+			frontBuffer = front;
+		}
+
+		return backBuffer;
+	}
+
+	/**
+	 * Publishes the back buffer, so that it is shown by the panel's next
+	 * paint, and replaces it with a buffer which is no longer in use.
+	 *
+	 * The panel compares the published buffer with the tiles which it
+	 * replaces, and repaints only the tiles which changed. If several
+	 * buffers are published between paints, only the latest is shown.
+	 *
+	 * This must only be called by the thread which writes the back buffer.
+	 */
+	public void swap() {
+		final var buffer = getBackBuffer();
+		buffer.sequence = ++swapCount;
+		backBuffer = publishedBuffer.getAndSet(buffer);
+
+		if (showPending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(() -> {
+				showPending.set(false);
+
+				synchronized (this) {
+					if (showPublishedBuffer()) {
+						repaintDirty();
 					}
 				}
+			});
+		}
+	}
+
+	/**
+	 * Replaces the front buffer with the published buffer, if it is newer,
+	 * and marks every tile which differs between them as dirty.
+	 *
+	 * This must only be called by the thread which paints the panel.
+	 *
+	 * @return Whether the published buffer was shown.
+	 */
+	private boolean showPublishedBuffer() {
+		final var front = frontBuffer;
+		if (front == null || publishedBuffer.get().sequence <= front.sequence) {
+			return false;
+		}
+
+		// The panel allocates its operation array lazily, so the front buffer may not hold it yet.
+		front.sequentialImageOps = sequentialImageOps;
+
+		final var buffer = publishedBuffer.getAndSet(front);
+		markChangedTiles(codePoints, buffer.codePoints);
+		markChangedTiles(backgroundColors, buffer.backgroundColors);
+		markChangedTiles(foregroundColors, buffer.foregroundColors);
+
+		if (sequentialImageOps != null || buffer.sequentialImageOps != null) {
+			int opCount = 0;
+			int animatedCount = 0;
+
+			for (int index = 0 ; index < codePoints.length ; index++) {
+				final var previousOp = sequentialImageOps == null ? null : sequentialImageOps[index];
+				final var op = buffer.sequentialImageOps == null ? null : buffer.sequentialImageOps[index];
 
-				if (backgroundColor.getAlpha() > 0) {
-					graphics2D.setColor(backgroundColor);
-					graphics2D.fillRect(xPosition, yPosition, tileWidth, tileHeight);
+				if (previousOp != op) {
+					markTileDirty(index % widthInTiles, index / widthInTiles);
 				}
 
-				if (foregroundColor.getAlpha() > 0) {
-					final int codePoint = codePoints[tilesY][tilesX];
-					final var sequentialOp = sequentialImageOps[tilesY][tilesX];
+				if (op != null) {
+					opCount++;
+				}
 
-					final var image = laf.generateImage(codePoint, foregroundColor, sequentialOp);
-					if (image != null) {
-						graphics2D.drawImage(image, xPosition, yPosition, null);
-					}
+				if (op instanceof AnimatedOp) {
+					animatedCount++;
 				}
+			}
+
+			sequentialImageOpCount = opCount;
+			setAnimatedOpCount(animatedCount);
+		}
+
+		codePoints = buffer.codePoints;
+		backgroundColors = buffer.backgroundColors;
+		foregroundColors = buffer.foregroundColors;
+		sequentialImageOps = buffer.sequentialImageOps;
+		frontBuffer = buffer;
+		return true;
+	}
 
-				xPosition += tileWidth;
+	/**
+	 * Marks every tile whose value differs between two tile arrays as dirty.
+	 *
+	 * @param previous Previous value of each tile.
+	 * @param current Current value of each tile.
+	 */
+	private void markChangedTiles(final int[] previous, final int[] current) {
+		int index = 0;
+		while (index < previous.length) {
+			final int mismatch = Arrays.mismatch(previous, index, previous.length, current, index, current.length);
+			if (mismatch < 0) {
+				return;
 			}
 
-			xPosition = initialXPosition;
-			yPosition += tileHeight;
+			index += mismatch;
+			markTileDirty(index % widthInTiles, index / widthInTiles);
+			index++;
+		}
+	}
+
+	/**
+	 * Changes how the panel paints its tiles.
+	 *
+	 * Changing the render mode releases the backbuffer, which is recreated
+	 * on the next paint if the new mode requires one.
+	 *
+	 * @param renderMode A render mode.
+	 */
+	public void setRenderMode(final @NonNull RenderMode renderMode) {
+		if (this.renderMode == renderMode) {
+			return;
 		}
 
-		graphics2D.dispose();
+		this.renderMode = renderMode;
+
+		backbuffer = null;
+		backbufferPixels = null;
+		staleTiles.clear();
+		super.repaint();
 	}
 
 	/**
@@ -146,13 +1146,8 @@ public class VPanel extends JPanel implements Scrollable {
 	public void reset() {
 		resetBackgroundColors();
 		resetForegroundColors();
-
-		for (int y = 0 ; y < getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < getWidthInTiles() ; x++) {
-				codePoints[y][x] = ' ';
-				sequentialImageOps[y][x] = null;
-			}
-		}
+		resetCodePoints();
+		resetSequentialImageOps();
 	}
 
 	/**
@@ -165,11 +1160,8 @@ public class VPanel extends JPanel implements Scrollable {
 
 	/** Sets the code point of each tile to the space character (code point 32).  */
 	public void resetCodePoints() {
-		for (int y = 0 ; y < getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < getWidthInTiles() ; x++) {
-				codePoints[y][x] = ' ';
-			}
-		}
+		Arrays.fill(codePoints, ' ');
+		markAllTilesDirty();
 	}
 
 	/**
@@ -182,10 +1174,11 @@ public class VPanel extends JPanel implements Scrollable {
 
 	/** Sets the sequential image op of each tile to null. */
 	public void resetSequentialImageOps() {
-		for (int y = 0 ; y < getHeightInTiles() ; y++) {
-			for (int x = 0 ; x < getWidthInTiles() ; x++) {
-				sequentialImageOps[y][x] = null;
-			}
+		if (sequentialImageOpCount > 0) {
+			Arrays.fill(sequentialImageOps, null);
+			sequentialImageOpCount = 0;
+			setAnimatedOpCount(0);
+			markAllTilesDirty();
 		}
 	}
 
@@ -195,7 +1188,7 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @return The panel's height, in tiles.
 	 */
 	public int getHeightInTiles() {
-		return codePoints.length;
+		return heightInTiles;
 	}
 
 	@Override
@@ -239,7 +1232,7 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @return The panel's width, in tiles.
 	 */
 	public int getWidthInTiles() {
-		return codePoints[0].length;
+		return widthInTiles;
 	}
 
 	@Override
@@ -248,22 +1241,13 @@ public class VPanel extends JPanel implements Scrollable {
 			color = UIManager.getColor("Panel.background");
 		}
 
-
 		super.setBackground(color);
 		if (backgroundColors == null) {
 			return;
 		}
 
-		final int alpha = color.getAlpha();
-		final int blue = color.getBlue();
-		final int green = color.getGreen();
-		final int red = color.getRed();
-
-		for (int y = 0; y < backgroundColors.length; y++) {
-			for (int x = 0; x < backgroundColors[0].length; x++) {
-				setBackgroundAt(x, y, new VColor(red, green, blue, alpha));
-			}
-		}
+		Arrays.fill(backgroundColors, color.getRGB());
+		markAllTilesDirty();
 	}
 
 	/**
@@ -278,8 +1262,22 @@ public class VPanel extends JPanel implements Scrollable {
 			color = UIManager.getColor("Panel.background");
 		}
 
-		if (!backgroundColors[y][x].equals(color)) {
-			backgroundColors[y][x] = new VColor(color);
+		setBackgroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Changes the background color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setBackgroundAt(final int x, final int y, final int argb) {
+		final int index = getTileIndex(x, y);
+
+		if (backgroundColors[index] != argb) {
+			backgroundColors[index] = argb;
+			markTileDirty(x, y);
 		}
 	}
 
@@ -291,8 +1289,11 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @param codePoint A new code point.
 	 */
 	public void setCodePointAt(final int x, final int y, final int codePoint) {
-		if (codePoints[y][x] != codePoint) {
-			codePoints[y][x] = codePoint;
+		final int index = getTileIndex(x, y);
+
+		if (codePoints[index] != codePoint) {
+			codePoints[index] = codePoint;
+			markTileDirty(x, y);
 		}
 	}
 
@@ -307,16 +1308,8 @@ public class VPanel extends JPanel implements Scrollable {
 			return;
 		}
 
-		final int alpha = color.getAlpha();
-		final int blue = color.getBlue();
-		final int green = color.getGreen();
-		final int red = color.getRed();
-
-		for (int y = 0; y < foregroundColors.length; y++) {
-			for (int x = 0; x < foregroundColors[0].length; x++) {
-				setForegroundAt(x, y, new VColor(red, green, blue, alpha));
-			}
-		}
+		Arrays.fill(foregroundColors, color.getRGB());
+		markAllTilesDirty();
 	}
 
 	/**
@@ -331,8 +1324,22 @@ public class VPanel extends JPanel implements Scrollable {
 			color = UIManager.getColor("Panel.foreground");
 		}
 
-		if (!foregroundColors[y][x].equals(color)) {
-			foregroundColors[y][x] = new VColor(color);
+		setForegroundAt(x, y, color.getRGB());
+	}
+
+	/**
+	 * Changes the foreground color of a given tile.
+	 *
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @param argb A new color, in ARGB.
+	 */
+	public void setForegroundAt(final int x, final int y, final int argb) {
+		final int index = getTileIndex(x, y);
+
+		if (foregroundColors[index] != argb) {
+			foregroundColors[index] = argb;
+			markTileDirty(x, y);
 		}
 	}
 
@@ -347,6 +1354,121 @@ public class VPanel extends JPanel implements Scrollable {
 	 * @param sequentialOp A new sequential image operation, or null.
 	 */
 	public void setSequentialImageOpAt(final int x, final int y, final SequentialOp sequentialOp) {
-		sequentialImageOps[y][x] = sequentialOp;
+		final int index = getTileIndex(x, y);
+
+		if (sequentialImageOps == null) {
+			if (sequentialOp == null) {
+				return;
+			}
+
+			sequentialImageOps = new SequentialOp[codePoints.length];
+		}
+
+		final var previousOp = sequentialImageOps[index];
+		if (previousOp == sequentialOp) {
+			return;
+		}
+
+		sequentialImageOps[index] = sequentialOp;
+
+		if (previousOp == null) {
+			sequentialImageOpCount++;
+		} else if (sequentialOp == null) {
+			sequentialImageOpCount--;
+		}
+
+		if (previousOp instanceof AnimatedOp != sequentialOp instanceof AnimatedOp) {
+			setAnimatedOpCount(animatedOpCount + (sequentialOp instanceof AnimatedOp ? 1 : -1));
+		}
+
+		markTileDirty(x, y);
+	}
+
+	/**
+	 * Changes the number of tiles which have an animated operation, and
+	 * starts or stops listening to the animation clock as it leaves or
+	 * reaches zero.
+	 *
+	 * @param count The number of tiles.
+	 */
+	private void setAnimatedOpCount(final int count) {
+		animatedOpCount = count;
+		setListeningToAnimationClock(count > 0 && isDisplayable());
+	}
+
+	/**
+	 * Starts or stops listening to the shared animation clock.
+	 *
+	 * @param listening Whether the panel should listen to the clock.
+	 */
+	private void setListeningToAnimationClock(final boolean listening) {
+		final var clock = AnimationClock.getShared();
+
+		if (listening == clock.hasListener(animationListener)) {
+			return;
+		}
+
+		if (listening) {
+			animationNanos = clock.getNanos();
+			clock.addListener(animationListener);
+		} else {
+			clock.removeListener(animationListener);
+		}
+	}
+
+	/** Starts listening to the animation clock, if any tile has an animated operation, once the panel is displayable. */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+
+		synchronized (this) {
+			setListeningToAnimationClock(animatedOpCount > 0);
+		}
+	}
+
+	/** Stops listening to the animation clock, so that a removed panel isn't kept alive by it. */
+	@Override
+	public void removeNotify() {
+		synchronized (this) {
+			setListeningToAnimationClock(false);
+		}
+
+		super.removeNotify();
+	}
+
+	/**
+	 * Determines whether the panel listens to the shared animation clock.
+	 *
+	 * @return Whether the panel listens to the clock.
+	 */
+	boolean isListeningToAnimationClock() {
+		return AnimationClock.getShared().hasListener(animationListener);
+	}
+
+	/**
+	 * Advances the animated tiles to a time of the animation clock, and
+	 * repaints only those whose frames have changed.
+	 *
+	 * @param nanos The time, in nanoseconds.
+	 */
+	void animate(final long nanos) {
+		final long previousNanos = animationNanos;
+		animationNanos = nanos;
+
+		if (animatedOpCount == 0) {
+			return;
+		}
+
+		for (int index = 0 ; index < sequentialImageOps.length ; index++) {
+			if (sequentialImageOps[index] instanceof AnimatedOp) {
+				final var animatedOp = (AnimatedOp) sequentialImageOps[index];
+
+				if (animatedOp.getFrameIndex(previousNanos) != animatedOp.getFrameIndex(nanos)) {
+					markTileDirty(index % widthInTiles, index / widthInTiles);
+				}
+			}
+		}
+
+		repaintDirty();
 	}
 }
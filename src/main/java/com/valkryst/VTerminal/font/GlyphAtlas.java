@@ -0,0 +1,462 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Stores glyph images as cells of a small number of large sheet images.
+ *
+ * Every glyph rendered by a {@link VFont} has the same dimensions, so each
+ * sheet is divided into a grid of equally sized cells. This packs glyphs
+ * without any wasted space, and allows a freed cell to be reused by any other
+ * glyph.
+ *
+ * When every cell of every sheet is in use, the least recently used sheet is
+ * evicted in its entirety and its cells are reused.
+ *
+ * Each sheet's image is only written through its raster, so that Java2D can
+ * keep an accelerated copy of it, and a copy of its pixels is kept for
+ * software rendering.
+ *
+ * Regions may be read from many threads at once. A reader must {@link #pin}
+ * a region before reading its pixels, and {@link #unpin} it afterwards, as no
+ * cell can be overwritten or evicted while any region is pinned.
+ */
+public class GlyphAtlas {
+	/** Width and height of each sheet, in pixels. */
+	public static final int SHEET_SIZE = 1024;
+
+	/** Width of each cell, in pixels. */
+	@Getter private final int cellWidth;
+	/** Height of each cell, in pixels. */
+	@Getter private final int cellHeight;
+	/** Maximum number of sheets. */
+	@Getter private final int maxSheets;
+
+	/** Sheets which have been allocated. */
+	private final List<Sheet> sheets = new ArrayList<>();
+
+	/**
+	 * Function which is called with the key of each region that is discarded
+	 * when a sheet is evicted, once the atlas has been unlocked.
+	 */
+	private final Consumer<Object> evictionListener;
+
+	/** Image into which each added image is drawn, before it's copied into its cell. */
+	private final BufferedImage cellImage;
+	/** Pixels of {@link #cellImage}, in premultiplied ARGB, reused by each addition. */
+	private int[] cellPixels;
+
+	/** Incremented on each allocation, used to find the least recently used sheet. */
+	private long clock = 0;
+
+	/**
+	 * Lock which is held for reading while regions are pinned, and for
+	 * writing while cells are added, released, or evicted.
+	 *
+	 * Unlike a ReentrantReadWriteLock, it doesn't allocate to track the
+	 * threads which hold it, so a region can be pinned for every tile painted.
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * Constructs a new instance of {@code GlyphAtlas}.
+	 *
+	 * @param cellWidth Width of each cell, in pixels.
+	 * @param cellHeight Height of each cell, in pixels.
+	 * @param maxSheets Maximum number of sheets.
+	 * @param evictionListener
+	 * 		Function which is called with the key of each region that is
+	 * 		discarded when a sheet is evicted, once the atlas has been
+	 * 		unlocked.
+	 */
+	public GlyphAtlas(final int cellWidth, final int cellHeight, final int maxSheets, final @NonNull Consumer<Object> evictionListener) {
+		if (cellWidth < 1 || cellWidth > SHEET_SIZE) {
+			throw new IllegalArgumentException("The cell width must be within [1, " + SHEET_SIZE + "].");
+		}
+
+		if (cellHeight < 1 || cellHeight > SHEET_SIZE) {
+			throw new IllegalArgumentException("The cell height must be within [1, " + SHEET_SIZE + "].");
+		}
+
+		if (maxSheets < 1) {
+			throw new IllegalArgumentException("The maximum number of sheets must be >= 1.");
+		}
+
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.maxSheets = maxSheets;
+		this.evictionListener = evictionListener;
+
+		cellImage = new BufferedImage(cellWidth, cellHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+	}
+
+	/**
+	 * Copies an image into a free cell of the atlas.
+	 *
+	 * @param key Key under which the image is cached.
+	 * @param image An image, no larger than a cell.
+	 * @return The region of the atlas which holds the image.
+	 */
+	public Region add(final @NonNull Object key, final @NonNull BufferedImage image) {
+		if (image.getWidth() > cellWidth || image.getHeight() > cellHeight) {
+			throw new IllegalArgumentException("The image must fit within a " + cellWidth + "x" + cellHeight + " cell.");
+		}
+
+		final long stamp = lock.writeLock();
+		final Region region;
+		Set<Object> evictedKeys = Set.of();
+
+		try {
+			clock++;
+
+			var sheet = findFreeSheet();
+			if (sheet == null) {
+				sheet = findLeastRecentlyUsedSheet();
+				evictedKeys = sheet.reset();
+			}
+
+			region = sheet.allocate(key, clock);
+
+			// Clear any pixels of the cell which aren't covered by the image.
+			final var graphics = cellImage.createGraphics();
+			graphics.setComposite(AlphaComposite.Clear);
+			graphics.fillRect(0, 0, cellWidth, cellHeight);
+			graphics.setComposite(AlphaComposite.Src);
+			graphics.drawImage(image, 0, 0, null);
+			graphics.dispose();
+
+			cellPixels = (int[]) cellImage.getRaster().getDataElements(0, 0, cellWidth, cellHeight, cellPixels);
+			sheet.write(region, cellPixels);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+
+		/*
+		 * The listener is notified outside of the lock, as it may release
+		 * other regions. Until then, the evicted regions are already invalid.
+		 */
+		for (final var evictedKey : evictedKeys) {
+			evictionListener.accept(evictedKey);
+		}
+
+		return region;
+	}
+
+	/**
+	 * Finds a sheet with a free cell, allocating a new sheet if necessary.
+	 *
+	 * @return The sheet, or null if every sheet is full and no more can be allocated.
+	 */
+	private Sheet findFreeSheet() {
+		for (final var sheet : sheets) {
+			if (sheet.hasFreeCell()) {
+				return sheet;
+			}
+		}
+
+		if (sheets.size() < maxSheets) {
+			final var sheet = new Sheet();
+			sheets.add(sheet);
+			return sheet;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds the least recently used sheet.
+	 *
+	 * @return The sheet.
+	 */
+	private Sheet findLeastRecentlyUsedSheet() {
+		Sheet leastRecentlyUsed = sheets.get(0);
+		for (final var sheet : sheets) {
+			if (sheet.lastUsed < leastRecentlyUsed.lastUsed) {
+				leastRecentlyUsed = sheet;
+			}
+		}
+
+		return leastRecentlyUsed;
+	}
+
+	/**
+	 * Releases a region, so that its cell can be reused.
+	 *
+	 * Releasing a region which has already been released or evicted has no
+	 * effect.
+	 *
+	 * @param region A region.
+	 */
+	public void release(final @NonNull Region region) {
+		final long stamp = lock.writeLock();
+
+		try {
+			if (region.isValid()) {
+				region.sheet.release(region);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/** Releases every region and discards every sheet. */
+	public void clear() {
+		final long stamp = lock.writeLock();
+
+		try {
+			for (final var sheet : sheets) {
+				sheet.reset();
+			}
+
+			sheets.clear();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Pins a region, if it still holds its glyph, so that no cell of the atlas
+	 * can be overwritten or evicted until the region is unpinned.
+	 *
+	 * A thread which holds a pin must not add or release any region until it
+	 * has unpinned it.
+	 *
+	 * @param region A region.
+	 * @return
+	 * 		Whether the region was pinned. If false, the region has been
+	 * 		released or evicted, and must not be read.
+	 */
+	public boolean pin(final @NonNull Region region) {
+		final long stamp = lock.readLock();
+
+		if (region.isValid()) {
+			return true;
+		}
+
+		lock.unlockRead(stamp);
+		return false;
+	}
+
+	/** Unpins a region which was pinned by {@link #pin}. */
+	public void unpin() {
+		lock.tryUnlockRead();
+	}
+
+	/**
+	 * Retrieves the number of sheets which have been allocated.
+	 *
+	 * @return The number of sheets.
+	 */
+	public int getSheetCount() {
+		final long stamp = lock.readLock();
+
+		try {
+			return sheets.size();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/** A region of a sheet which holds a single glyph. */
+	public static final class Region {
+		/** Sheet which holds the glyph. */
+		private final Sheet sheet;
+		/** Generation of the sheet when the region was allocated. */
+		private final int generation;
+		/** Index of the region's cell within its sheet. */
+		private final int cell;
+		/** Key under which the glyph is cached. */
+		@Getter private final Object key;
+
+		/** X-Axis coordinate of the region within its sheet. */
+		@Getter private final int x;
+		/** Y-Axis coordinate of the region within its sheet. */
+		@Getter private final int y;
+		/** Width of the region. */
+		@Getter private final int width;
+		/** Height of the region. */
+		@Getter private final int height;
+
+		private Region(final Sheet sheet, final int cell, final Object key, final int width, final int height) {
+			this.sheet = sheet;
+			this.generation = sheet.generation;
+			this.cell = cell;
+			this.key = key;
+			this.width = width;
+			this.height = height;
+
+			x = (cell % sheet.columns) * width;
+			y = (cell / sheet.columns) * height;
+		}
+
+		/**
+		 * Determines whether the region still holds its glyph, or whether its
+		 * sheet has since been evicted.
+		 *
+		 * Unless the region is pinned, the result may be stale by the time it
+		 * is returned.
+		 *
+		 * @return Whether the region is valid.
+		 */
+		public boolean isValid() {
+			return sheet.generation == generation && sheet.keys[cell] == key;
+		}
+
+		/**
+		 * Retrieves the pixels of the region's sheet, in premultiplied ARGB.
+		 *
+		 * The region must be pinned while its pixels are read.
+		 *
+		 * @return The pixels of the region's sheet.
+		 */
+		public int[] getSheetPixels() {
+			sheet.lastUsed = sheet.atlas().clock;
+			return sheet.pixels;
+		}
+
+		/**
+		 * Retrieves the number of pixels between vertically adjacent pixels of
+		 * the region's sheet.
+		 *
+		 * @return The scanline stride of the region's sheet.
+		 */
+		public int getSheetScanline() {
+			return sheet.image.getWidth();
+		}
+
+		/**
+		 * Draws the region onto a graphics context.
+		 *
+		 * The region must be pinned while it is drawn.
+		 *
+		 * @param graphics A graphics context.
+		 * @param x X-Axis coordinate to draw at.
+		 * @param y Y-Axis coordinate to draw at.
+		 */
+		public void draw(final Graphics graphics, final int x, final int y) {
+			sheet.lastUsed = sheet.atlas().clock;
+			graphics.drawImage(sheet.image, x, y, x + width, y + height, this.x, this.y, this.x + width, this.y + height, null);
+		}
+
+		/**
+		 * Copies the region into a new image, which remains unchanged when the
+		 * region's cell is later reused.
+		 *
+		 * The region must be pinned while it is copied.
+		 *
+		 * @return The copy, in premultiplied ARGB.
+		 */
+		public BufferedImage copyImage() {
+			final var copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+			copy.getRaster().setDataElements(0, 0, width, height, sheet.image.getRaster().getDataElements(x, y, width, height, null));
+			return copy;
+		}
+	}
+
+	/** A large image, divided into a grid of cells. */
+	private final class Sheet {
+		/** The sheet's image, which is only written through its raster. */
+		private final BufferedImage image;
+		/** Copy of the sheet's pixels, in premultiplied ARGB, which software rendering reads. */
+		private final int[] pixels;
+		/** Number of cell columns. */
+		private final int columns;
+		/** Key of the glyph in each cell, or null if the cell is free. */
+		private final Object[] keys;
+
+		/** Number of cells which are in use. */
+		private int usedCells = 0;
+		/** Lowest index which may be a free cell. */
+		private int nextFreeCell = 0;
+		/** Incremented whenever the sheet is reset, to invalidate its regions. */
+		private int generation = 0;
+		/**
+		 * Value of the atlas' clock when the sheet was last used.
+		 *
+		 * Volatile, as it's written by every thread which reads a pinned region.
+		 */
+		private volatile long lastUsed = 0;
+
+		private Sheet() {
+			columns = SHEET_SIZE / cellWidth;
+
+			final int rows = SHEET_SIZE / cellHeight;
+			keys = new Object[columns * rows];
+			image = new BufferedImage(columns * cellWidth, rows * cellHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+			pixels = new int[image.getWidth() * image.getHeight()];
+		}
+
+		private GlyphAtlas atlas() {
+			return GlyphAtlas.this;
+		}
+
+		private boolean hasFreeCell() {
+			return usedCells < keys.length;
+		}
+
+		private Region allocate(final Object key, final long clock) {
+			while (keys[nextFreeCell] != null) {
+				nextFreeCell++;
+			}
+
+			final int cell = nextFreeCell;
+			keys[cell] = key;
+			usedCells++;
+			lastUsed = clock;
+
+			return new Region(this, cell, key, cellWidth, cellHeight);
+		}
+
+		/**
+		 * Writes the pixels of a region's cell, both to the sheet's image and
+		 * to its copy of the pixels.
+		 *
+		 * @param region The region.
+		 * @param cellPixels Pixels of the whole cell, in premultiplied ARGB.
+		 */
+		private void write(final Region region, final int[] cellPixels) {
+			image.getRaster().setDataElements(region.x, region.y, cellWidth, cellHeight, cellPixels);
+
+			final int scanline = image.getWidth();
+			for (int row = 0 ; row < cellHeight ; row++) {
+				System.arraycopy(cellPixels, row * cellWidth, pixels, (region.y + row) * scanline + region.x, cellWidth);
+			}
+		}
+
+		private void release(final Region region) {
+			keys[region.cell] = null;
+			usedCells--;
+			nextFreeCell = Math.min(nextFreeCell, region.cell);
+		}
+
+		/**
+		 * Releases every cell and invalidates all existing regions.
+		 *
+		 * @return The keys of the regions which were released.
+		 */
+		private Set<Object> reset() {
+			final Set<Object> releasedKeys = new HashSet<>();
+			for (int i = 0 ; i < keys.length ; i++) {
+				if (keys[i] != null) {
+					releasedKeys.add(keys[i]);
+					keys[i] = null;
+				}
+			}
+
+			usedCells = 0;
+			nextFreeCell = 0;
+			generation++;
+			return releasedKeys;
+		}
+	}
+}
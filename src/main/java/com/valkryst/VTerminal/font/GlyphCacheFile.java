@@ -0,0 +1,268 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.NonNull;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A file of glyph alpha masks, which have been rasterized by a previous run
+ * of the program.
+ *
+ * The file is memory-mapped when it is loaded, and each mask is only read
+ * from it when it is first requested.
+ *
+ * <h2>Format</h2>
+ * All values are big-endian.
+ *
+ * <pre>
+ * int     Magic number, {@link #MAGIC}.
+ * int     Format version, {@link #VERSION}.
+ * byte[]  Digest of the font, point size, and rendering hints which were used to rasterize the masks.
+ * int     Width of each mask, in pixels.
+ * int     Height of each mask, in pixels.
+ * int     Number of entries.
+ *
+ * For each entry:
+ * int     Code point.
+ * int     CRC-32 of the mask.
+ * byte[]  Alpha of each pixel of the mask, in row-major order.
+ * </pre>
+ */
+final class GlyphCacheFile {
+	/** Magic number at the start of each file, "VTGC". */
+	static final int MAGIC = 0x56544743;
+	/** Version of the file format. */
+	static final int VERSION = 1;
+	/** Length of the digest, in bytes. */
+	static final int DIGEST_LENGTH = 32;
+
+	/** Length of the header, in bytes. */
+	private static final int HEADER_LENGTH = 4 + 4 + DIGEST_LENGTH + 4 + 4 + 4;
+
+	/** Contents of the file. */
+	private final ByteBuffer buffer;
+	/** Width of each mask, in pixels. */
+	private final int maskWidth;
+	/** Height of each mask, in pixels. */
+	private final int maskHeight;
+	/** Offset of each entry's CRC-32, by code point. */
+	private final Map<Integer, Integer> offsets;
+
+	private GlyphCacheFile(final ByteBuffer buffer, final int maskWidth, final int maskHeight, final Map<Integer, Integer> offsets) {
+		this.buffer = buffer;
+		this.maskWidth = maskWidth;
+		this.maskHeight = maskHeight;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Loads a file, and validates that its masks can be used by a font.
+	 *
+	 * @param path Path to the file.
+	 * @param digest Digest of the font's data, point size, and rendering hints.
+	 * @param maskWidth Width of the font's glyphs, in pixels.
+	 * @param maskHeight Height of the font's glyphs, in pixels.
+	 * @return The file, or null if it doesn't exist or cannot be used by the font.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static GlyphCacheFile load(final @NonNull Path path, final byte @NonNull [] digest, final int maskWidth, final int maskHeight) throws IOException {
+		final ByteBuffer buffer;
+		try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = map(channel);
+		} catch (final NoSuchFileException e) {
+			return null;
+		}
+
+		if (buffer.remaining() < HEADER_LENGTH) {
+			return null;
+		}
+
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			return null;
+		}
+
+		final var fileDigest = new byte[DIGEST_LENGTH];
+		buffer.get(fileDigest);
+		if (!Arrays.equals(digest, fileDigest)) {
+			return null;
+		}
+
+		if (buffer.getInt() != maskWidth || buffer.getInt() != maskHeight) {
+			return null;
+		}
+
+		final int entryCount = buffer.getInt();
+		final long entryLength = 8L + (long) maskWidth * maskHeight;
+		if (entryCount < 0 || HEADER_LENGTH + entryCount * entryLength != buffer.limit()) {
+			return null;
+		}
+
+		final Map<Integer, Integer> offsets = new HashMap<>(entryCount * 2);
+		for (int i = 0 ; i < entryCount ; i++) {
+			final int entryOffset = (int) (HEADER_LENGTH + i * entryLength);
+			final int codePoint = buffer.getInt(entryOffset);
+
+			if (!Character.isValidCodePoint(codePoint) || offsets.put(codePoint, entryOffset + 4) != null) {
+				return null;
+			}
+		}
+
+		return new GlyphCacheFile(buffer, maskWidth, maskHeight, offsets);
+	}
+
+	/**
+	 * Memory-maps the contents of a channel, or reads them if the channel's
+	 * file system doesn't support memory-mapping.
+	 *
+	 * @param channel A channel.
+	 * @return The contents of the channel.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	private static ByteBuffer map(final FileChannel channel) throws IOException {
+		final long size = channel.size();
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The glyph cache file is too large.");
+		}
+
+		try {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} catch (final UnsupportedOperationException e) {
+			final var buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) != -1);
+			return buffer.flip();
+		}
+	}
+
+	/**
+	 * Writes a file, replacing any existing file once it has been written in
+	 * full.
+	 *
+	 * @param path Path to the file.
+	 * @param digest Digest of the font's data, point size, and rendering hints.
+	 * @param maskWidth Width of each mask, in pixels.
+	 * @param maskHeight Height of each mask, in pixels.
+	 * @param masks Alpha of each pixel of each mask, by code point.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	static void write(final @NonNull Path path, final byte @NonNull [] digest, final int maskWidth, final int maskHeight, final @NonNull Map<Integer, byte[]> masks) throws IOException {
+		if (digest.length != DIGEST_LENGTH) {
+			throw new IllegalArgumentException("The digest must be " + DIGEST_LENGTH + " bytes long.");
+		}
+
+		final var parent = path.toAbsolutePath().getParent();
+		final var temporaryPath = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+
+		try {
+			try (final var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.write(digest);
+				output.writeInt(maskWidth);
+				output.writeInt(maskHeight);
+				output.writeInt(masks.size());
+
+				final var crc = new CRC32();
+				for (final var entry : masks.entrySet()) {
+					final var alpha = entry.getValue();
+					if (alpha.length != maskWidth * maskHeight) {
+						throw new IllegalArgumentException("The mask of " + entry.getKey() + " must be " + maskWidth + "x" + maskHeight + ".");
+					}
+
+					crc.reset();
+					crc.update(alpha);
+
+					output.writeInt(entry.getKey());
+					output.writeInt((int) crc.getValue());
+					output.write(alpha);
+				}
+			}
+
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryPath);
+		}
+	}
+
+	/**
+	 * Determines whether the file contains the mask of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the file contains the mask.
+	 */
+	boolean contains(final int codePoint) {
+		return offsets.containsKey(codePoint);
+	}
+
+	/**
+	 * Retrieves the code points of every mask in the file.
+	 *
+	 * @return The code points.
+	 */
+	int[] getCodePoints() {
+		return offsets.keySet().stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Reads the alpha of each pixel of a mask.
+	 *
+	 * @param codePoint Code point of the mask.
+	 * @return
+	 * 		The alpha of each pixel, in row-major order, or null if the file
+	 * 		doesn't contain the mask or if the mask is corrupt.
+	 */
+	byte[] getAlpha(final int codePoint) {
+		final var offset = offsets.get(codePoint);
+		if (offset == null) {
+			return null;
+		}
+
+		final var alpha = new byte[maskWidth * maskHeight];
+		final int expectedCrc;
+		synchronized (buffer) {
+			expectedCrc = buffer.getInt(offset);
+			buffer.position(offset + 4);
+			buffer.get(alpha);
+		}
+
+		final var crc = new CRC32();
+		crc.update(alpha);
+		return (int) crc.getValue() == expectedCrc ? alpha : null;
+	}
+
+	/**
+	 * Reads a mask, as a white image with the mask's alpha.
+	 *
+	 * @param codePoint Code point of the mask.
+	 * @return The image, or null if the file doesn't contain the mask or if the mask is corrupt.
+	 */
+	BufferedImage getMask(final int codePoint) {
+		final var alpha = getAlpha(codePoint);
+		if (alpha == null) {
+			return null;
+		}
+
+		final var image = new BufferedImage(maskWidth, maskHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+		final var pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		for (int i = 0 ; i < pixels.length ; i++) {
+			final int a = alpha[i] & 0xFF;
+			pixels[i] = (a << 24) | (a << 16) | (a << 8) | a;
+		}
+
+		return image;
+	}
+}
@@ -0,0 +1,109 @@
+package com.valkryst.VTerminal.font;
+
+import com.valkryst.VTerminal.image.SequentialOp;
+import lombok.Getter;
+
+import java.util.Objects;
+
+/** Uniquely identifies a cached glyph image. */
+public final class GlyphKey {
+	/** Code point of the glyph. */
+	@Getter private final int codePoint;
+	/** Color of the glyph, in ARGB. Unused for masks. */
+	@Getter private final int argb;
+	/** Sequential image operation applied to the glyph, or null. */
+	@Getter private final SequentialOp sequentialOp;
+	/** Whether the glyph is a color-independent alpha mask. */
+	@Getter private final boolean mask;
+
+	private GlyphKey(final int codePoint, final int argb, final SequentialOp sequentialOp, final boolean mask) {
+		this.codePoint = codePoint;
+		this.argb = argb;
+		this.sequentialOp = sequentialOp;
+		this.mask = mask;
+	}
+
+	/**
+	 * Constructs the key of a glyph's alpha mask, which is tinted with the
+	 * foreground color when drawn.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @return The key.
+	 */
+	public static GlyphKey mask(final int codePoint) {
+		return new GlyphKey(codePoint, 0, null, true);
+	}
+
+	/**
+	 * Constructs the key of a glyph which has been rendered in a specific
+	 * color, and then had a sequential image operation applied to it.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation applied to the glyph.
+	 * @return The key.
+	 */
+	public static GlyphKey colored(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return new GlyphKey(codePoint, argb, sequentialOp, false);
+	}
+
+	/**
+	 * Determines whether the key identifies a glyph, without constructing a
+	 * key for the glyph.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB. Ignored when the sequential image operation is null.
+	 * @param sequentialOp Sequential image operation applied to the glyph, or null for a mask.
+	 * @return Whether the key identifies the glyph.
+	 */
+	public boolean matches(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		if (sequentialOp == null) {
+			return mask && this.codePoint == codePoint;
+		}
+
+		return !mask && this.codePoint == codePoint && this.argb == argb && sequentialOp.equals(this.sequentialOp);
+	}
+
+	/**
+	 * Computes the hash code of the key which identifies a glyph, without
+	 * constructing the key.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB. Ignored when the sequential image operation is null.
+	 * @param sequentialOp Sequential image operation applied to the glyph, or null for a mask.
+	 * @return The hash code.
+	 */
+	public static int hashCode(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		if (sequentialOp == null) {
+			return hashCode(codePoint, 0, null, true);
+		}
+
+		return hashCode(codePoint, argb, sequentialOp, false);
+	}
+
+	private static int hashCode(final int codePoint, final int argb, final SequentialOp sequentialOp, final boolean mask) {
+		int hash = codePoint;
+		hash = 31 * hash + argb;
+		hash = 31 * hash + Objects.hashCode(sequentialOp);
+		return 31 * hash + (mask ? 1 : 0);
+	}
+
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof GlyphKey)) {
+			return false;
+		}
+
+		final var other = (GlyphKey) object;
+		return codePoint == other.codePoint && argb == other.argb && mask == other.mask && Objects.equals(sequentialOp, other.sequentialOp);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode(codePoint, argb, sequentialOp, mask);
+	}
+}
@@ -0,0 +1,215 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.NonNull;
+
+import java.awt.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * A table of the properties of each code point, which are needed to render
+ * its glyph.
+ *
+ * The properties of every code point in the Basic Multilingual Plane are
+ * computed when the table is constructed. The properties of supplementary
+ * code points are computed, and then stored, when they're first requested.
+ *
+ * A table which is constructed for a {@link PrebakedAtlas} has no font, so
+ * only the code points of the atlas' glyphs are displayable.
+ */
+public final class GlyphMetrics {
+	/** Number of code points in the Basic Multilingual Plane. */
+	private static final int BMP_SIZE = Character.MAX_VALUE + 1;
+
+	/** Flag set when the font can display a code point. */
+	static final int DISPLAYABLE = 1;
+	/** Flag set when a code point is whitespace. */
+	static final int WHITESPACE = 1 << 1;
+	/** Flag set when a code point is a graphic character. */
+	static final int GRAPHIC = 1 << 2;
+	/** Flag set when a code point's advance is wider than a tile. */
+	static final int NEEDS_SCALING = 1 << 3;
+
+	/** The font, or null if the table was constructed for a prebaked atlas. */
+	private final Font font;
+	private final FontMetrics fontMetrics;
+	private final int tileWidth;
+	private final IntPredicate isGraphicCharacter;
+
+	/** Advance width of each code point in the BMP. */
+	private final short[] advances = new short[BMP_SIZE];
+	/** Flags of each code point in the BMP. */
+	private final byte[] flags = new byte[BMP_SIZE];
+
+	/**
+	 * Advance width and flags of each supplementary code point which has
+	 * been requested, packed as {@code (advance << 8) | flags}.
+	 */
+	private final ConcurrentHashMap<Integer, Integer> supplementaryMetrics = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new instance of {@code GlyphMetrics}.
+	 *
+	 * @param font A font.
+	 * @param fontMetrics Metrics of the font.
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param isGraphicCharacter Determines whether a code point is a graphic character.
+	 */
+	public GlyphMetrics(final @NonNull Font font, final @NonNull FontMetrics fontMetrics, final int tileWidth, final @NonNull IntPredicate isGraphicCharacter) {
+		this.font = font;
+		this.fontMetrics = fontMetrics;
+		this.tileWidth = tileWidth;
+		this.isGraphicCharacter = isGraphicCharacter;
+
+		for (int codePoint = 0 ; codePoint < BMP_SIZE ; codePoint++) {
+			final int packed = compute(codePoint);
+			advances[codePoint] = (short) (packed >>> 8);
+			flags[codePoint] = (byte) packed;
+		}
+	}
+
+	/**
+	 * Constructs a new instance of {@code GlyphMetrics}, for the glyphs of a
+	 * prebaked atlas.
+	 *
+	 * @param tileWidth Width of a tile, in pixels.
+	 * @param codePoints Code point of each glyph.
+	 * @param glyphAdvances Advance width of each glyph.
+	 * @param glyphFlags Flags of each glyph.
+	 */
+	GlyphMetrics(final int tileWidth, final int @NonNull [] codePoints, final short @NonNull [] glyphAdvances, final byte @NonNull [] glyphFlags) {
+		this.font = null;
+		this.fontMetrics = null;
+		this.tileWidth = tileWidth;
+		this.isGraphicCharacter = codePoint -> false;
+
+		for (int codePoint = 0 ; codePoint < BMP_SIZE ; codePoint++) {
+			flags[codePoint] = (byte) compute(codePoint);
+		}
+
+		for (int i = 0 ; i < codePoints.length ; i++) {
+			final int codePoint = codePoints[i];
+
+			if (codePoint < BMP_SIZE) {
+				advances[codePoint] = glyphAdvances[i];
+				flags[codePoint] = glyphFlags[i];
+			} else {
+				supplementaryMetrics.put(codePoint, (glyphAdvances[i] << 8) | (glyphFlags[i] & 0xFF));
+			}
+		}
+	}
+
+	/**
+	 * Computes the advance width and flags of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return The advance width and flags, packed as {@code (advance << 8) | flags}.
+	 */
+	private int compute(final int codePoint) {
+		if (font == null) {
+			return Character.isWhitespace(codePoint) ? WHITESPACE : 0;
+		}
+
+		final int advance = Math.min(Short.MAX_VALUE, Math.max(0, fontMetrics.charWidth(codePoint)));
+
+		int packed = 0;
+		if (font.canDisplay(codePoint)) {
+			packed |= DISPLAYABLE;
+		}
+
+		if (Character.isWhitespace(codePoint)) {
+			packed |= WHITESPACE;
+		}
+
+		if (isGraphicCharacter.test(codePoint)) {
+			packed |= GRAPHIC;
+		}
+
+		if (advance > tileWidth) {
+			packed |= NEEDS_SCALING;
+		}
+
+		return (advance << 8) | packed;
+	}
+
+	/**
+	 * Retrieves the flags of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return The flags.
+	 */
+	int getFlags(final int codePoint) {
+		if (codePoint < BMP_SIZE) {
+			return flags[codePoint] & 0xFF;
+		}
+
+		return supplementaryMetrics.computeIfAbsent(codePoint, this::compute) & 0xFF;
+	}
+
+	/**
+	 * Retrieves the advance width of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return The advance width, in pixels.
+	 */
+	public int getAdvance(final int codePoint) {
+		if (codePoint < BMP_SIZE) {
+			return advances[codePoint];
+		}
+
+		return supplementaryMetrics.computeIfAbsent(codePoint, this::compute) >>> 8;
+	}
+
+	/**
+	 * Determines whether the font can display a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the font can display the code point.
+	 */
+	public boolean isDisplayable(final int codePoint) {
+		return (getFlags(codePoint) & DISPLAYABLE) != 0;
+	}
+
+	/**
+	 * Determines whether a code point is whitespace.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the code point is whitespace.
+	 */
+	public boolean isWhitespace(final int codePoint) {
+		return (getFlags(codePoint) & WHITESPACE) != 0;
+	}
+
+	/**
+	 * Determines whether a code point has no visible glyph, because it is
+	 * either whitespace or cannot be displayed by the font.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the code point has no visible glyph.
+	 */
+	public boolean isBlank(final int codePoint) {
+		return (getFlags(codePoint) & (DISPLAYABLE | WHITESPACE)) != DISPLAYABLE;
+	}
+
+	/**
+	 * Determines whether a code point is a graphic character, such as a box
+	 * drawing character, which must be rendered without antialiasing.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the code point is a graphic character.
+	 */
+	public boolean isGraphic(final int codePoint) {
+		return (getFlags(codePoint) & GRAPHIC) != 0;
+	}
+
+	/**
+	 * Determines whether a code point's glyph is wider than a tile, and must
+	 * be scaled down to fit.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the code point's glyph must be scaled.
+	 */
+	public boolean needsScaling(final int codePoint) {
+		return (getFlags(codePoint) & NEEDS_SCALING) != 0;
+	}
+}
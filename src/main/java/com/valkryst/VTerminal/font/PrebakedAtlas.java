@@ -0,0 +1,311 @@
+package com.valkryst.VTerminal.font;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of glyphs which were rasterized ahead of time, so that a
+ * {@link VFont} can be constructed without loading or rasterizing a TrueType
+ * font.
+ *
+ * An atlas is stored as two files: a grayscale PNG image, in which each glyph
+ * occupies one cell of a grid and each pixel's gray level is its alpha, and a
+ * binary metrics file.
+ *
+ * <h2>Metrics Format</h2>
+ * All values are big-endian.
+ *
+ * <pre>
+ * int    Magic number, {@link #MAGIC}.
+ * int    Format version, {@link #VERSION}.
+ * int    Point size of the font.
+ * int    Width of each cell, in pixels.
+ * int    Height of each cell, in pixels.
+ * int    Ascent of the font, in pixels.
+ * int    Number of cell columns in the image.
+ * int    Number of glyphs.
+ *
+ * For each glyph, in cell order:
+ * int    Code point.
+ * short  Advance width, in pixels.
+ * byte   Flags, as defined by {@link GlyphMetrics}.
+ * </pre>
+ */
+public final class PrebakedAtlas {
+	/** Magic number at the start of each metrics file, "VTPA". */
+	public static final int MAGIC = 0x56545041;
+	/** Version of the metrics format. */
+	public static final int VERSION = 1;
+
+	/** Point size of the font. */
+	@Getter private final int pointSize;
+	/** Width of each cell, in pixels. */
+	@Getter private final int cellWidth;
+	/** Height of each cell, in pixels. */
+	@Getter private final int cellHeight;
+	/** Ascent of the font, in pixels. */
+	@Getter private final int ascent;
+	/** Number of cell columns in the image. */
+	private final int columns;
+
+	/** Code point of each glyph. */
+	private final int[] codePoints;
+	/** Advance width of each glyph. */
+	private final short[] advances;
+	/** Flags of each glyph. */
+	private final byte[] flags;
+	/** Cell index of each glyph, by code point. */
+	private final Map<Integer, Integer> cells = new HashMap<>();
+
+	/** Image of every glyph, with each pixel's gray level as its alpha. */
+	private final BufferedImage image;
+
+	/** SHA-256 digest of the atlas' files. */
+	private final byte[] digest;
+
+	private PrebakedAtlas(final int pointSize, final int cellWidth, final int cellHeight, final int ascent, final int columns, final int[] codePoints, final short[] advances, final byte[] flags, final BufferedImage image, final byte[] digest) {
+		this.pointSize = pointSize;
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.ascent = ascent;
+		this.columns = columns;
+		this.codePoints = codePoints;
+		this.advances = advances;
+		this.flags = flags;
+		this.image = image;
+		this.digest = digest;
+
+		for (int i = 0 ; i < codePoints.length ; i++) {
+			cells.put(codePoints[i], i);
+		}
+	}
+
+	/**
+	 * Rasterizes the glyphs of a set of code points, with a font's rendering
+	 * hints.
+	 *
+	 * Code points without a visible glyph are skipped.
+	 *
+	 * @param font A font.
+	 * @param codePoints Code points of the glyphs.
+	 * @return The atlas.
+	 */
+	public static PrebakedAtlas bake(final @NonNull VFont font, final int @NonNull [] codePoints) {
+		final var glyphMetrics = font.getGlyphMetrics();
+		final int[] bakedCodePoints = Arrays.stream(codePoints)
+											.filter(Character::isValidCodePoint)
+											.filter(codePoint -> !glyphMetrics.isBlank(codePoint))
+											.distinct()
+											.toArray();
+
+		final int cellWidth = font.getMaxTileWidth();
+		final int cellHeight = font.getMaxTileHeight();
+		final int columns = Math.max(1, (int) Math.ceil(Math.sqrt(bakedCodePoints.length)));
+		final int rows = Math.max(1, (bakedCodePoints.length + columns - 1) / columns);
+
+		final var image = new BufferedImage(columns * cellWidth, rows * cellHeight, BufferedImage.TYPE_BYTE_GRAY);
+		final var pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+		final var advances = new short[bakedCodePoints.length];
+		final var flags = new byte[bakedCodePoints.length];
+
+		for (int i = 0 ; i < bakedCodePoints.length ; i++) {
+			final int codePoint = bakedCodePoints[i];
+			advances[i] = (short) glyphMetrics.getAdvance(codePoint);
+			flags[i] = (byte) glyphMetrics.getFlags(codePoint);
+
+			final var glyph = font.rasterize(codePoint, Color.WHITE, null);
+			final int cellX = (i % columns) * cellWidth;
+			final int cellY = (i / columns) * cellHeight;
+
+			for (int y = 0 ; y < Math.min(cellHeight, glyph.getHeight()) ; y++) {
+				for (int x = 0 ; x < Math.min(cellWidth, glyph.getWidth()) ; x++) {
+					pixels[(cellY + y) * image.getWidth() + cellX + x] = (byte) (glyph.getRGB(x, y) >>> 24);
+				}
+			}
+		}
+
+		return new PrebakedAtlas(font.getFont().getSize(), cellWidth, cellHeight, font.fontAscent, columns, bakedCodePoints, advances, flags, image, null);
+	}
+
+	/**
+	 * Writes the atlas.
+	 *
+	 * @param imageOutputStream Output stream for the PNG image.
+	 * @param metricsOutputStream Output stream for the metrics.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void write(final @NonNull OutputStream imageOutputStream, final @NonNull OutputStream metricsOutputStream) throws IOException {
+		if (!ImageIO.write(image, "png", imageOutputStream)) {
+			throw new IOException("No PNG image writer is available.");
+		}
+
+		final var output = new DataOutputStream(metricsOutputStream);
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+		output.writeInt(pointSize);
+		output.writeInt(cellWidth);
+		output.writeInt(cellHeight);
+		output.writeInt(ascent);
+		output.writeInt(columns);
+		output.writeInt(codePoints.length);
+
+		for (int i = 0 ; i < codePoints.length ; i++) {
+			output.writeInt(codePoints[i]);
+			output.writeShort(advances[i]);
+			output.writeByte(flags[i]);
+		}
+
+		output.flush();
+	}
+
+	/**
+	 * Reads an atlas, which was written by {@link #write}.
+	 *
+	 * @param imageInputStream Input stream for the PNG image.
+	 * @param metricsInputStream Input stream for the metrics.
+	 * @return The atlas.
+	 * @throws IOException If an I/O error occurs, or if the atlas is invalid.
+	 */
+	public static PrebakedAtlas read(final @NonNull InputStream imageInputStream, final @NonNull InputStream metricsInputStream) throws IOException {
+		final var imageData = imageInputStream.readAllBytes();
+		final var metricsData = metricsInputStream.readAllBytes();
+
+		final var input = new DataInputStream(new ByteArrayInputStream(metricsData));
+		if (input.readInt() != MAGIC) {
+			throw new IOException("The metrics are not those of a prebaked atlas.");
+		}
+
+		final int version = input.readInt();
+		if (version != VERSION) {
+			throw new IOException("The metrics are of version " + version + ", but only version " + VERSION + " is supported.");
+		}
+
+		final int pointSize = input.readInt();
+		final int cellWidth = input.readInt();
+		final int cellHeight = input.readInt();
+		final int ascent = input.readInt();
+		final int columns = input.readInt();
+		final int glyphCount = input.readInt();
+
+		if (cellWidth < 1 || cellHeight < 1 || columns < 1 || glyphCount < 0) {
+			throw new IOException("The metrics are corrupt.");
+		}
+
+		final var codePoints = new int[glyphCount];
+		final var advances = new short[glyphCount];
+		final var flags = new byte[glyphCount];
+		for (int i = 0 ; i < glyphCount ; i++) {
+			codePoints[i] = input.readInt();
+			advances[i] = input.readShort();
+			flags[i] = input.readByte();
+
+			if (!Character.isValidCodePoint(codePoints[i])) {
+				throw new IOException("The metrics contain an invalid code point, " + codePoints[i] + ".");
+			}
+		}
+
+		final var decodedImage = ImageIO.read(new ByteArrayInputStream(imageData));
+		if (decodedImage == null) {
+			throw new IOException("The image is not a PNG.");
+		}
+
+		final int rows = (glyphCount + columns - 1) / columns;
+		if (decodedImage.getWidth() < columns * cellWidth || decodedImage.getHeight() < rows * cellHeight) {
+			throw new IOException("The image is too small to hold every glyph.");
+		}
+
+		// Ensure that each pixel's gray level can be read directly.
+		var image = decodedImage;
+		if (image.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+			image = new BufferedImage(decodedImage.getWidth(), decodedImage.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+			image.getRaster().setRect(decodedImage.getRaster());
+		}
+
+		final var digest = VFont.sha256();
+		digest.update(imageData);
+		digest.update(metricsData);
+
+		return new PrebakedAtlas(pointSize, cellWidth, cellHeight, ascent, columns, codePoints, advances, flags, image, digest.digest());
+	}
+
+	/**
+	 * Constructs a table of the metrics of the atlas' glyphs.
+	 *
+	 * @return The table.
+	 */
+	GlyphMetrics createGlyphMetrics() {
+		return new GlyphMetrics(cellWidth, codePoints, advances, flags);
+	}
+
+	/**
+	 * Retrieves the SHA-256 digest of the atlas' files.
+	 *
+	 * @return The digest, or null if the atlas was baked rather than read.
+	 */
+	byte[] getDigest() {
+		return digest == null ? null : digest.clone();
+	}
+
+	/**
+	 * Determines whether the atlas contains the glyph of a code point.
+	 *
+	 * @param codePoint A code point.
+	 * @return Whether the atlas contains the glyph.
+	 */
+	public boolean contains(final int codePoint) {
+		return cells.containsKey(codePoint);
+	}
+
+	/**
+	 * Retrieves the number of glyphs in the atlas.
+	 *
+	 * @return The number of glyphs.
+	 */
+	public int getGlyphCount() {
+		return codePoints.length;
+	}
+
+	/**
+	 * Retrieves the mask of a glyph, as a white image with the mask's alpha.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @return The image, or null if the atlas doesn't contain the glyph.
+	 */
+	BufferedImage getMask(final int codePoint) {
+		final var cell = cells.get(codePoint);
+		if (cell == null) {
+			return null;
+		}
+
+		final var source = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+		final int sourceScanline = image.getWidth();
+		final int sourceOffset = (cell / columns) * cellHeight * sourceScanline + (cell % columns) * cellWidth;
+
+		final var mask = new BufferedImage(cellWidth, cellHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+		final var pixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+		for (int y = 0 ; y < cellHeight ; y++) {
+			for (int x = 0 ; x < cellWidth ; x++) {
+				final int a = source[sourceOffset + y * sourceScanline + x] & 0xFF;
+				pixels[y * cellWidth + x] = (a << 24) | (a << 16) | (a << 8) | a;
+			}
+		}
+
+		return mask;
+	}
+}
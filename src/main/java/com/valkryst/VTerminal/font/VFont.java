@@ -2,6 +2,8 @@ package com.valkryst.VTerminal.font;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.valkryst.VTerminal.image.AnimatedOp;
+import com.valkryst.VTerminal.image.AnimationClock;
 import com.valkryst.VTerminal.image.SequentialOp;
 import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
 import lombok.Getter;
@@ -11,34 +13,203 @@ import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
-import java.awt.image.VolatileImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.ImageObserver;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.io.InputStream;
-import java.util.Objects;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class VFont {
+	/** Maximum number of sheets in the glyph atlas. */
+	private static final int MAX_ATLAS_SHEETS = 8;
+
+	/**
+	 * Code points below this value have their masks looked up in a table,
+	 * rather than the cache. This covers the Latin blocks, as well as the Box
+	 * Drawing, Block Elements, and Geometric Shapes blocks.
+	 */
+	private static final int MASK_TABLE_SIZE = 0x2600;
+
+	/** Number of entries in the recent glyph table. Must be a power of two. */
+	private static final int RECENT_GLYPH_TABLE_SIZE = 512;
+
+	/** Number of entries in the tinted glyph table. Must be a power of two. */
+	private static final int TINTED_GLYPH_TABLE_SIZE = 4096;
+
+	/** Number of consecutive entries of the tinted glyph table in which a glyph may be stored. */
+	private static final int TINTED_GLYPH_PROBES = 8;
+
+	/** Number of locks which guard the creation of regions. Must be a power of two. */
+	private static final int REGION_LOCK_COUNT = 64;
+
+	/**
+	 * Accesses the elements of the mask and recent glyph tables with acquire
+	 * and release semantics, so that a region which is stored by one thread
+	 * is seen with its pixels by every other thread.
+	 */
+	private static final VarHandle REGION_TABLE = MethodHandles.arrayElementVarHandle(GlyphAtlas.Region[].class);
+
+	/** Accesses the elements of the tinted glyph table with acquire and release semantics. */
+	private static final VarHandle TINTED_GLYPH_TABLE = MethodHandles.arrayElementVarHandle(TintedGlyph[].class);
+
 	@Getter protected final Font font;
-	protected final Cache<Integer, Image> imageCache;
+	protected final Cache<GlyphKey, GlyphAtlas.Region> imageCache;
+	protected final GlyphAtlas glyphAtlas;
+
+	/*
+	 * The mask table is a direct-mapped, collision-free, first-level cache
+	 * for the masks of common code points. It is indexed by code point, so a
+	 * lookup requires no key object and no hashing. Entries which have been
+	 * evicted from the atlas are detected by Region#isValid and are then
+	 * reloaded from the cache.
+	 */
+
+	/** Atlas region of the mask of each code point, or null if not yet loaded. */
+	private final GlyphAtlas.Region[] maskTable = new GlyphAtlas.Region[MASK_TABLE_SIZE];
+
+	/*
+	 * The recent glyph table is a direct-mapped first-level cache for every
+	 * other glyph, indexed by the hash of its key. Each entry's key is
+	 * compared field-by-field, so a lookup requires no key object. As each
+	 * region holds its own key, an entry can't be torn by concurrent writes.
+	 */
+
+	/** Atlas region of a recently drawn glyph in each slot, or null. */
+	private final GlyphAtlas.Region[] recentGlyphTable = new GlyphAtlas.Region[RECENT_GLYPH_TABLE_SIZE];
+
+	/**
+	 * Striped locks, selected by the hash of a glyph's key, which ensure that
+	 * a glyph requested by several threads at once is only rasterized once.
+	 */
+	private final Object[] regionLocks = new Object[REGION_LOCK_COUNT];
+
+	/*
+	 * The tinted glyph table is an open-addressed cache of masks which have
+	 * been tinted with a color, for glyphs which are drawn through Java2D
+	 * rather than blended into a pixel array. Each image is written once and
+	 * then only read, so Java2D can manage it like any other static image.
+	 *
+	 * A glyph is stored in the first free entry of a short run, starting at
+	 * its hash, or replaces the first entry of the run when none is free. The
+	 * table trades a bounded amount of memory, of at most one tile-sized
+	 * image per entry, for tinting each glyph and color only once.
+	 */
+
+	/** Tinted mask of a recently drawn glyph in each slot, or null. */
+	private final TintedGlyph[] tintedGlyphTable = new TintedGlyph[TINTED_GLYPH_TABLE_SIZE];
+
+	/**
+	 * Whether glyphs without a sequential image operation are rasterized on
+	 * background threads, rather than on the thread which requests them.
+	 */
+	@Getter private volatile boolean asynchronous = false;
+	/** Background threads which rasterize glyphs, when asynchronous or warming up. */
+	private ExecutorService rasterizer;
+	/** Glyphs which are being rasterized on a background thread. */
+	private final ConcurrentHashMap<GlyphKey, PendingGlyph> pendingGlyphs = new ConcurrentHashMap<>();
 
 	@Getter protected final int maxTileWidth;
 	@Getter protected final int maxTileHeight;
 	protected final int fontAscent;
 
+	/** Precomputed properties of each code point. */
+	@Getter protected final GlyphMetrics glyphMetrics;
+
+	/** SHA-256 digest of the font's data. */
+	private final byte[] fontDigest;
+	/** Glyph cache file which has been loaded, or null. */
+	private volatile GlyphCacheFile glyphCacheFile;
+	/** Atlas from which every glyph is loaded, or null if glyphs are rasterized from the font. */
+	private final PrebakedAtlas prebakedAtlas;
+
 	public VFont(final @NonNull InputStream inputStream, final int pointSize) throws IOException, FontFormatException {
-		font = Font.createFont(Font.TRUETYPE_FONT, inputStream)
-				   .deriveFont(Font.PLAIN, pointSize);
+		this(inputStream.readAllBytes(), pointSize);
+	}
+
+	private VFont(final byte[] fontData, final int pointSize) throws IOException, FontFormatException {
+		this(Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(fontData)).deriveFont(Font.PLAIN, pointSize), sha256().digest(fontData), null);
+	}
+
+	/**
+	 * Constructs a new VFont from a prebaked atlas, which was written by
+	 * {@link PrebakedAtlas#write}.
+	 *
+	 * No TrueType font is loaded, and no glyph is rasterized from one. Only
+	 * the glyphs in the atlas can be displayed.
+	 *
+	 * As Swing components still require a {@link Font}, {@link #getFont()}
+	 * returns the logical monospaced font, at the atlas' point size.
+	 *
+	 * @param atlasImageInputStream Input stream for the atlas' PNG image.
+	 * @param atlasMetricsInputStream Input stream for the atlas' metrics.
+	 * @throws IOException If an I/O error occurs, or if the atlas is invalid.
+	 */
+	public VFont(final @NonNull InputStream atlasImageInputStream, final @NonNull InputStream atlasMetricsInputStream) throws IOException {
+		this(PrebakedAtlas.read(atlasImageInputStream, atlasMetricsInputStream));
+	}
+
+	private VFont(final PrebakedAtlas prebakedAtlas) {
+		this(new Font(Font.MONOSPACED, Font.PLAIN, prebakedAtlas.getPointSize()), prebakedAtlas.getDigest(), prebakedAtlas);
+	}
 
+	private VFont(final Font font, final byte[] fontDigest, final PrebakedAtlas prebakedAtlas) {
+		this.font = font;
+		this.fontDigest = fontDigest;
+		this.prebakedAtlas = prebakedAtlas;
+
+		if (prebakedAtlas == null) {
+			final var fontMetrics = getFontMetrics();
+			maxTileWidth = fontMetrics.charWidth('A');
+			maxTileHeight = fontMetrics.getHeight();
+			fontAscent = fontMetrics.getAscent();
+			glyphMetrics = new GlyphMetrics(font, fontMetrics, maxTileWidth, this::isGraphicCharacter);
+		} else {
+			maxTileWidth = prebakedAtlas.getCellWidth();
+			maxTileHeight = prebakedAtlas.getCellHeight();
+			fontAscent = prebakedAtlas.getAscent();
+			glyphMetrics = prebakedAtlas.createGlyphMetrics();
+		}
+
+		/*
+		 * Glyph images are stored in the atlas, and the cache maps each key to
+		 * the region of the atlas which holds its image. The cache's removal
+		 * listener runs synchronously, so that a region is released as soon
+		 * as its entry expires.
+		 */
 		imageCache = Caffeine.newBuilder()
 							 .initialCapacity(24)
-							 .maximumSize(50_000)
 							 .expireAfterAccess(5, TimeUnit.MINUTES)
+							 .executor(Runnable::run)
+							 .<GlyphKey, GlyphAtlas.Region>removalListener((key, region, cause) -> releaseRegion(region))
+							 .recordStats()
 							 .build();
 
-		final var fontMetrics = getFontMetrics();
-		maxTileWidth = fontMetrics.charWidth('A');
-		maxTileHeight = fontMetrics.getHeight();
-		fontAscent = fontMetrics.getAscent();
+		glyphAtlas = new GlyphAtlas(maxTileWidth, maxTileHeight, MAX_ATLAS_SHEETS, key -> imageCache.invalidate((GlyphKey) key));
+
+		for (int i = 0 ; i < REGION_LOCK_COUNT ; i++) {
+			regionLocks[i] = new Object();
+		}
 
 		/*
 		 * The user can reconfigure their desktop environment while the program
@@ -53,35 +224,1109 @@ public class VFont {
 		Toolkit.getDefaultToolkit().addPropertyChangeListener("awt.font.desktophints", event -> {
 			if (event.getPropertyName().equals("awt.font.desktophints")) {
 				if (!event.getOldValue().equals(event.getNewValue())) {
+					glyphCacheFile = null;
 					imageCache.invalidateAll();
+					glyphAtlas.clear();
+
+					for (int i = 0 ; i < TINTED_GLYPH_TABLE_SIZE ; i++) {
+						TINTED_GLYPH_TABLE.setRelease(tintedGlyphTable, i, null);
+					}
 				}
 			}
 		});
 	}
 
+	/**
+	 * Releases the atlas region of a glyph which has been removed from the
+	 * cache.
+	 *
+	 * @param region A region, or null.
+	 */
+	private void releaseRegion(final GlyphAtlas.Region region) {
+		if (region != null) {
+			glyphAtlas.release(region);
+		}
+	}
+
+	/**
+	 * Draws the image of a glyph onto a graphics context, generating it if it
+	 * isn't cached.
+	 *
+	 * Glyphs without a sequential image operation are drawn from a cache of
+	 * tinted images, see {@link #generateImage}, and all other glyphs are
+	 * drawn directly from their atlas sheet.
+	 *
+	 * @param graphics A graphics context.
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param x X-Axis coordinate to draw at.
+	 * @param y Y-Axis coordinate to draw at.
+	 * @return Whether the glyph was drawn. Undisplayable and whitespace glyphs are never drawn.
+	 */
+	public boolean drawGlyph(final @NonNull Graphics graphics, final int codePoint, final int argb, final SequentialOp sequentialOp, final int x, final int y) {
+		return drawGlyph(graphics, codePoint, argb, sequentialOp, x, y, null);
+	}
+
+	/**
+	 * Draws the image of a glyph onto a graphics context, generating it if it
+	 * isn't cached.
+	 *
+	 * When the font is asynchronous and the glyph isn't cached, nothing is
+	 * drawn. The glyph is instead rasterized on a background thread, and the
+	 * observer is then notified with the {@code ALLBITS} flag and the bounds
+	 * at which the glyph should have been drawn.
+	 *
+	 * @param graphics A graphics context.
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param x X-Axis coordinate to draw at.
+	 * @param y Y-Axis coordinate to draw at.
+	 * @param observer Observer to notify when a pending glyph is ready, or null.
+	 * @return Whether the glyph was drawn. Undisplayable and whitespace glyphs are never drawn.
+	 */
+	public boolean drawGlyph(final @NonNull Graphics graphics, final int codePoint, final int argb, final SequentialOp sequentialOp, final int x, final int y, final ImageObserver observer) {
+		return drawGlyph(graphics, codePoint, argb, sequentialOp, AnimationClock.getShared().getNanos(), x, y, observer, x, y);
+	}
+
+	/**
+	 * Draws the image of a glyph onto a graphics context, generating it if it
+	 * isn't cached, and showing the frame which an animated operation shows
+	 * at a time.
+	 *
+	 * @param graphics A graphics context.
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @param x X-Axis coordinate to draw at.
+	 * @param y Y-Axis coordinate to draw at.
+	 * @param observer Observer to notify when a pending glyph is ready, or null.
+	 * @param observerX X-Axis coordinate to report to the observer.
+	 * @param observerY Y-Axis coordinate to report to the observer.
+	 * @return Whether the glyph was drawn. Undisplayable and whitespace glyphs are never drawn.
+	 * @see #drawGlyph(Graphics, int, int, SequentialOp, int, int, ImageObserver)
+	 */
+	public boolean drawGlyph(final @NonNull Graphics graphics, final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos, final int x, final int y, final ImageObserver observer, final int observerX, final int observerY) {
+		final var region = getPinnedRegion(codePoint, argb, sequentialOp, animationNanos, observer, observerX, observerY);
+		if (region == null) {
+			return false;
+		}
+
+		try {
+			if (sequentialOp != null) {
+				region.draw(graphics, x, y);
+			} else {
+				graphics.drawImage(getTintedImage(codePoint, argb, region), x, y, null);
+			}
+		} finally {
+			glyphAtlas.unpin();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Retrieves the image of a glyph, generating it if it isn't cached.
+	 *
+	 * Glyphs without a sequential image operation are tinted from their mask
+	 * once per color, and then cached, so repeatedly generating the same
+	 * glyph doesn't allocate. Glyphs with an operation are copied out of the
+	 * atlas on each call. Either way, the image never shares its pixels with
+	 * a cell of the atlas, so it stays unchanged after the glyph is evicted.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param color Color of the glyph.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The image, which may be shared and must not be modified, or null if the glyph cannot be displayed.
+	 */
 	public Image generateImage(final int codePoint, final @NonNull Color color, final SequentialOp sequentialOp) {
+		final var region = getRegion(codePoint, color.getRGB(), sequentialOp);
+		if (region == null) {
+			return null;
+		}
+
+		if (!glyphAtlas.pin(region)) {
+			return generateImage(codePoint, color, sequentialOp);
+		}
+
+		try {
+			if (sequentialOp != null) {
+				return region.copyImage();
+			}
+
+			return getTintedImage(codePoint, color.getRGB(), region);
+		} finally {
+			glyphAtlas.unpin();
+		}
+	}
+
+	/**
+	 * Retrieves the mask of a glyph, tinted with a color, from the tinted
+	 * glyph table, tinting it if it isn't in the table.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param mask Pinned region which holds the glyph's mask.
+	 * @return The tinted image, which must not be modified.
+	 */
+	private BufferedImage getTintedImage(final int codePoint, final int argb, final GlyphAtlas.Region mask) {
+		final int hash = 31 * codePoint + argb;
+		final int firstSlot = (hash ^ (hash >>> 16)) & (TINTED_GLYPH_TABLE_SIZE - 1);
+
+		int slot = firstSlot;
+		for (int probe = 0 ; probe < TINTED_GLYPH_PROBES ; probe++) {
+			final int index = (firstSlot + probe) & (TINTED_GLYPH_TABLE_SIZE - 1);
+			final var glyph = (TintedGlyph) TINTED_GLYPH_TABLE.getAcquire(tintedGlyphTable, index);
+
+			if (glyph == null) {
+				slot = index;
+				break;
+			}
+
+			if (glyph.codePoint == codePoint && glyph.argb == argb) {
+				return glyph.image;
+			}
+		}
+
+		/*
+		 * The pixels are written through the raster, rather than into its
+		 * data array, as Java2D can't manage an image whose array has been
+		 * retrieved.
+		 */
+		final int width = mask.getWidth();
+		final int height = mask.getHeight();
+		final var pixels = new int[width * height];
+		tint(mask, argb, pixels, 0, width);
+
+		final var image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		image.getRaster().setDataElements(0, 0, width, height, pixels);
+
+		TINTED_GLYPH_TABLE.setRelease(tintedGlyphTable, slot, new TintedGlyph(codePoint, argb, image));
+		return image;
+	}
+
+	/**
+	 * Multiplies the alpha mask held by a region with a color, and writes the
+	 * result to an array of premultiplied ARGB pixels.
+	 *
+	 * The region must be pinned, see {@link GlyphAtlas#pin}.
+	 *
+	 * @param region A region which holds an alpha mask.
+	 * @param argb A color, in ARGB.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the region's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 */
+	public static void tint(final @NonNull GlyphAtlas.Region region, final int argb, final int @NonNull [] destination, final int offset, final int scanline) {
+		final int alpha = argb >>> 24;
+		final int red = (argb >> 16) & 0xFF;
+		final int green = (argb >> 8) & 0xFF;
+		final int blue = argb & 0xFF;
+
+		final int[] source = region.getSheetPixels();
+		final int sourceScanline = region.getSheetScanline();
+		int sourceIndex = region.getY() * sourceScanline + region.getX();
+		int destinationIndex = offset;
+
+		for (int y = 0 ; y < region.getHeight() ; y++) {
+			for (int x = 0 ; x < region.getWidth() ; x++) {
+				final int coverage = multiply(source[sourceIndex + x] >>> 24, alpha);
+
+				destination[destinationIndex + x] = (coverage << 24)
+												  | (multiply(red, coverage) << 16)
+												  | (multiply(green, coverage) << 8)
+												  | multiply(blue, coverage);
+			}
+
+			sourceIndex += sourceScanline;
+			destinationIndex += scanline;
+		}
+	}
+
+	/**
+	 * Blends the image of a glyph over an array of premultiplied ARGB pixels,
+	 * generating the image if it isn't cached.
+	 *
+	 * This allows a glyph to be drawn into a pixel array without any call to
+	 * Java2D.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the glyph's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 * @param observer Observer to notify when a pending glyph is ready, or null.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 * @return Whether the glyph was drawn. Undisplayable and whitespace glyphs are never drawn.
+	 * @see #drawGlyph(Graphics, int, int, SequentialOp, int, int, ImageObserver)
+	 */
+	public boolean blendGlyph(final int codePoint, final int argb, final SequentialOp sequentialOp, final int @NonNull [] destination, final int offset, final int scanline, final ImageObserver observer, final int x, final int y) {
+		return blendGlyph(codePoint, argb, sequentialOp, AnimationClock.getShared().getNanos(), destination, offset, scanline, observer, x, y);
+	}
+
+	/**
+	 * Blends the image of a glyph over an array of premultiplied ARGB pixels,
+	 * generating the image if it isn't cached, and showing the frame which an
+	 * animated operation shows at a time.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the glyph's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 * @param observer Observer to notify when a pending glyph is ready, or null.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 * @return Whether the glyph was drawn. Undisplayable and whitespace glyphs are never drawn.
+	 * @see #blendGlyph(int, int, SequentialOp, int[], int, int, ImageObserver, int, int)
+	 */
+	public boolean blendGlyph(final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos, final int @NonNull [] destination, final int offset, final int scanline, final ImageObserver observer, final int x, final int y) {
+		final var region = getPinnedRegion(codePoint, argb, sequentialOp, animationNanos, observer, x, y);
+		if (region == null) {
+			return false;
+		}
+
+		try {
+			if (sequentialOp == null) {
+				blendMask(region, argb, destination, offset, scanline);
+			} else {
+				blendImage(region, destination, offset, scanline);
+			}
+		} finally {
+			glyphAtlas.unpin();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Retrieves the region of a glyph, generating it if it isn't cached, and
+	 * pins it so that it can't be evicted while it's read.
+	 *
+	 * If the region is evicted by another thread before it can be pinned, then
+	 * the glyph is looked up again.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @param observer Observer to notify when a pending glyph is ready, or null.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 * @return
+	 * 		The pinned region, which must be unpinned with
+	 * 		{@link GlyphAtlas#unpin()}, or null if the glyph cannot be displayed
+	 * 		or is pending.
+	 */
+	private GlyphAtlas.Region getPinnedRegion(final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos, final ImageObserver observer, final int x, final int y) {
+		while (true) {
+			final var region = getRegion(codePoint, argb, sequentialOp, animationNanos, observer, x, y);
+			if (region == null || glyphAtlas.pin(region)) {
+				return region;
+			}
+		}
+	}
+
+	/**
+	 * Multiplies the alpha mask held by a region with a color, and blends the
+	 * result over an array of premultiplied ARGB pixels.
+	 *
+	 * The region must be pinned, see {@link GlyphAtlas#pin}.
+	 *
+	 * @param region A region which holds an alpha mask.
+	 * @param argb A color, in ARGB.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the region's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 */
+	public static void blendMask(final @NonNull GlyphAtlas.Region region, final int argb, final int @NonNull [] destination, final int offset, final int scanline) {
+		final int alpha = argb >>> 24;
+		final int red = (argb >> 16) & 0xFF;
+		final int green = (argb >> 8) & 0xFF;
+		final int blue = argb & 0xFF;
+
+		final int[] source = region.getSheetPixels();
+		final int sourceScanline = region.getSheetScanline();
+		int sourceIndex = region.getY() * sourceScanline + region.getX();
+		int destinationIndex = offset;
+
+		for (int y = 0 ; y < region.getHeight() ; y++) {
+			for (int x = 0 ; x < region.getWidth() ; x++) {
+				final int coverage = multiply(source[sourceIndex + x] >>> 24, alpha);
+				if (coverage == 0) {
+					continue;
+				}
+
+				final int pixel = (coverage << 24)
+								| (multiply(red, coverage) << 16)
+								| (multiply(green, coverage) << 8)
+								| multiply(blue, coverage);
+
+				final int index = destinationIndex + x;
+				destination[index] = coverage == 255 ? pixel : blendOver(pixel, destination[index]);
+			}
+
+			sourceIndex += sourceScanline;
+			destinationIndex += scanline;
+		}
+	}
+
+	/**
+	 * Blends the premultiplied ARGB image held by a region over an array of
+	 * premultiplied ARGB pixels.
+	 *
+	 * The region must be pinned, see {@link GlyphAtlas#pin}.
+	 *
+	 * @param region A region.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the region's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 */
+	public static void blendImage(final @NonNull GlyphAtlas.Region region, final int @NonNull [] destination, final int offset, final int scanline) {
+		final int[] source = region.getSheetPixels();
+		final int sourceScanline = region.getSheetScanline();
+		int sourceIndex = region.getY() * sourceScanline + region.getX();
+		int destinationIndex = offset;
+
+		for (int y = 0 ; y < region.getHeight() ; y++) {
+			for (int x = 0 ; x < region.getWidth() ; x++) {
+				final int pixel = source[sourceIndex + x];
+				final int pixelAlpha = pixel >>> 24;
+				if (pixelAlpha == 0) {
+					continue;
+				}
+
+				final int index = destinationIndex + x;
+				destination[index] = pixelAlpha == 255 ? pixel : blendOver(pixel, destination[index]);
+			}
+
+			sourceIndex += sourceScanline;
+			destinationIndex += scanline;
+		}
+	}
+
+	/**
+	 * Blends one premultiplied ARGB pixel over another, with the Porter-Duff
+	 * source-over rule.
+	 *
+	 * @param source The pixel to blend, in premultiplied ARGB.
+	 * @param destination The pixel to blend over, in premultiplied ARGB.
+	 * @return The blended pixel, in premultiplied ARGB.
+	 */
+	private static int blendOver(final int source, final int destination) {
+		final int inverseAlpha = 255 - (source >>> 24);
+
+		return (((source >>> 24) + multiply(destination >>> 24, inverseAlpha)) << 24)
+			 | ((((source >> 16) & 0xFF) + multiply((destination >> 16) & 0xFF, inverseAlpha)) << 16)
+			 | ((((source >> 8) & 0xFF) + multiply((destination >> 8) & 0xFF, inverseAlpha)) << 8)
+			 | ((source & 0xFF) + multiply(destination & 0xFF, inverseAlpha));
+	}
+
+	/**
+	 * Converts a color from ARGB to premultiplied ARGB.
+	 *
+	 * @param argb A color, in ARGB.
+	 * @return The color, in premultiplied ARGB.
+	 */
+	public static int premultiply(final int argb) {
+		final int alpha = argb >>> 24;
+		if (alpha == 255) {
+			return argb;
+		}
+
+		return (alpha << 24)
+			 | (multiply((argb >> 16) & 0xFF, alpha) << 16)
+			 | (multiply((argb >> 8) & 0xFF, alpha) << 8)
+			 | multiply(argb & 0xFF, alpha);
+	}
+
+	/**
+	 * Multiplies two 8-bit color components, as if they were in the range
+	 * [0, 1], and rounds the result.
+	 *
+	 * @param a A component, in the range [0, 255].
+	 * @param b A component, in the range [0, 255].
+	 * @return The product, in the range [0, 255].
+	 */
+	private static int multiply(final int a, final int b) {
+		final int product = a * b + 128;
+		return (product + (product >> 8)) >> 8;
+	}
+
+	/**
+	 * Retrieves the atlas region which holds the image of a glyph, generating
+	 * the image if it isn't cached.
+	 *
+	 * Glyphs without a sequential image operation are cached as a single
+	 * white alpha mask per code point, which must be tinted with the glyph's
+	 * color when drawn. Operations may read or alter the color of a glyph, so
+	 * glyphs with an operation are cached per color.
+	 *
+	 * An {@link AnimatedOp} is replaced by the frame which it shows at the
+	 * current time of the shared {@link AnimationClock}.
+	 *
+	 * This method is thread-safe.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The region, or null if the glyph cannot be displayed.
+	 */
+	protected GlyphAtlas.Region getRegion(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return getRegion(codePoint, argb, sequentialOp, AnimationClock.getShared().getNanos(), null, 0, 0);
+	}
+
+	/**
+	 * Retrieves the atlas region which holds the image of a glyph, generating
+	 * the image if it isn't cached.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @param observer
+	 * 		Observer to notify when the glyph has been rasterized in the
+	 * 		background, or null to rasterize it on the calling thread.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 * @return
+	 * 		The region, or null if the glyph cannot be displayed or is being
+	 * 		rasterized in the background.
+	 */
+	private GlyphAtlas.Region getRegion(final int codePoint, final int argb, SequentialOp sequentialOp, final long animationNanos, final ImageObserver observer, final int x, final int y) {
 		if (!Character.isValidCodePoint(codePoint)) {
 			throw new IllegalArgumentException(codePoint + " is not a valid code point.");
 		}
 
-		final var hash = Objects.hash(codePoint, color, sequentialOp);
-		final var cachedImage = imageCache.getIfPresent(hash);
-		if (cachedImage != null) {
-			if (cachedImage instanceof VolatileImage) {
-				if (!((VolatileImage) cachedImage).contentsLost()) {
-					return cachedImage;
+		// Glyphs are cached per frame, rather than per animation.
+		sequentialOp = getFrame(sequentialOp, animationNanos);
+
+		if (glyphMetrics.isBlank(codePoint)) {
+			return null;
+		}
+
+		final var cachedRegion = getRecentRegion(codePoint, argb, sequentialOp);
+		if (cachedRegion != null) {
+			return cachedRegion;
+		}
+
+		final var key = sequentialOp == null ? GlyphKey.mask(codePoint) : GlyphKey.colored(codePoint, argb, sequentialOp);
+		var region = imageCache.getIfPresent(key);
+
+		if (region == null || !region.isValid()) {
+			/*
+			 * A BufferedImageOp isn't guaranteed to be thread-safe, so glyphs
+			 * with a sequential image operation are always rasterized on the
+			 * calling thread.
+			 */
+			if (asynchronous && observer != null && sequentialOp == null) {
+				rasterizeInBackground(key, observer, x, y);
+				return null;
+			}
+
+			region = loadRegion(key);
+		}
+
+		if (sequentialOp == null && codePoint < MASK_TABLE_SIZE) {
+			REGION_TABLE.setRelease(maskTable, codePoint, region);
+		} else {
+			REGION_TABLE.setRelease(recentGlyphTable, getRecentGlyphSlot(codePoint, argb, sequentialOp), region);
+		}
+
+		return region;
+	}
+
+	/**
+	 * Retrieves the region of a glyph from the mask table or the recent glyph
+	 * table, without allocating.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The region, or null if it isn't in either table.
+	 */
+	private GlyphAtlas.Region getRecentRegion(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		if (sequentialOp == null && codePoint < MASK_TABLE_SIZE) {
+			final var region = (GlyphAtlas.Region) REGION_TABLE.getAcquire(maskTable, codePoint);
+			return region != null && region.isValid() ? region : null;
+		}
+
+		final var region = (GlyphAtlas.Region) REGION_TABLE.getAcquire(recentGlyphTable, getRecentGlyphSlot(codePoint, argb, sequentialOp));
+		if (region != null && ((GlyphKey) region.getKey()).matches(codePoint, argb, sequentialOp) && region.isValid()) {
+			return region;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Retrieves the slot of the recent glyph table in which a glyph is stored.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The slot.
+	 */
+	private static int getRecentGlyphSlot(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		final int hash = GlyphKey.hashCode(codePoint, argb, sequentialOp);
+		return (hash ^ (hash >>> 16)) & (RECENT_GLYPH_TABLE_SIZE - 1);
+	}
+
+	/**
+	 * Retrieves the number of lookups of the glyph cache which found a glyph.
+	 *
+	 * Recently drawn glyphs are found without looking them up in the cache,
+	 * so these lookups aren't counted.
+	 *
+	 * @return The number of hits.
+	 */
+	public long getCacheHitCount() {
+		return imageCache.stats().hitCount();
+	}
+
+	/**
+	 * Retrieves the number of lookups of the glyph cache which didn't find a
+	 * glyph, so that it had to be rasterized, and filtered if it has a
+	 * sequential image operation.
+	 *
+	 * @return The number of misses.
+	 */
+	public long getCacheMissCount() {
+		return imageCache.stats().missCount();
+	}
+
+	/**
+	 * Retrieves the ratio of lookups of the glyph cache which found a glyph.
+	 *
+	 * @return The hit rate, or 1 if there have been no lookups.
+	 */
+	public double getCacheHitRate() {
+		return imageCache.stats().hitRate();
+	}
+
+	/**
+	 * Determines, without allocating, whether a glyph can be drawn without
+	 * first being rasterized, because it was recently drawn or has no visible
+	 * glyph.
+	 *
+	 * A glyph which wasn't recently drawn may still be cached, so this is
+	 * only a hint, which is used to skip glyphs that needn't be prefiltered.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return Whether the glyph is known to be cached.
+	 * @see #prefilter(Collection)
+	 */
+	public boolean isCached(final int codePoint, final int argb, final SequentialOp sequentialOp) {
+		return isCached(codePoint, argb, sequentialOp, AnimationClock.getShared().getNanos());
+	}
+
+	/**
+	 * Determines, without allocating, whether a glyph can be drawn without
+	 * first being rasterized, showing the frame which an animated operation
+	 * shows at a time.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @return Whether the glyph is known to be cached.
+	 * @see #isCached(int, int, SequentialOp)
+	 */
+	public boolean isCached(final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos) {
+		if (!Character.isValidCodePoint(codePoint) || glyphMetrics.isBlank(codePoint)) {
+			return true;
+		}
+
+		return getRecentRegion(codePoint, argb, getFrame(sequentialOp, animationNanos)) != null;
+	}
+
+	/**
+	 * Retrieves the operation of the frame which an animated operation shows
+	 * at a time.
+	 *
+	 * @param sequentialOp Sequential image operation, or null.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds.
+	 * @return The operation of the frame, if the operation is animated, or else the operation.
+	 */
+	private static SequentialOp getFrame(final SequentialOp sequentialOp, final long animationNanos) {
+		if (sequentialOp instanceof AnimatedOp) {
+			return ((AnimatedOp) sequentialOp).getFrameAt(animationNanos);
+		}
+
+		return sequentialOp;
+	}
+
+	/**
+	 * Retrieves the region of a glyph from the cache, or creates it if it
+	 * isn't cached.
+	 *
+	 * When several threads miss the cache for the same glyph at once, only
+	 * the first rasterizes it, and the others wait for its region.
+	 *
+	 * @param key Key of the glyph.
+	 * @return The region.
+	 */
+	private GlyphAtlas.Region loadRegion(final GlyphKey key) {
+		final int hash = key.hashCode();
+		final var lock = regionLocks[(hash ^ (hash >>> 16)) & (REGION_LOCK_COUNT - 1)];
+
+		synchronized (lock) {
+			final var region = imageCache.getIfPresent(key);
+			if (region != null && region.isValid()) {
+				return region;
+			}
+
+			return createRegion(key);
+		}
+	}
+
+	/**
+	 * Rasterizes a glyph, adds it to the atlas, and caches its region.
+	 *
+	 * @param key Key of the glyph.
+	 * @return The region.
+	 */
+	private GlyphAtlas.Region createRegion(final GlyphKey key) {
+		BufferedImage image = null;
+
+		final var cacheFile = glyphCacheFile;
+		if (key.isMask() && prebakedAtlas != null) {
+			image = prebakedAtlas.getMask(key.getCodePoint());
+		} else if (key.isMask() && cacheFile != null) {
+			image = cacheFile.getMask(key.getCodePoint());
+		}
+
+		if (image == null) {
+			final var color = key.isMask() ? Color.WHITE : new Color(key.getArgb(), true);
+			image = rasterize(key.getCodePoint(), color, key.getSequentialOp());
+		}
+
+		final var region = glyphAtlas.add(key, image);
+		imageCache.put(key, region);
+		return region;
+	}
+
+	/**
+	 * Loads a glyph cache file, which was written by {@link #saveGlyphCache},
+	 * so that its glyphs don't need to be rasterized.
+	 *
+	 * The file is memory-mapped, and each glyph is only read from it when it
+	 * is first drawn. A file which was written for a different font, point
+	 * size, set of rendering hints, or Java version is ignored, as are glyphs
+	 * which fail their checksum.
+	 *
+	 * @param path Path to the file.
+	 * @return Whether the file was loaded. False if it doesn't exist or can't be used by this font.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public boolean loadGlyphCache(final @NonNull Path path) throws IOException {
+		final var cacheFile = GlyphCacheFile.load(path, getGlyphCacheDigest(), maxTileWidth, maxTileHeight);
+		if (cacheFile == null) {
+			return false;
+		}
+
+		glyphCacheFile = cacheFile;
+		return true;
+	}
+
+	/**
+	 * Writes every cached glyph without a sequential image operation to a
+	 * glyph cache file, which can be loaded by {@link #loadGlyphCache} when
+	 * the program is next run.
+	 *
+	 * Glyphs of a previously loaded file, which haven't been drawn, are also
+	 * written.
+	 *
+	 * @param path Path to the file.
+	 * @throws IOException If an I/O error occurs.
+	 */
+	public void saveGlyphCache(final @NonNull Path path) throws IOException {
+		final Map<Integer, byte[]> masks = new TreeMap<>();
+
+		final var cacheFile = glyphCacheFile;
+		if (cacheFile != null) {
+			for (final int codePoint : cacheFile.getCodePoints()) {
+				final var alpha = cacheFile.getAlpha(codePoint);
+				if (alpha != null) {
+					masks.put(codePoint, alpha);
+				}
+			}
+		}
+
+		for (final var entry : imageCache.asMap().entrySet()) {
+			final var key = entry.getKey();
+			final var region = entry.getValue();
+
+			if (key.isMask() && glyphAtlas.pin(region)) {
+				try {
+					masks.put(key.getCodePoint(), getAlpha(region));
+				} finally {
+					glyphAtlas.unpin();
 				}
+			}
+		}
+
+		GlyphCacheFile.write(path, getGlyphCacheDigest(), maxTileWidth, maxTileHeight, masks);
+	}
+
+	/**
+	 * Reads the alpha of each pixel of a region.
+	 *
+	 * @param region A pinned region.
+	 * @return The alpha of each pixel, in row-major order.
+	 */
+	private static byte[] getAlpha(final GlyphAtlas.Region region) {
+		final var alpha = new byte[region.getWidth() * region.getHeight()];
+		final var pixels = region.getSheetPixels();
+		final var scanline = region.getSheetScanline();
+
+		int index = 0;
+		for (int y = 0 ; y < region.getHeight() ; y++) {
+			final int rowOffset = (region.getY() + y) * scanline + region.getX();
+
+			for (int x = 0 ; x < region.getWidth() ; x++) {
+				alpha[index++] = (byte) (pixels[rowOffset + x] >>> 24);
+			}
+		}
+
+		return alpha;
+	}
+
+	/**
+	 * Computes a digest of everything which affects the rasterization of a
+	 * glyph: the font's data, its point size, the rendering hints, and the
+	 * Java version.
+	 *
+	 * The rendering hints depend on the desktop's settings, so the digest is
+	 * computed each time that it's needed.
+	 *
+	 * @return The digest.
+	 */
+	private byte[] getGlyphCacheDigest() {
+		final var image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		applyRenderingHints(graphics, 'A');
+
+		final Map<String, String> hints = new TreeMap<>();
+		graphics.getRenderingHints().forEach((key, value) -> hints.put(key.toString(), String.valueOf(value)));
+		graphics.dispose();
+
+		final var digest = sha256();
+		digest.update(fontDigest);
+		digest.update(ByteBuffer.allocate(4).putInt(font.getSize()).array());
+		digest.update(System.getProperty("java.version").getBytes(StandardCharsets.UTF_8));
+		digest.update(hints.toString().getBytes(StandardCharsets.UTF_8));
+		return digest.digest();
+	}
+
+	static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			// Every implementation of the Java platform is required to support SHA-256.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Rasterizes a glyph on a background thread, unless it is already being
+	 * rasterized, and notifies an observer when it is ready.
+	 *
+	 * @param key Key of the glyph.
+	 * @param observer Observer to notify.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 */
+	private void rasterizeInBackground(final GlyphKey key, final @NonNull ImageObserver observer, final int x, final int y) {
+		final var pendingGlyph = pendingGlyphs.computeIfAbsent(key, k -> {
+			final var glyph = new PendingGlyph();
+			getRasterizer().execute(() -> rasterizePendingGlyph(k, glyph));
+			return glyph;
+		});
+
+		pendingGlyph.addObserver(observer, x, y);
+	}
+
+	/**
+	 * Rasterizes a pending glyph, unless it has been cached in the meantime,
+	 * and notifies its observers.
+	 *
+	 * @param key Key of the glyph.
+	 * @param pendingGlyph The pending glyph, which must be mapped to the key.
+	 */
+	private void rasterizePendingGlyph(final GlyphKey key, final PendingGlyph pendingGlyph) {
+		BufferedImage image = null;
+		try {
+			image = copyGlyph(key);
+		} finally {
+			pendingGlyphs.remove(key);
+			pendingGlyph.complete(image);
+		}
+	}
+
+	/**
+	 * Loads the region of a glyph, and copies it into a new image.
+	 *
+	 * If the region is evicted by another thread before it can be pinned, then
+	 * the glyph is loaded again.
+	 *
+	 * @param key Key of the glyph.
+	 * @return The copy, which doesn't share its pixels with the atlas.
+	 */
+	private BufferedImage copyGlyph(final GlyphKey key) {
+		while (true) {
+			final var region = loadRegion(key);
+
+			if (glyphAtlas.pin(region)) {
+				try {
+					return region.copyImage();
+				} finally {
+					glyphAtlas.unpin();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rasterizes the glyphs of a set of code points on background threads, so
+	 * that they are cached before they are first drawn.
+	 *
+	 * Glyphs are cached as alpha masks, which are tinted when drawn, so a
+	 * glyph only needs to be rasterized once to be drawn in any color. Each
+	 * glyph can be drawn as soon as it has been rasterized, without waiting
+	 * for the rest of the set.
+	 *
+	 * Code points which are already cached, or which have no visible glyph,
+	 * are skipped but still counted as progress.
+	 *
+	 * Cancelling the returned future skips every glyph which hasn't yet begun
+	 * to be rasterized.
+	 *
+	 * @param codePoints Code points of the glyphs.
+	 * @param listener
+	 * 		Listener to notify as each glyph is rasterized, or null. It is
+	 * 		called on a background thread.
+	 * @return A future which completes when every glyph has been rasterized.
+	 */
+	public CompletableFuture<Void> warmUp(final int @NonNull [] codePoints, final WarmUpListener listener) {
+		for (final int codePoint : codePoints) {
+			if (!Character.isValidCodePoint(codePoint)) {
+				throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+			}
+		}
+
+		final var rasterizer = getRasterizer();
+		final var rasterizedCount = new AtomicInteger();
+		final var futures = new CompletableFuture<?>[codePoints.length];
+		final var warmUp = new CompletableFuture<Void>();
+
+		for (int i = 0 ; i < codePoints.length ; i++) {
+			final int codePoint = codePoints[i];
+
+			futures[i] = CompletableFuture.runAsync(() -> {
+				if (!warmUp.isCancelled()) {
+					warmUp(codePoint);
+				}
+			}, rasterizer).whenComplete((result, throwable) -> {
+				if (listener != null) {
+					listener.progressed(rasterizedCount.incrementAndGet(), codePoints.length);
+				}
+			});
+		}
+
+		CompletableFuture.allOf(futures).whenComplete((result, throwable) -> {
+			if (throwable == null) {
+				warmUp.complete(null);
 			} else {
-				return cachedImage;
+				warmUp.completeExceptionally(throwable);
 			}
+		});
+
+		return warmUp;
+	}
+
+	/**
+	 * Rasterizes the glyph of a code point, unless it is already cached, has
+	 * no visible glyph, or is being rasterized on another thread.
+	 *
+	 * @param codePoint A code point.
+	 */
+	private void warmUp(final int codePoint) {
+		if (glyphMetrics.isBlank(codePoint)) {
+			return;
 		}
 
-		if (!font.canDisplay(codePoint) || Character.isWhitespace(codePoint)) {
-			return null;
+		final var key = GlyphKey.mask(codePoint);
+		final var region = imageCache.getIfPresent(key);
+		if (region != null && region.isValid()) {
+			return;
+		}
+
+		final var pendingGlyph = new PendingGlyph();
+		if (pendingGlyphs.putIfAbsent(key, pendingGlyph) == null) {
+			rasterizePendingGlyph(key, pendingGlyph);
+		}
+	}
+
+	/**
+	 * Rasterizes and filters a batch of glyphs in parallel, on the common
+	 * fork/join pool, so that drawing them only requires a lookup.
+	 *
+	 * Each distinct glyph is only rasterized once, and glyphs which are
+	 * already cached, or which have no visible glyph, are skipped. This
+	 * returns once every glyph has been cached.
+	 *
+	 * A BufferedImageOp isn't guaranteed to be thread-safe, so glyphs which
+	 * share a sequential image operation are filtered one at a time, unless
+	 * the operation is {@link SequentialOp#isThreadSafe() thread-safe}.
+	 *
+	 * @param keys Keys of the glyphs.
+	 * @return Number of glyphs which were rasterized.
+	 * @throws IllegalArgumentException If any glyph has an invalid code point.
+	 */
+	public int prefilter(final @NonNull Collection<GlyphKey> keys) {
+		return prefilter(keys, AnimationClock.getShared().getNanos());
+	}
+
+	/**
+	 * Rasterizes and filters a batch of glyphs in parallel, showing the frame
+	 * which each animated operation shows at a time.
+	 *
+	 * @param keys Keys of the glyphs.
+	 * @param animationNanos Time of the {@link AnimationClock}, in nanoseconds, at which an {@link AnimatedOp}'s frame is chosen.
+	 * @return Number of glyphs which were rasterized.
+	 * @throws IllegalArgumentException If any glyph has an invalid code point.
+	 * @see #prefilter(Collection)
+	 */
+	public int prefilter(final @NonNull Collection<GlyphKey> keys, final long animationNanos) {
+		final var missingKeys = new HashSet<GlyphKey>();
+
+		for (var key : keys) {
+			final int codePoint = key.getCodePoint();
+			if (!Character.isValidCodePoint(codePoint)) {
+				throw new IllegalArgumentException(codePoint + " is not a valid code point.");
+			}
+
+			if (key.getSequentialOp() instanceof AnimatedOp) {
+				key = GlyphKey.colored(codePoint, key.getArgb(), getFrame(key.getSequentialOp(), animationNanos));
+			}
+
+			if (glyphMetrics.isBlank(codePoint)) {
+				continue;
+			}
+
+			final var region = imageCache.getIfPresent(key);
+			if (region == null || !region.isValid()) {
+				missingKeys.add(key);
+			}
+		}
+
+		if (missingKeys.size() == 1) {
+			loadRegion(missingKeys.iterator().next());
+		} else if (missingKeys.size() > 1) {
+			ForkJoinPool.commonPool().invoke(new PrefilterTask(missingKeys.toArray(new GlyphKey[0]), 0, missingKeys.size()));
+		}
+
+		return missingKeys.size();
+	}
+
+	/**
+	 * Loads the regions of a range of glyphs, splitting the range in half
+	 * until each part holds a single glyph.
+	 */
+	private final class PrefilterTask extends RecursiveAction {
+		/** Keys of the glyphs. */
+		private final GlyphKey[] keys;
+		/** Index of the first glyph of the range. */
+		private final int start;
+		/** Index after the last glyph of the range. */
+		private final int end;
+
+		private PrefilterTask(final GlyphKey[] keys, final int start, final int end) {
+			this.keys = keys;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1) {
+				loadRegion(keys[start]);
+				return;
+			}
+
+			final int middle = (start + end) >>> 1;
+			invokeAll(new PrefilterTask(keys, start, middle), new PrefilterTask(keys, middle, end));
+		}
+	}
+
+	/**
+	 * Retrieves the background threads which rasterize glyphs, creating them
+	 * if required.
+	 *
+	 * @return The background threads.
+	 */
+	private synchronized ExecutorService getRasterizer() {
+		if (rasterizer == null) {
+			final var threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+			rasterizer = Executors.newFixedThreadPool(threadCount, runnable -> {
+				final var thread = new Thread(runnable, "VFont Rasterizer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
+		return rasterizer;
+	}
+
+	/**
+	 * En/disables the rasterization of glyphs on background threads.
+	 *
+	 * This only affects glyphs which are drawn by
+	 * {@link #drawGlyph(Graphics, int, int, SequentialOp, int, int, ImageObserver)}
+	 * with an observer, and which have no sequential image operation.
+	 *
+	 * @param asynchronous Whether to rasterize glyphs on background threads.
+	 */
+	public synchronized void setAsynchronous(final boolean asynchronous) {
+		if (asynchronous) {
+			getRasterizer();
+		}
+
+		this.asynchronous = asynchronous;
+	}
+
+	/**
+	 * Renders the image of a glyph.
+	 *
+	 * Images with a sequential image operation are filtered on each call. The
+	 * atlas region which holds the result is the only cached copy, and as
+	 * glyph keys compare operations by value, it's shared by every tile, and
+	 * every instance of {@code SequentialOp}, with the same chain.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param color Color of the glyph.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The image, which must not be modified.
+	 */
+	protected BufferedImage rasterize(final int codePoint, final @NonNull Color color, final SequentialOp sequentialOp) {
+		if (sequentialOp != null) {
+			return filter(rasterize(codePoint, color, null), sequentialOp);
+		}
+
+		if (prebakedAtlas != null) {
+			return colorPrebakedGlyph(codePoint, color);
 		}
 
-		final var fontMetrics = getFontMetrics();
-		final var charWidth = fontMetrics.charWidth(codePoint);
+		final var charWidth = glyphMetrics.getAdvance(codePoint);
 		final var imageWidth = Math.max(charWidth, maxTileWidth);
 		var image = new BufferedImage(imageWidth, maxTileHeight, Transparency.TRANSLUCENT);
 
@@ -98,48 +1343,90 @@ public class VFont {
 		graphics.dispose();
 
 		// Allows non-monospaced fonts, but roughly scales them to be monospaced.
-		if (charWidth > maxTileWidth) {
+		if (glyphMetrics.needsScaling(codePoint)) {
 			final double scaleWidth = maxTileWidth / (double) charWidth;
 			final AffineTransform tx = AffineTransform.getScaleInstance(scaleWidth, 1);
 			final AffineTransformOp op = new AffineTransformOp(tx, AffineTransformOp.TYPE_BICUBIC);
 			image = op.filter(image, null);
 		}
 
-		if (sequentialOp != null) {
-			image = sequentialOp.filter(image, null);
-		}
-
 		/*
-		 * We could manually convert the BufferedImage into a VolatileImage
-		 * using GraphicsConfiguration#createCompatibleVolatileImage. This would
-		 * most likely increase performance.
+		 * We could manually convert the atlas sheets into VolatileImages using
+		 * GraphicsConfiguration#createCompatibleVolatileImage. This would most
+		 * likely increase performance.
 		 *
 		 * Doing this will also cause graphical issues when dragging a J/VFrame
 		 * between monitors. All the tiles will render as black rectangles
 		 * because the VolatileImages are generated to be displayed on the
 		 * GraphicsDevice that the frame is initially displayed on.
 		 *
-		 * Workarounds for this black rectangle issue aren't incredibly
-		 * difficult, but it isn't currently worth the effort and additional
-		 * code complexity.
-		 *
 		 * ---
 		 *
 		 * It may not be necessary to perform this manual conversion as the
 		 * runtime engine will automatically convert BufferedImages to
 		 * VolatileImages when it detects that it will provide a speed
-		 * advantage.
+		 * advantage. As there are only a few sheets, rather than an image per
+		 * glyph, each of them is a good candidate for this.
 		 *
 		 * Source: https://kitfox.com/projects/javaOne2007/javaOne-notes.pdf
 		 */
-		imageCache.put(hash, image);
+		return image;
+	}
+
+	/**
+	 * Applies a sequential image operation to the image of a glyph.
+	 *
+	 * A BufferedImageOp isn't guaranteed to be thread-safe, so an operation
+	 * is never applied by more than one thread at a time, unless it is known
+	 * to be thread-safe.
+	 *
+	 * @param image The image.
+	 * @param sequentialOp The operation.
+	 * @return The filtered image.
+	 */
+	private static BufferedImage filter(final BufferedImage image, final SequentialOp sequentialOp) {
+		if (sequentialOp.isThreadSafe()) {
+			return sequentialOp.filter(image, null);
+		}
+
+		synchronized (sequentialOp) {
+			return sequentialOp.filter(image, null);
+		}
+	}
+
+	/**
+	 * Renders the image of a glyph from its mask in the prebaked atlas.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param color Color of the glyph.
+	 * @return The image, which is empty if the atlas doesn't contain the glyph.
+	 */
+	private BufferedImage colorPrebakedGlyph(final int codePoint, final Color color) {
+		final var image = new BufferedImage(maxTileWidth, maxTileHeight, BufferedImage.TYPE_INT_ARGB);
+		final var mask = prebakedAtlas.getMask(codePoint);
+		if (mask == null) {
+			return image;
+		}
+
+		final var maskPixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+		final var pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		final int rgb = color.getRGB() & 0xFFFFFF;
+		for (int i = 0 ; i < pixels.length ; i++) {
+			pixels[i] = (multiply(maskPixels[i] >>> 24, color.getAlpha()) << 24) | rgb;
+		}
+
 		return image;
 	}
 
 	protected void applyRenderingHints(Graphics2D graphics, final int codePoint) {
 		graphics = VTerminalLookAndFeel.setRenderingHints(graphics);
 
-		if (isGraphicCharacter(codePoint)) {
+		/*
+		 * The glyph metrics are computed while the font is being constructed,
+		 * using a graphics context which has had these hints applied.
+		 */
+		final boolean isGraphicCharacter = glyphMetrics == null ? isGraphicCharacter(codePoint) : glyphMetrics.isGraphic(codePoint);
+		if (isGraphicCharacter) {
 			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
 		}
 	}
@@ -160,4 +1447,80 @@ public class VFont {
 
 		return graphics.getFontMetrics();
 	}
+
+	/** The mask of a glyph, tinted with a color. */
+	private static final class TintedGlyph {
+		/** Code point of the glyph. */
+		private final int codePoint;
+		/** Color of the glyph, in ARGB. */
+		private final int argb;
+		/** The tinted image, in premultiplied ARGB. */
+		private final BufferedImage image;
+
+		private TintedGlyph(final int codePoint, final int argb, final BufferedImage image) {
+			this.codePoint = codePoint;
+			this.argb = argb;
+			this.image = image;
+		}
+	}
+
+	/** A glyph which is being rasterized on a background thread. */
+	private static final class PendingGlyph {
+		/** Observers to notify. */
+		private final List<ImageObserver> observers = new ArrayList<>();
+		/** X-Axis coordinate to report to each observer. */
+		private final List<Integer> xPositions = new ArrayList<>();
+		/** Y-Axis coordinate to report to each observer. */
+		private final List<Integer> yPositions = new ArrayList<>();
+
+		/** Whether rasterization has finished. */
+		private boolean complete = false;
+		/** Copy of the rasterized glyph, or null if rasterization failed. */
+		private BufferedImage image;
+
+		/**
+		 * Adds an observer to notify when the glyph is ready. If the glyph is
+		 * already ready, the observer is notified immediately.
+		 *
+		 * @param observer An observer.
+		 * @param x X-Axis coordinate to report to the observer.
+		 * @param y Y-Axis coordinate to report to the observer.
+		 */
+		private void addObserver(final ImageObserver observer, final int x, final int y) {
+			synchronized (this) {
+				if (!complete) {
+					observers.add(observer);
+					xPositions.add(x);
+					yPositions.add(y);
+					return;
+				}
+			}
+
+			notify(observer, x, y);
+		}
+
+		/**
+		 * Marks the glyph as ready, and notifies every observer.
+		 *
+		 * @param image Copy of the rasterized glyph, or null if rasterization failed.
+		 */
+		private void complete(final BufferedImage image) {
+			synchronized (this) {
+				this.image = image;
+				complete = true;
+			}
+
+			for (int i = 0 ; i < observers.size() ; i++) {
+				notify(observers.get(i), xPositions.get(i), yPositions.get(i));
+			}
+		}
+
+		private void notify(final ImageObserver observer, final int x, final int y) {
+			if (image == null) {
+				observer.imageUpdate(null, ImageObserver.ERROR | ImageObserver.ABORT, x, y, 0, 0);
+			} else {
+				observer.imageUpdate(image, ImageObserver.ALLBITS, x, y, image.getWidth(), image.getHeight());
+			}
+		}
+	}
 }
@@ -0,0 +1,13 @@
+package com.valkryst.VTerminal.font;
+
+/** Receives the progress of a {@link VFont#warmUp} operation. */
+@FunctionalInterface
+public interface WarmUpListener {
+	/**
+	 * Called after each glyph of a warm-up set has been processed.
+	 *
+	 * @param completed Number of glyphs which have been processed.
+	 * @param total Number of glyphs in the set.
+	 */
+	void progressed(final int completed, final int total);
+}
@@ -0,0 +1,28 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+
+/** Scales the alpha of each pixel, without changing its color. */
+public final class AlphaOp extends PointOp {
+	/** Factor by which each alpha is scaled. */
+	@Getter private final float factor;
+
+	/**
+	 * Constructs a new instance of {@code AlphaOp}.
+	 *
+	 * @param factor Factor by which each alpha is scaled, from 0 (transparent) to 1 (unchanged).
+	 */
+	public AlphaOp(final float factor) {
+		if (factor < 0 || factor > 1 || Float.isNaN(factor)) {
+			throw new IllegalArgumentException("The factor must be within [0, 1].");
+		}
+
+		this.factor = factor;
+	}
+
+	@Override
+	public int filterRGB(final int argb) {
+		final int alpha = Math.round((argb >>> 24) * factor);
+		return (alpha << 24) | (argb & 0x00FFFFFF);
+	}
+}
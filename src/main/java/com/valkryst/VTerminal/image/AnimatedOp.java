@@ -0,0 +1,145 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A sequential image operation which changes over time, by looping through a
+ * fixed number of frames within a period, such as a flicker or a pulsing
+ * glow.
+ *
+ * Each frame is a {@link SequentialOp}, which is created when it is first
+ * needed and then reused on every loop. As glyphs are cached per operation, a
+ * glyph is only filtered once per frame, and later loops only look it up.
+ *
+ * The current frame is chosen by the time of the shared
+ * {@link AnimationClock}. A {@code VPanel} repaints the tiles which have an
+ * animated operation whenever the clock advances their frame.
+ *
+ * Animated operations are only equal to themselves.
+ */
+public final class AnimatedOp extends SequentialOp {
+	/** Duration of one loop, in nanoseconds. */
+	@Getter private final long periodNanos;
+	/** Number of frames in one loop. */
+	@Getter private final int frameCount;
+
+	/** Creates the operation of each frame, given its index. */
+	private final IntFunction<SequentialOp> frameFactory;
+	/** Operation of each frame, or null if it hasn't been created. */
+	private final AtomicReferenceArray<SequentialOp> frames;
+
+	/**
+	 * Constructs a new instance of {@code AnimatedOp}.
+	 *
+	 * @param period Duration of one loop.
+	 * @param unit Unit of the period.
+	 * @param frameCount Number of frames in one loop.
+	 * @param frameFactory Creates the operation of each frame, given its index.
+	 */
+	public AnimatedOp(final long period, final @NonNull TimeUnit unit, final int frameCount, final @NonNull IntFunction<SequentialOp> frameFactory) {
+		if (period < 1) {
+			throw new IllegalArgumentException("The period must be >= 1.");
+		}
+
+		if (frameCount < 1) {
+			throw new IllegalArgumentException("The frame count must be >= 1.");
+		}
+
+		periodNanos = unit.toNanos(period);
+		this.frameCount = frameCount;
+		this.frameFactory = frameFactory;
+		frames = new AtomicReferenceArray<>(frameCount);
+	}
+
+	/**
+	 * Retrieves the index of the frame which is shown at a time.
+	 *
+	 * @param nanos A time, in nanoseconds, of the {@link AnimationClock}.
+	 * @return The index of the frame.
+	 */
+	public int getFrameIndex(final long nanos) {
+		return (int) (Math.floorMod(nanos, periodNanos) * frameCount / periodNanos);
+	}
+
+	/**
+	 * Retrieves the operation of a frame, creating it if necessary.
+	 *
+	 * @param index Index of the frame.
+	 * @return The operation.
+	 * @throws IndexOutOfBoundsException If the index is outside the loop.
+	 */
+	public SequentialOp getFrame(final int index) {
+		var frame = frames.get(index);
+
+		if (frame == null) {
+			frame = frameFactory.apply(index);
+
+			if (frame == null) {
+				throw new IllegalStateException("The frame factory returned null for frame " + index + ".");
+			}
+
+			if (frame instanceof AnimatedOp) {
+				throw new IllegalStateException("The frame factory returned an AnimatedOp for frame " + index + ".");
+			}
+
+			// If another thread created the frame first, then its frame is used.
+			if (!frames.compareAndSet(index, null, frame)) {
+				frame = frames.get(index);
+			}
+		}
+
+		return frame;
+	}
+
+	/**
+	 * Retrieves the operation of the frame which is shown at a time.
+	 *
+	 * @param nanos A time, in nanoseconds, of the {@link AnimationClock}.
+	 * @return The operation.
+	 */
+	public SequentialOp getFrameAt(final long nanos) {
+		return getFrame(getFrameIndex(nanos));
+	}
+
+	/**
+	 * Retrieves the operation of the frame which is currently shown.
+	 *
+	 * @return The operation.
+	 */
+	public SequentialOp getCurrentFrame() {
+		return getFrameAt(AnimationClock.getShared().getNanos());
+	}
+
+	/**
+	 * Applies the operation of the current frame to an image.
+	 *
+	 * @param source An image, which isn't modified.
+	 * @param destination Ignored, as each operation creates its own destination.
+	 * @return A new image.
+	 */
+	@Override
+	public BufferedImage filter(final @NonNull BufferedImage source, final BufferedImage destination) {
+		return getCurrentFrame().filter(source, destination);
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return false;
+	}
+
+	@Override
+	public boolean equals(final Object object) {
+		return this == object;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+}
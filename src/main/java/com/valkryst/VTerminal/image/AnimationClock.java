@@ -0,0 +1,148 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import javax.swing.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+/**
+ * The clock which drives every {@link AnimatedOp}.
+ *
+ * The clock ticks on the event dispatch thread, at a fixed rate, while it has
+ * any listeners. On each tick, every listener is given the same time, so that
+ * all animations advance together.
+ */
+public final class AnimationClock {
+	/** Greatest number of ticks per second, as the timer's delay is a whole number of milliseconds. */
+	public static final int MAX_TICKS_PER_SECOND = 1000;
+
+	/** Clock which is shared by every panel. */
+	private static final AnimationClock SHARED = new AnimationClock(60);
+
+	/** Value of {@link System#nanoTime()} from which the clock's time is measured. */
+	private final long originNanos = System.nanoTime();
+
+	/** Listeners to notify on each tick. */
+	private final CopyOnWriteArrayList<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+
+	/** Timer which ticks the clock. */
+	private final Timer timer;
+
+	/** Number of ticks per second. */
+	@Getter private int ticksPerSecond;
+
+	/**
+	 * Constructs a new instance of {@code AnimationClock}.
+	 *
+	 * @param ticksPerSecond Number of ticks per second.
+	 * @throws IllegalArgumentException If the ticks per second are below 1, or above {@link #MAX_TICKS_PER_SECOND}.
+	 */
+	public AnimationClock(final int ticksPerSecond) {
+		validateTicksPerSecond(ticksPerSecond);
+
+		this.ticksPerSecond = ticksPerSecond;
+
+		timer = new Timer(1000 / ticksPerSecond, event -> tick());
+		timer.setCoalesce(true);
+	}
+
+	/**
+	 * Retrieves the clock which is shared by every panel.
+	 *
+	 * @return The clock.
+	 */
+	public static AnimationClock getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * Retrieves the clock's current time.
+	 *
+	 * @return The time, in nanoseconds, since the clock was created.
+	 */
+	public long getNanos() {
+		return System.nanoTime() - originNanos;
+	}
+
+	/**
+	 * Sets the number of ticks per second.
+	 *
+	 * @param ticksPerSecond Number of ticks per second.
+	 * @throws IllegalArgumentException If the ticks per second are below 1, or above {@link #MAX_TICKS_PER_SECOND}.
+	 */
+	public void setTicksPerSecond(final int ticksPerSecond) {
+		validateTicksPerSecond(ticksPerSecond);
+
+		this.ticksPerSecond = ticksPerSecond;
+		timer.setDelay(1000 / ticksPerSecond);
+	}
+
+	/**
+	 * Validates a number of ticks per second.
+	 *
+	 * @param ticksPerSecond Number of ticks per second.
+	 * @throws IllegalArgumentException If the ticks per second are below 1, or above {@link #MAX_TICKS_PER_SECOND}.
+	 */
+	private static void validateTicksPerSecond(final int ticksPerSecond) {
+		if (ticksPerSecond < 1) {
+			throw new IllegalArgumentException("The ticks per second must be >= 1.");
+		}
+
+		if (ticksPerSecond > MAX_TICKS_PER_SECOND) {
+			throw new IllegalArgumentException("The ticks per second must be <= " + MAX_TICKS_PER_SECOND + ".");
+		}
+	}
+
+	/**
+	 * Adds a listener, and starts the clock if it wasn't running.
+	 *
+	 * @param listener Listener to notify, on the event dispatch thread, with the clock's time on each tick.
+	 */
+	public synchronized void addListener(final @NonNull LongConsumer listener) {
+		listeners.addIfAbsent(listener);
+		timer.start();
+	}
+
+	/**
+	 * Removes a listener, and stops the clock if it has no other listeners.
+	 *
+	 * @param listener The listener.
+	 */
+	public synchronized void removeListener(final @NonNull LongConsumer listener) {
+		listeners.remove(listener);
+
+		if (listeners.isEmpty()) {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Determines whether a listener is notified on each tick.
+	 *
+	 * @param listener The listener.
+	 * @return Whether the listener has been added, and not removed.
+	 */
+	public boolean hasListener(final @NonNull LongConsumer listener) {
+		return listeners.contains(listener);
+	}
+
+	/**
+	 * Determines whether the clock is ticking.
+	 *
+	 * @return Whether the clock is ticking.
+	 */
+	public boolean isRunning() {
+		return timer.isRunning();
+	}
+
+	/** Notifies every listener of the clock's current time. */
+	private void tick() {
+		final long nanos = getNanos();
+
+		for (final var listener : listeners) {
+			listener.accept(nanos);
+		}
+	}
+}
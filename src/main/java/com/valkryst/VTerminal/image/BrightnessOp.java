@@ -0,0 +1,40 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+
+/** Scales the brightness of each pixel's color, without changing its alpha. */
+public final class BrightnessOp extends PointOp {
+	/** Factor by which each color component is scaled. */
+	@Getter private final float factor;
+
+	/**
+	 * Constructs a new instance of {@code BrightnessOp}.
+	 *
+	 * @param factor Factor by which each color component is scaled, where 1 leaves the color unchanged.
+	 */
+	public BrightnessOp(final float factor) {
+		if (factor < 0 || Float.isNaN(factor)) {
+			throw new IllegalArgumentException("The factor must be >= 0.");
+		}
+
+		this.factor = factor;
+	}
+
+	@Override
+	public int filterRGB(final int argb) {
+		final int red = scale((argb >>> 16) & 0xFF);
+		final int green = scale((argb >>> 8) & 0xFF);
+		final int blue = scale(argb & 0xFF);
+		return (argb & 0xFF000000) | (red << 16) | (green << 8) | blue;
+	}
+
+	/**
+	 * Scales a color component.
+	 *
+	 * @param component The component.
+	 * @return The scaled component, clamped to 255.
+	 */
+	private int scale(final int component) {
+		return Math.min(255, Math.round(component * factor));
+	}
+}
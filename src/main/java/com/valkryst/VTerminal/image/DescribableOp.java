@@ -0,0 +1,26 @@
+package com.valkryst.VTerminal.image;
+
+import java.awt.image.BufferedImageOp;
+
+/**
+ * An image operation which can describe its own parameters, so that a
+ * {@link SequentialOp} compares it to other instances by value, rather than
+ * by identity.
+ *
+ * An operation should implement this interface when equivalent instances are
+ * constructed for many tiles, or on every frame, so that they share their
+ * cached glyphs.
+ */
+public interface DescribableOp extends BufferedImageOp {
+	/**
+	 * Retrieves a description of the operation's parameters.
+	 *
+	 * The description is retrieved once, when the operation is added to a
+	 * sequence, so the operation mustn't be changed afterwards. Two operations
+	 * of the same class must only return equal descriptions when they produce
+	 * the same result for every image.
+	 *
+	 * @return An immutable value, such as a string or a list of numbers, which implements {@code equals} and {@code hashCode}.
+	 */
+	Object getDescriptor();
+}
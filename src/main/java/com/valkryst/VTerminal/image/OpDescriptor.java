@@ -0,0 +1,92 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.NonNull;
+
+import java.awt.image.BufferedImageOp;
+
+/**
+ * Describes a {@link BufferedImageOp} by its type and parameters, so that
+ * equivalent operations are told apart from different ones.
+ *
+ * Operations whose parameters are known are described by their parameters:
+ *
+ * <ul>
+ *     <li>{@link AlphaOp} and {@link BrightnessOp}, by their factor.</li>
+ *     <li>{@link RecolorOp}, by its color.</li>
+ *     <li>{@link SequentialOp}, by its own operations, or by its key.</li>
+ *     <li>{@link DescribableOp}, by its descriptor.</li>
+ * </ul>
+ *
+ * Any other operation, including an {@link AnimatedOp} or a subclass of
+ * {@link PointOp}, may be changed after it has been described, so it's only
+ * described by its identity, and is only equal to the descriptors of the same
+ * instance.
+ */
+final class OpDescriptor {
+	/** Class of the operation. */
+	private final Class<?> type;
+	/** The operation, if it's described by its identity, or null. */
+	private final BufferedImageOp op;
+	/** Value which describes the parameters of the operation, or null if it's described by its identity. */
+	private final Object value;
+	/** Precomputed hash code. */
+	private final int hashCode;
+
+	/**
+	 * Constructs a new instance of {@code OpDescriptor}.
+	 *
+	 * @param op The operation.
+	 * @throws IllegalArgumentException If the operation is a {@link DescribableOp} whose descriptor is null.
+	 */
+	OpDescriptor(final @NonNull BufferedImageOp op) {
+		type = op.getClass();
+
+		if (type == AlphaOp.class) {
+			value = Float.floatToIntBits(((AlphaOp) op).getFactor());
+		} else if (type == BrightnessOp.class) {
+			value = Float.floatToIntBits(((BrightnessOp) op).getFactor());
+		} else if (type == RecolorOp.class) {
+			value = ((RecolorOp) op).getRgb();
+		} else if (type == SequentialOp.class) {
+			value = op;
+		} else if (op instanceof DescribableOp) {
+			value = ((DescribableOp) op).getDescriptor();
+
+			if (value == null) {
+				throw new IllegalArgumentException("The descriptor of " + type.getSimpleName() + " cannot be null.");
+			}
+		} else {
+			value = null;
+		}
+
+		this.op = value == null ? op : null;
+		hashCode = value == null ? System.identityHashCode(op) : 31 * type.hashCode() + value.hashCode();
+	}
+
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (!(object instanceof OpDescriptor)) {
+			return false;
+		}
+
+		final var other = (OpDescriptor) object;
+		if (hashCode != other.hashCode || type != other.type) {
+			return false;
+		}
+
+		if (op != null || other.op != null) {
+			return op == other.op;
+		}
+
+		return value.equals(other.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -0,0 +1,150 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.NonNull;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * An image operation which transforms each pixel independently of every
+ * other pixel, such as a change of color, brightness, or alpha.
+ *
+ * Pixels are transformed as packed, non-premultiplied ARGB ints. When
+ * consecutive point operations are part of a {@link SequentialOp}, they are
+ * fused, and every pixel is passed through all of them in a single pass over
+ * the image.
+ *
+ * A {@code SequentialOp} compares subclasses by their identity, unless they
+ * implement {@link DescribableOp}, so an instance should be reused wherever
+ * the same effect is applied. {@link #filterRGB(int)} must be thread-safe, as
+ * it may be called by several threads at once.
+ */
+public abstract class PointOp implements BufferedImageOp {
+	/**
+	 * Transforms a pixel.
+	 *
+	 * @param argb The pixel, in non-premultiplied ARGB.
+	 * @return The transformed pixel, in non-premultiplied ARGB.
+	 */
+	public abstract int filterRGB(final int argb);
+
+	/**
+	 * Applies the operation to an image.
+	 *
+	 * @param source An image, which isn't modified.
+	 * @param destination An image of the same size as the source, into which the result is written, or null.
+	 * @return The destination, or a new image if the destination was null.
+	 */
+	@Override
+	public BufferedImage filter(final @NonNull BufferedImage source, BufferedImage destination) {
+		if (destination == null) {
+			destination = createCompatibleDestImage(source, null);
+		} else if (destination.getWidth() != source.getWidth() || destination.getHeight() != source.getHeight()) {
+			throw new IllegalArgumentException("The destination must be the same size as the source.");
+		}
+
+		return filter(new PointOp[] { this }, 0, 1, source, destination);
+	}
+
+	/**
+	 * Applies a run of point operations to an image, in a single pass.
+	 *
+	 * @param ops The operations.
+	 * @param from Index of the first operation of the run.
+	 * @param to Index after the last operation of the run.
+	 * @param source An image, which is only modified if it is also the destination.
+	 * @param destination An image, of the same size as the source, into which the result is written.
+	 * @return The destination.
+	 */
+	static BufferedImage filter(final PointOp[] ops, final int from, final int to, final BufferedImage source, final BufferedImage destination) {
+		final int width = source.getWidth();
+		final int height = source.getHeight();
+
+		var destinationPixels = getPixels(destination);
+		final boolean writeBack = destinationPixels == null;
+		if (writeBack) {
+			destinationPixels = new int[width * height];
+		}
+
+		var sourcePixels = getPixels(source);
+		if (sourcePixels == null) {
+			sourcePixels = source.getRGB(0, 0, width, height, destinationPixels, 0, width);
+		}
+
+		for (int i = 0 ; i < destinationPixels.length ; i++) {
+			int argb = sourcePixels[i];
+
+			for (int op = from ; op < to ; op++) {
+				argb = ops[op].filterRGB(argb);
+			}
+
+			destinationPixels[i] = argb;
+		}
+
+		if (writeBack) {
+			destination.setRGB(0, 0, width, height, destinationPixels, 0, width);
+		}
+
+		return destination;
+	}
+
+	/**
+	 * Retrieves the pixel array of an image, if its pixels are stored as
+	 * packed, non-premultiplied ARGB ints, in row-major order, without any
+	 * padding.
+	 *
+	 * @param image The image.
+	 * @return The pixels, or null if they aren't stored in this way.
+	 */
+	static int[] getPixels(final BufferedImage image) {
+		if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+			return null;
+		}
+
+		final var raster = image.getRaster();
+		final var sampleModel = raster.getSampleModel();
+		final var dataBuffer = raster.getDataBuffer();
+
+		if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0 || dataBuffer.getOffset() != 0) {
+			return null;
+		}
+
+		if (!(sampleModel instanceof SinglePixelPackedSampleModel) || ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride() != image.getWidth()) {
+			return null;
+		}
+
+		final var pixels = ((DataBufferInt) dataBuffer).getData();
+		return pixels.length == image.getWidth() * image.getHeight() ? pixels : null;
+	}
+
+	@Override
+	public BufferedImage createCompatibleDestImage(final @NonNull BufferedImage source, final ColorModel destinationColorModel) {
+		return new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+	}
+
+	@Override
+	public Rectangle2D getBounds2D(final @NonNull BufferedImage source) {
+		return new Rectangle(0, 0, source.getWidth(), source.getHeight());
+	}
+
+	@Override
+	public Point2D getPoint2D(final @NonNull Point2D sourcePoint, Point2D destinationPoint) {
+		if (destinationPoint == null) {
+			destinationPoint = new Point2D.Double();
+		}
+
+		destinationPoint.setLocation(sourcePoint);
+		return destinationPoint;
+	}
+
+	@Override
+	public RenderingHints getRenderingHints() {
+		return null;
+	}
+}
@@ -0,0 +1,31 @@
+package com.valkryst.VTerminal.image;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.awt.*;
+
+/**
+ * Replaces the color of each pixel, without changing its alpha.
+ *
+ * As glyphs are drawn in a single color, this changes the color of a glyph
+ * while keeping its antialiased edges.
+ */
+public final class RecolorOp extends PointOp {
+	/** The new color, in RGB. */
+	@Getter private final int rgb;
+
+	/**
+	 * Constructs a new instance of {@code RecolorOp}.
+	 *
+	 * @param color The new color. Its alpha is ignored.
+	 */
+	public RecolorOp(final @NonNull Color color) {
+		rgb = color.getRGB() & 0x00FFFFFF;
+	}
+
+	@Override
+	public int filterRGB(final int argb) {
+		return (argb & 0xFF000000) | rgb;
+	}
+}
@@ -1,7 +1,6 @@
 package com.valkryst.VTerminal.image;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Interner;
 import lombok.NonNull;
 
 import java.awt.*;
@@ -13,14 +12,50 @@ import java.awt.image.ColorModel;
 import java.awt.image.ImagingOpException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * A sequence of image operations, which are applied one after another.
+ *
+ * Sequences are compared by value, so equivalent sequences share their cached
+ * glyphs. Two sequences are equal when each pair of their operations, in
+ * order, is equal as described by an {@link OpDescriptor}. The library's own
+ * operations, and any {@link DescribableOp}, are compared by their
+ * parameters.
+ *
+ * Any other operation, such as a filter of another library, an
+ * {@link AnimatedOp}, or a subclass of {@link PointOp}, is compared by its
+ * identity, so a sequence of such operations is only equal to sequences which
+ * share the same instances. When they're constructed anew for each use, the
+ * sequence should be given a key with {@link #keyed(Object, BufferedImageOp...)}, and is then
+ * equal to every sequence with an equal key.
+ *
+ * {@link #of(BufferedImageOp...)} returns a canonical instance of each
+ * sequence, so programs which construct the same effect for many tiles, or
+ * on every frame, share one instance of it.
+ */
 public class SequentialOp implements BufferedImageOp {
-	private final List<BufferedImageOp> bufferedImageOps = new ArrayList<>();
+	/** Canonical instances, which are discarded once they're no longer used. */
+	private static final Interner<SequentialOp> INTERNER = Interner.newWeakInterner();
 
-	private final Cache<Integer, BufferedImage> filteredImageCache;
+	/**
+	 * Image, per thread, into which runs of point operations are written when
+	 * their result is only read by the next operation.
+	 */
+	private static final ThreadLocal<BufferedImage> SCRATCH_IMAGE = new ThreadLocal<>();
+
+	/** Operations of the sequence, in the order in which they're applied. */
+	private final List<BufferedImageOp> bufferedImageOps;
+	/** Each operation which is a point operation, at the same index as in {@link #bufferedImageOps}, or null. */
+	private final PointOp[] pointOps;
+
+	/** Key which identifies the sequence in place of its operations, or null. */
+	private final Object key;
+	/** Descriptor of each operation, or null for a null operation. */
+	private final List<OpDescriptor> descriptors;
+	/** Precomputed hash code. */
+	private final int hashCode;
 
 	/**
 	 * Constructs a new instance of {@code SequentialOp}.
@@ -28,13 +63,90 @@ public class SequentialOp implements BufferedImageOp {
 	 * @param ops One or more operations to add to the sequence.
 	 */
 	public SequentialOp(final @NonNull BufferedImageOp ... ops) {
-		bufferedImageOps.addAll(Arrays.asList(ops));
+		this(null, ops);
+	}
+
+	/**
+	 * Constructs a new instance of {@code SequentialOp}.
+	 *
+	 * @param key Key which identifies the sequence in place of its operations, or null.
+	 * @param ops The operations of the sequence.
+	 */
+	private SequentialOp(final Object key, final BufferedImageOp[] ops) {
+		bufferedImageOps = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(ops)));
+
+		pointOps = new PointOp[ops.length];
+		for (int i = 0 ; i < ops.length ; i++) {
+			if (ops[i] instanceof PointOp) {
+				pointOps[i] = (PointOp) ops[i];
+			}
+		}
+
+		final var descriptors = new ArrayList<OpDescriptor>(ops.length);
+		for (final var op : ops) {
+			descriptors.add(op == null ? null : new OpDescriptor(op));
+		}
+
+		this.key = key;
+		this.descriptors = descriptors;
+		hashCode = key == null ? descriptors.hashCode() : key.hashCode();
+	}
+
+	/**
+	 * Determines whether the sequence can be applied by several threads at
+	 * once. This is only known when every operation is a {@link PointOp}.
+	 *
+	 * @return Whether the sequence is thread-safe.
+	 */
+	public boolean isThreadSafe() {
+		for (final var pointOp : pointOps) {
+			if (pointOp == null) {
+				return false;
+			}
+		}
 
-		filteredImageCache = Caffeine.newBuilder()
-								 	 .initialCapacity(0)
-									 .maximumSize(2_500)
-									 .expireAfterAccess(5, TimeUnit.MINUTES)
-									 .build();
+		return true;
+	}
+
+	/**
+	 * Retrieves the canonical instance of a sequence of operations.
+	 *
+	 * @param ops One or more operations to add to the sequence.
+	 * @return The canonical instance, which is shared by every equal sequence.
+	 */
+	public static SequentialOp of(final @NonNull BufferedImageOp ... ops) {
+		return new SequentialOp(ops).intern();
+	}
+
+	/**
+	 * Retrieves the canonical instance of a sequence of operations, which is
+	 * identified by a key in place of its operations, and is equal to every
+	 * sequence with an equal key.
+	 *
+	 * @param key An immutable value, which implements {@code equals} and {@code hashCode}, and which must only be given to sequences that produce the same result for every image.
+	 * @param ops One or more operations to add to the sequence.
+	 * @return The canonical instance, which is shared by every sequence with an equal key.
+	 */
+	public static SequentialOp keyed(final @NonNull Object key, final @NonNull BufferedImageOp ... ops) {
+		return new SequentialOp(key, ops).intern();
+	}
+
+	/**
+	 * Retrieves the canonical instance of this sequence.
+	 *
+	 * @return The canonical instance, which is shared by every equal sequence.
+	 */
+	public SequentialOp intern() {
+		return INTERNER.intern(this);
+	}
+
+	/**
+	 * Retrieves the operations of the sequence.
+	 *
+	 * @return The operations, in the order in which they're applied.
+	 */
+	public List<BufferedImageOp> getBufferedImageOps() {
+		return bufferedImageOps;
 	}
 
 	@Override
@@ -47,32 +159,116 @@ public class SequentialOp implements BufferedImageOp {
 		);
 	}
 
+	/**
+	 * Applies each operation of the sequence, in order, to an image.
+	 *
+	 * Each run of consecutive {@link PointOp}s is fused into a single pass
+	 * over the image, which is written in place whenever the image was
+	 * created by an earlier operation. Any other operation is applied as an
+	 * opaque stage, which creates its own destination.
+	 *
+	 * The results of this method aren't cached, but a font caches each glyph
+	 * which it filters.
+	 *
+	 * @param source An image, which isn't modified.
+	 * @param destination Ignored, as each operation creates its own destination.
+	 * @return A new image.
+	 */
 	@Override
 	public BufferedImage filter(final @NonNull BufferedImage source, BufferedImage destination) {
-		destination = filteredImageCache.getIfPresent(Objects.hash(filteredImageCache));
-
-		if (destination == null) {
-			destination = createCompatibleDestImage(source, null);
-		} else {
-			return destination;
+		if (bufferedImageOps.isEmpty()) {
+			return createCompatibleDestImage(source, null);
 		}
 
-		for (final BufferedImageOp imageOp : bufferedImageOps) {
-			var temp = createCompatibleDestImage(destination, null);
-			temp = imageOp.filter(destination, temp);
+		/*
+		 * A BufferedImageOp never modifies its source, so each operation can
+		 * read the previous result directly, and write to a destination which
+		 * it creates, without first copying any image.
+		 */
+		BufferedImage scratchImage = null;
+		destination = source;
 
-			if (source.getWidth() != temp.getWidth()) {
-				throw new ImagingOpException("BufferedImageOps of a SequentialOp mustn't change the image dimensions, but + " + imageOp.getClass().getSimpleName() + " changed the width.");
-			} else if (source.getHeight() != temp.getHeight()) {
-				throw new ImagingOpException("BufferedImageOps of a SequentialOp mustn't change the image dimensions, but + " + imageOp.getClass().getSimpleName() + " changed the height.");
+		int index = 0;
+		while (index < pointOps.length) {
+			if (pointOps[index] == null) {
+				destination = filterOpaque(bufferedImageOps.get(index), source, destination);
+				index++;
+				continue;
 			}
 
-			destination = temp;
+			int end = index + 1;
+			while (end < pointOps.length && pointOps[end] != null) {
+				end++;
+			}
+
+			final boolean isLastRun = end == pointOps.length;
+			final boolean isOwned = destination != source && destination != scratchImage;
+
+			final BufferedImage runDestination;
+			if (isOwned && PointOp.getPixels(destination) != null || destination == scratchImage && !isLastRun) {
+				runDestination = destination;
+			} else if (isLastRun) {
+				runDestination = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			} else {
+				scratchImage = getScratchImage(source);
+				runDestination = scratchImage;
+			}
+
+			destination = PointOp.filter(pointOps, index, end, destination, runDestination);
+			index = end;
+		}
+
+		// An opaque operation may have returned its own source.
+		if (destination == source || destination == scratchImage) {
+			destination = createCompatibleDestImage(destination, null);
 		}
 
 		return destination;
 	}
 
+	/**
+	 * Applies an operation, which isn't a point operation, to an image.
+	 *
+	 * @param imageOp The operation.
+	 * @param source The image to which the sequence is being applied.
+	 * @param image The result of the previous operation.
+	 * @return The result of the operation.
+	 * @throws ImagingOpException If the operation changes the image dimensions.
+	 */
+	private static BufferedImage filterOpaque(final BufferedImageOp imageOp, final BufferedImage source, final BufferedImage image) {
+		final var temp = imageOp.filter(image, null);
+
+		if (source.getWidth() != temp.getWidth()) {
+			throw new ImagingOpException("BufferedImageOps of a SequentialOp mustn't change the image dimensions, but + " + imageOp.getClass().getSimpleName() + " changed the width.");
+		} else if (source.getHeight() != temp.getHeight()) {
+			throw new ImagingOpException("BufferedImageOps of a SequentialOp mustn't change the image dimensions, but + " + imageOp.getClass().getSimpleName() + " changed the height.");
+		}
+
+		return temp;
+	}
+
+	/**
+	 * Retrieves the calling thread's scratch image, resizing it to the size of
+	 * an image if necessary.
+	 *
+	 * @param source The image.
+	 * @return The scratch image, which is never the given image.
+	 */
+	private static BufferedImage getScratchImage(final BufferedImage source) {
+		var scratchImage = SCRATCH_IMAGE.get();
+
+		// A sequence which is nested within another may be given its scratch image.
+		if (scratchImage == source || scratchImage == null || scratchImage.getWidth() != source.getWidth() || scratchImage.getHeight() != source.getHeight()) {
+			scratchImage = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+
+			if (SCRATCH_IMAGE.get() != source) {
+				SCRATCH_IMAGE.set(scratchImage);
+			}
+		}
+
+		return scratchImage;
+	}
+
 	@Override
 	public Rectangle2D getBounds2D(final @NonNull BufferedImage source) {
 		return new Rectangle(0, 0, source.getWidth(), source.getHeight());
@@ -87,4 +283,31 @@ public class SequentialOp implements BufferedImageOp {
 	public RenderingHints getRenderingHints() {
 		throw new UnsupportedOperationException("This function should not be called. It only exists to satisfy the BufferedImageOp interface.");
 	}
+
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		}
+
+		if (object == null || object.getClass() != getClass()) {
+			return false;
+		}
+
+		final var other = (SequentialOp) object;
+		if (hashCode != other.hashCode) {
+			return false;
+		}
+
+		if (key != null || other.key != null) {
+			return key != null && key.equals(other.key);
+		}
+
+		return descriptors.equals(other.descriptors);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
 }
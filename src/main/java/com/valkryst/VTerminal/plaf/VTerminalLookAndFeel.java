@@ -1,6 +1,8 @@
 package com.valkryst.VTerminal.plaf;
 
+import com.valkryst.VTerminal.font.GlyphKey;
 import com.valkryst.VTerminal.font.VFont;
+import com.valkryst.VTerminal.font.WarmUpListener;
 import com.valkryst.VTerminal.image.SequentialOp;
 import com.valkryst.VTerminal.palette.Palette;
 import lombok.NonNull;
@@ -9,17 +11,40 @@ import lombok.SneakyThrows;
 import javax.swing.*;
 import javax.swing.plaf.basic.BasicLookAndFeel;
 import java.awt.*;
+import java.awt.image.ImageObserver;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 
 public class VTerminalLookAndFeel extends BasicLookAndFeel {
 	/** The singleton instance. */
 	private static VTerminalLookAndFeel instance;
 
+	/**
+	 * System property which, when set to "true", makes the look-and-feel
+	 * warm up its default glyphs in the background when it is installed.
+	 */
+	public static final String WARM_UP_ON_INSTALL_PROPERTY = "VTerminal.warmUpOnInstall";
+
+	/**
+	 * Code points whose glyphs are rasterized by {@link #warmUp(WarmUpListener)}.
+	 * This covers printable ASCII, as well as the Box Drawing and Block
+	 * Elements blocks.
+	 */
+	private static final int[] DEFAULT_WARM_UP_CODE_POINTS = IntStream.concat(
+		IntStream.rangeClosed(0x20, 0x7E),
+		IntStream.rangeClosed(0x2500, 0x259F)
+	).toArray();
+
 	public final VFont vFont;
 
+	/** Warm-up which was started when the look-and-feel was installed, or null. */
+	private CompletableFuture<Void> installWarmUp;
+
 	/**
 	 * Constructs a VTerminalLookAndFeel.
 	 *
@@ -37,6 +62,54 @@ public class VTerminalLookAndFeel extends BasicLookAndFeel {
 		this.vFont = vFont;
 	}
 
+	/**
+	 * Begins rasterizing the default set of glyphs in the background, so
+	 * that the first frames of the program don't have to, if the
+	 * {@link #WARM_UP_ON_INSTALL_PROPERTY} system property is "true".
+	 *
+	 * Otherwise, glyphs are only warmed up by calling
+	 * {@link #warmUp(WarmUpListener)}.
+	 */
+	@Override
+	public void initialize() {
+		super.initialize();
+
+		if (Boolean.getBoolean(WARM_UP_ON_INSTALL_PROPERTY)) {
+			synchronized (this) {
+				cancelInstallWarmUp();
+				installWarmUp = warmUp(null);
+			}
+		}
+	}
+
+	/** Cancels the warm-up which was started when the look-and-feel was installed. */
+	@Override
+	public void uninitialize() {
+		synchronized (this) {
+			cancelInstallWarmUp();
+		}
+
+		super.uninitialize();
+	}
+
+	/**
+	 * Retrieves the warm-up which was started when the look-and-feel was
+	 * installed.
+	 *
+	 * @return The warm-up, or null if none was started or it was cancelled.
+	 */
+	synchronized CompletableFuture<Void> getInstallWarmUp() {
+		return installWarmUp;
+	}
+
+	/** Cancels the warm-up which was started when the look-and-feel was installed, if it's still running. */
+	private void cancelInstallWarmUp() {
+		if (installWarmUp != null) {
+			installWarmUp.cancel(false);
+			installWarmUp = null;
+		}
+	}
+
 	@Override
 	protected void initClassDefaults(final UIDefaults table) {
 		super.initClassDefaults(table);
@@ -113,10 +186,107 @@ public class VTerminalLookAndFeel extends BasicLookAndFeel {
 		return new Dimension((int) width, (int) height);
 	}
 
+	/**
+	 * Draws the image of a glyph onto a graphics context.
+	 *
+	 * @param graphics A graphics context.
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the animation clock, in nanoseconds, at which an animated operation's frame is chosen.
+	 * @param x X-Axis coordinate to draw at.
+	 * @param y Y-Axis coordinate to draw at.
+	 * @param observer Observer to notify when a glyph, rasterized in the background, is ready.
+	 * @param observerX X-Axis coordinate to report to the observer.
+	 * @param observerY Y-Axis coordinate to report to the observer.
+	 * @return Whether the glyph was drawn.
+	 */
+	public boolean drawGlyph(final Graphics graphics, final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos, final int x, final int y, final ImageObserver observer, final int observerX, final int observerY) {
+		return vFont.drawGlyph(graphics, codePoint, argb, sequentialOp, animationNanos, x, y, observer, observerX, observerY);
+	}
+
+	/**
+	 * Blends the image of a glyph over an array of premultiplied ARGB pixels.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the animation clock, in nanoseconds, at which an animated operation's frame is chosen.
+	 * @param destination Destination pixels, in premultiplied ARGB.
+	 * @param offset Index of the destination pixel for the glyph's top-left pixel.
+	 * @param scanline Number of destination pixels between vertically adjacent pixels.
+	 * @param observer Observer to notify when a glyph, rasterized in the background, is ready.
+	 * @param x X-Axis coordinate to report to the observer.
+	 * @param y Y-Axis coordinate to report to the observer.
+	 * @return Whether the glyph was drawn.
+	 */
+	public boolean blendGlyph(final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos, final int[] destination, final int offset, final int scanline, final ImageObserver observer, final int x, final int y) {
+		return vFont.blendGlyph(codePoint, argb, sequentialOp, animationNanos, destination, offset, scanline, observer, x, y);
+	}
+
+	/**
+	 * Retrieves the image of a glyph.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param color Color of the glyph.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @return The image, which may be shared and must not be modified, or null if the glyph cannot be displayed.
+	 * @see VFont#generateImage(int, Color, SequentialOp)
+	 */
 	public Image generateImage(final int codePoint, final Color color, final SequentialOp sequentialOp) {
 		return vFont.generateImage(codePoint, color, sequentialOp);
 	}
 
+	/**
+	 * Determines, without allocating, whether a glyph is known to be cached.
+	 *
+	 * @param codePoint Code point of the glyph.
+	 * @param argb Color of the glyph, in ARGB.
+	 * @param sequentialOp Sequential image operation to apply to the glyph, or null.
+	 * @param animationNanos Time of the animation clock, in nanoseconds, at which an animated operation's frame is chosen.
+	 * @return Whether the glyph is known to be cached.
+	 * @see VFont#isCached(int, int, SequentialOp, long)
+	 */
+	public boolean isCached(final int codePoint, final int argb, final SequentialOp sequentialOp, final long animationNanos) {
+		return vFont.isCached(codePoint, argb, sequentialOp, animationNanos);
+	}
+
+	/**
+	 * Rasterizes and filters a batch of glyphs in parallel.
+	 *
+	 * @param keys Keys of the glyphs.
+	 * @param animationNanos Time of the animation clock, in nanoseconds, at which an animated operation's frame is chosen.
+	 * @return Number of glyphs which were rasterized.
+	 * @see VFont#prefilter(Collection, long)
+	 */
+	public int prefilter(final @NonNull Collection<GlyphKey> keys, final long animationNanos) {
+		return vFont.prefilter(keys, animationNanos);
+	}
+
+	/**
+	 * Rasterizes the glyphs of printable ASCII, and of the Box Drawing and
+	 * Block Elements blocks, on background threads.
+	 *
+	 * @param listener Listener to notify as each glyph is rasterized, or null.
+	 * @return A future which completes when every glyph has been rasterized.
+	 * @see VFont#warmUp(int[], WarmUpListener)
+	 */
+	public CompletableFuture<Void> warmUp(final WarmUpListener listener) {
+		return vFont.warmUp(DEFAULT_WARM_UP_CODE_POINTS, listener);
+	}
+
+	/**
+	 * Rasterizes the glyphs of a set of code points on background threads.
+	 *
+	 * @param codePoints Code points of the glyphs.
+	 * @param listener Listener to notify as each glyph is rasterized, or null.
+	 * @return A future which completes when every glyph has been rasterized.
+	 * @see VFont#warmUp(int[], WarmUpListener)
+	 */
+	public CompletableFuture<Void> warmUp(final int @NonNull [] codePoints, final WarmUpListener listener) {
+		return vFont.warmUp(codePoints, listener);
+	}
+
 	@Override
 	public String getDescription() {
 		return "The VTerminal look and feel.";
@@ -0,0 +1,77 @@
+package com.valkryst.VTerminal.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+public class ActiveRendererTest {
+	@Test
+	public void cannotCreateRendererWithNonPositiveTargetFps() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new ActiveRenderer(new VPanel(10, 10), 0);
+		});
+	}
+
+	@Test
+	public void cannotCreateRendererWithNullPanel() {
+		Assertions.assertThrows(NullPointerException.class, () -> {
+			new ActiveRenderer(null, 60);
+		});
+	}
+
+	@Test
+	public void canAccountFrameTimes() {
+		final var renderer = new ActiveRenderer(new VPanel(10, 10), 60);
+		Assertions.assertEquals(0, renderer.getAverageFps());
+
+		final long frameNanos = TimeUnit.MILLISECONDS.toNanos(20);
+		for (int i = 1 ; i <= 10 ; i++) {
+			renderer.recordFrame(i * frameNanos, i * frameNanos + 1_000);
+		}
+
+		Assertions.assertEquals(10, renderer.getFrameCount());
+		Assertions.assertEquals(frameNanos, renderer.getLastFrameNanos());
+		Assertions.assertEquals(frameNanos, renderer.getAverageFrameNanos());
+		Assertions.assertEquals(1_000, renderer.getLastRenderNanos());
+		Assertions.assertEquals(50, renderer.getAverageFps(), 0.001);
+	}
+
+	@Test
+	public void canResizePanelWithCanvas() throws Exception {
+		final var panel = new VPanel(10, 10);
+		final var renderer = new ActiveRenderer(panel, 60);
+		renderer.getCanvas().setSize(120, 80);
+
+		// The panel is resized by a component event, on the event dispatch thread.
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (panel.getWidth() != 120 && System.nanoTime() < deadline) {
+			SwingUtilities.invokeAndWait(() -> {});
+		}
+
+		Assertions.assertEquals(120, panel.getWidth());
+		Assertions.assertEquals(80, panel.getHeight());
+	}
+
+	@Test
+	public void canStartAndStopRenderer() throws InterruptedException {
+		final var renderer = new ActiveRenderer(new VPanel(10, 10), 200);
+		renderer.start();
+		Assertions.assertTrue(renderer.isRunning());
+
+		// Frames are paced even while the canvas isn't displayable.
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (renderer.getFrameCount() < 5 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		renderer.stop();
+		Assertions.assertFalse(renderer.isRunning());
+		Assertions.assertTrue(renderer.getFrameCount() >= 5);
+
+		final long frameCount = renderer.getFrameCount();
+		Thread.sleep(50);
+		Assertions.assertEquals(frameCount, renderer.getFrameCount());
+	}
+}
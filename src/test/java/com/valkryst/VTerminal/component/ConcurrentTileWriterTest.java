@@ -0,0 +1,149 @@
+package com.valkryst.VTerminal.component;
+
+import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentTileWriterTest {
+	@Test
+	public void canApplyBatchesInOrderWhenPainting() throws Exception {
+		final var panel = new VPanel(4, 4);
+		final var writer = panel.getConcurrentTileWriter();
+
+		final var op = new SequentialOp(new GaussianFilter());
+		writer.createBatch()
+			  .setCodePointAt(1, 2, 'A')
+			  .setBackgroundAt(1, 2, Color.RED)
+			  .setForegroundAt(1, 2, 0xFF00FF00)
+			  .setSequentialImageOpAt(1, 2, op)
+			  .submit();
+		writer.setCodePointAt(1, 2, 'B');
+
+		SwingUtilities.invokeAndWait(() -> paint(panel));
+		Assertions.assertFalse(writer.hasQueuedBatches());
+		Assertions.assertEquals('B', getCodePoints(panel)[2 * 4 + 1]);
+		Assertions.assertEquals(Color.RED.getRGB(), getIntArray(panel, "backgroundColors")[2 * 4 + 1]);
+		Assertions.assertEquals(0xFF00FF00, getIntArray(panel, "foregroundColors")[2 * 4 + 1]);
+	}
+
+	@Test
+	public void canApplyBatchesOnTheEventDispatchThread() throws Exception {
+		final var panel = new VPanel(4, 4);
+		panel.getConcurrentTileWriter().setCodePointAt(3, 3, 'C');
+
+		// Wait for the request which was posted when the batch was submitted.
+		SwingUtilities.invokeAndWait(() -> {});
+
+		Assertions.assertFalse(panel.getConcurrentTileWriter().hasQueuedBatches());
+		Assertions.assertEquals('C', getCodePoints(panel)[3 * 4 + 3]);
+	}
+
+	@Test
+	public void cannotRecordChangeOutsideThePanel() {
+		final var batch = new VPanel(4, 4).getConcurrentTileWriter().createBatch();
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> {
+			batch.setCodePointAt(4, 0, 'A');
+		});
+	}
+
+	@Test
+	public void cannotChangeSubmittedBatch() {
+		final var batch = new VPanel(4, 4).getConcurrentTileWriter().createBatch();
+		batch.setCodePointAt(0, 0, 'A').submit();
+
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			batch.setCodePointAt(0, 0, 'B');
+		});
+
+		Assertions.assertThrows(IllegalStateException.class, batch::submit);
+	}
+
+	@Test
+	public void canPaintWithoutTearingBatches() throws Exception {
+		final int width = 16;
+		final int height = 8;
+		final var panel = new VPanel(width, height);
+		final var writer = panel.getConcurrentTileWriter();
+
+		/*
+		 * Each producer repeatedly fills the whole panel with one code point
+		 * per batch, so every paint must show a single code point.
+		 */
+		final var producers = new Thread[4];
+		final var start = new CountDownLatch(1);
+		for (int i = 0 ; i < producers.length ; i++) {
+			final int producer = i;
+			producers[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (final InterruptedException e) {
+					return;
+				}
+
+				for (int round = 0 ; round < 200 ; round++) {
+					final var batch = writer.createBatch();
+					final int codePoint = 'A' + (producer * 200 + round) % 26;
+
+					for (int y = 0 ; y < height ; y++) {
+						for (int x = 0 ; x < width ; x++) {
+							batch.setCodePointAt(x, y, codePoint);
+						}
+					}
+
+					batch.submit();
+				}
+			});
+			producers[i].start();
+		}
+
+		start.countDown();
+
+		boolean producing = true;
+		while (producing) {
+			producing = false;
+			for (final var producer : producers) {
+				producing |= producer.isAlive();
+			}
+
+			final var codePoints = new int[width * height];
+			SwingUtilities.invokeAndWait(() -> {
+				paint(panel);
+				System.arraycopy(getCodePoints(panel), 0, codePoints, 0, codePoints.length);
+			});
+
+			for (final int codePoint : codePoints) {
+				Assertions.assertEquals(codePoints[0], codePoint);
+			}
+		}
+	}
+
+	private static void paint(final VPanel panel) {
+		panel.setSize(64, 64);
+
+		final var image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, 64, 64);
+		panel.paintComponent(graphics);
+		graphics.dispose();
+	}
+
+	private static int[] getCodePoints(final VPanel panel) {
+		return getIntArray(panel, "codePoints");
+	}
+
+	private static int[] getIntArray(final VPanel panel, final String fieldName) {
+		try {
+			final var field = VPanel.class.getDeclaredField(fieldName);
+			field.setAccessible(true);
+			return (int[]) field.get(panel);
+		} catch (final NoSuchFieldException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
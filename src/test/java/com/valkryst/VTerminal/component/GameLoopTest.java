@@ -0,0 +1,142 @@
+package com.valkryst.VTerminal.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+public class GameLoopTest {
+	@Test
+	public void cannotCreateLoopWithNonPositiveUpdatesPerSecond() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new GameLoop(new VPanel(10, 10), 0, tick -> {});
+		});
+	}
+
+	@Test
+	public void cannotCreateLoopWithNullPanel() {
+		Assertions.assertThrows(NullPointerException.class, () -> {
+			new GameLoop(null, 60, tick -> {});
+		});
+	}
+
+	@Test
+	public void cannotCreateLoopWithNullListener() {
+		Assertions.assertThrows(NullPointerException.class, () -> {
+			new GameLoop(new VPanel(10, 10), 60, null);
+		});
+	}
+
+	@Test
+	public void cannotSetNegativeMaxFrameSkip() {
+		final var loop = new GameLoop(new VPanel(10, 10), 60, tick -> {});
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			loop.setMaxFrameSkip(-1);
+		});
+	}
+
+	@Test
+	public void canRunUpdatesInOrder() throws InterruptedException {
+		final var ticks = Collections.synchronizedList(new ArrayList<Long>());
+		final var loop = new GameLoop(new VPanel(10, 10), 200, ticks::add);
+
+		loop.start();
+		Assertions.assertTrue(loop.isRunning());
+		awaitCondition(() -> loop.getUpdateCount() >= 20);
+		loop.stop();
+		Assertions.assertFalse(loop.isRunning());
+
+		synchronized (ticks) {
+			for (int i = 0 ; i < ticks.size() ; i++) {
+				Assertions.assertEquals(i, ticks.get(i));
+			}
+		}
+
+		Assertions.assertEquals(ticks.size(), loop.getUpdateCount());
+		Assertions.assertTrue(loop.getAverageUpdateNanos() > 0);
+	}
+
+	@Test
+	public void canRenderOnlyWhenThePanelIsDirty() throws Exception {
+		final var panel = new VPanel(10, 10);
+		final var loop = new GameLoop(panel, 200, tick -> {
+			if (tick == 5) {
+				panel.setCodePointAt(0, 0, 'A');
+			}
+		});
+
+		loop.start();
+		awaitCondition(() -> loop.getUpdateCount() >= 20);
+		loop.stop();
+
+		// Wait for any render request which is still pending.
+		SwingUtilities.invokeAndWait(() -> {});
+
+		Assertions.assertEquals(1, loop.getRenderCount());
+		Assertions.assertFalse(panel.isDirty());
+	}
+
+	@Test
+	public void canSkipUpdatesWhenFallingBehind() throws InterruptedException {
+		final var loop = new GameLoop(new VPanel(10, 10), 1000, tick -> {
+			if (tick == 0) {
+				try {
+					Thread.sleep(50);
+				} catch (final InterruptedException ignored) {}
+			}
+		});
+		loop.setMaxFrameSkip(2);
+
+		loop.start();
+		awaitCondition(() -> loop.getUpdateCount() >= 10);
+		loop.stop();
+
+		// The first update overran by ~50 steps, but only 2 may be caught up.
+		Assertions.assertTrue(loop.getSkippedUpdateCount() >= 40);
+	}
+
+	@Test
+	public void canStopWhenAnUpdateThrows() throws InterruptedException {
+		final var exception = new IllegalStateException("Update failed.");
+		final var loop = new GameLoop(new VPanel(10, 10), 200, tick -> {
+			if (tick == 3) {
+				throw exception;
+			}
+		});
+
+		final var reportedException = new AtomicReference<Throwable>();
+		final var defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reportedException.set(e));
+
+		try {
+			loop.start();
+			awaitCondition(() -> !loop.isRunning());
+
+			Assertions.assertSame(exception, reportedException.get());
+			Assertions.assertEquals(3, loop.getUpdateCount());
+
+			// The loop can be restarted without first being stopped.
+			reportedException.set(null);
+			loop.start();
+			Assertions.assertTrue(loop.isRunning());
+			awaitCondition(() -> reportedException.get() != null);
+			Assertions.assertEquals(6, loop.getUpdateCount());
+			loop.stop();
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+		}
+	}
+
+	private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			Assertions.assertTrue(System.nanoTime() < deadline, "The condition was not met within 10 seconds.");
+			Thread.sleep(5);
+		}
+	}
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import javax.swing.*;
 import java.awt.*;
 
 public class VFrameTest {
@@ -191,6 +192,36 @@ public class VFrameTest {
 		});
 	}
 
+	@Test
+	public void canStartAndStopActiveRendering() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var frame = new VFrame(10, 10);
+			final var renderer = frame.startActiveRendering(60);
+			Assertions.assertSame(renderer, frame.getActiveRenderer());
+			Assertions.assertTrue(renderer.isRunning());
+
+			Assertions.assertThrows(IllegalStateException.class, () -> {
+				frame.startActiveRendering(60);
+			});
+
+			frame.stopActiveRendering();
+			Assertions.assertNull(frame.getActiveRenderer());
+			Assertions.assertFalse(renderer.isRunning());
+			Assertions.assertSame(frame.getContentPane(), frame.getRootPane().getContentPane());
+		});
+	}
+
+	@Test
+	public void cannotStartOrStopActiveRenderingOffTheEventDispatchThread() {
+		final var frame = new VFrame(10, 10);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			frame.startActiveRendering(60);
+		});
+
+		Assertions.assertThrows(IllegalStateException.class, frame::stopActiveRendering);
+	}
+
 	@Test
 	public void cannotUseTheSetUndecoratedMethod() {
 		final var frame = new VFrame(10, 10);
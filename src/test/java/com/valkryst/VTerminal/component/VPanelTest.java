@@ -1,13 +1,37 @@
 package com.valkryst.VTerminal.component;
 
+import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.image.AlphaOp;
+import com.valkryst.VTerminal.image.AnimatedOp;
+import com.valkryst.VTerminal.image.RecolorOp;
 import com.valkryst.VTerminal.image.SequentialOp;
+import com.valkryst.VTerminal.plaf.VTerminalLookAndFeel;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
 
 public class VPanelTest {
+	/**
+	 * Maximum number of bytes which may be allocated when painting an 80x24
+	 * tile frame whose glyphs are all cached. This covers the graphics
+	 * context which Swing creates per paint, but is about one byte per tile.
+	 */
+	private static final long MAX_BYTES_ALLOCATED_PER_FRAME = 2048;
+
 	@Test
 	public void canCreatePanel() throws NoSuchFieldException, IllegalAccessException {
 		final int panelWidth = 10;
@@ -27,30 +51,24 @@ public class VPanelTest {
 		foregroundColorsField.setAccessible(true);
 		sequentialImageOpsField.setAccessible(true);
 
-		final var codePoints = (int[][]) codePointsField.get(panel);
-		Assertions.assertEquals(panelHeight, codePoints.length);
-		Assertions.assertEquals(panelWidth, codePoints[0].length);
+		final var codePoints = (int[]) codePointsField.get(panel);
+		Assertions.assertEquals(panelWidth * panelHeight, codePoints.length);
 
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
-		Assertions.assertEquals(panelHeight, backgroundColors.length);
-		Assertions.assertEquals(panelWidth, backgroundColors[0].length);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
+		Assertions.assertEquals(panelWidth * panelHeight, backgroundColors.length);
 
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
-		Assertions.assertEquals(panelHeight, foregroundColors.length);
-		Assertions.assertEquals(panelWidth, foregroundColors[0].length);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
+		Assertions.assertEquals(panelWidth * panelHeight, foregroundColors.length);
 
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
-		Assertions.assertEquals(panelHeight, sequentialImageOps.length);
-		Assertions.assertEquals(panelWidth, sequentialImageOps[0].length);
+		Assertions.assertNull(sequentialImageOpsField.get(panel));
 
 		final var panelBackgroundColor = panel.getBackground();
 		final var panelForegroundColor = panel.getForeground();
 		for (int y = 0 ; y < panelHeight ; y++) {
 			for (int x = 0 ; x < panelWidth ; x++) {
-				Assertions.assertEquals(' ', codePoints[y][x]);
-				Assertions.assertEquals(panelBackgroundColor, backgroundColors[y][x]);
-				Assertions.assertEquals(panelForegroundColor, foregroundColors[y][x]);
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertEquals(' ', codePoints[y * panelWidth + x]);
+				Assertions.assertEquals(panelBackgroundColor.getRGB(), backgroundColors[y * panelWidth + x]);
+				Assertions.assertEquals(panelForegroundColor.getRGB(), foregroundColors[y * panelWidth + x]);
 			}
 		}
 	}
@@ -76,11 +94,11 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(Color.MAGENTA, backgroundColors[y][x]);
+				Assertions.assertEquals(Color.MAGENTA.getRGB(), backgroundColors[y * panel.getWidthInTiles() + x]);
 
 			}
 		}
@@ -100,28 +118,28 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
 		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
 		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
+		final var codePoints = (int[]) codePointsField.get(panel);
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
 		final var sequentialImageOpsField = panel.getClass().getDeclaredField("sequentialImageOps");
 		sequentialImageOpsField.setAccessible(true);
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
+		final var sequentialImageOps = (SequentialOp[]) sequentialImageOpsField.get(panel);
 
 
 		panel.reset();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, backgroundColors[y][x]);
-				Assertions.assertNotEquals('~', codePoints[y][x]);
-				Assertions.assertNotEquals(Color.GREEN, foregroundColors[y][x]);
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA.getRGB(), backgroundColors[y * panel.getWidthInTiles() + x]);
+				Assertions.assertNotEquals('~', codePoints[y * panel.getWidthInTiles() + x]);
+				Assertions.assertNotEquals(Color.GREEN.getRGB(), foregroundColors[y * panel.getWidthInTiles() + x]);
+				Assertions.assertNull(sequentialImageOps[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -137,13 +155,13 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
 
 		panel.resetBackgroundColors();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, backgroundColors[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA.getRGB(), backgroundColors[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -159,13 +177,13 @@ public class VPanelTest {
 
 		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
 		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
+		final var codePoints = (int[]) codePointsField.get(panel);
 
 
 		panel.resetCodePoints();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals('~', codePoints[y][x]);
+				Assertions.assertNotEquals('~', codePoints[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -181,13 +199,13 @@ public class VPanelTest {
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
 
 		panel.resetForegroundColors();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNotEquals(Color.MAGENTA, foregroundColors[y][x]);
+				Assertions.assertNotEquals(Color.MAGENTA.getRGB(), foregroundColors[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -203,13 +221,13 @@ public class VPanelTest {
 
 		final var sequentialImageOpsField = panel.getClass().getDeclaredField("sequentialImageOps");
 		sequentialImageOpsField.setAccessible(true);
-		final var sequentialImageOps = (SequentialOp[][]) sequentialImageOpsField.get(panel);
+		final var sequentialImageOps = (SequentialOp[]) sequentialImageOpsField.get(panel);
 
 
 		panel.resetSequentialImageOps();
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertNull(sequentialImageOps[y][x]);
+				Assertions.assertNull(sequentialImageOps[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -221,13 +239,13 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
 		panel.setBackground(null);
 		final var defaultColor = UIManager.getColor("Panel.background");
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(defaultColor, backgroundColors[y][x]);
+				Assertions.assertEquals(defaultColor.getRGB(), backgroundColors[y * panel.getWidthInTiles() + x]);
 
 			}
 		}
@@ -240,9 +258,9 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
-		Assertions.assertEquals(Color.MAGENTA, backgroundColors[0][0]);
+		Assertions.assertEquals(Color.MAGENTA.getRGB(), backgroundColors[0]);
 	}
 
 	@Test
@@ -252,10 +270,22 @@ public class VPanelTest {
 
 		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
 		backgroundColorsField.setAccessible(true);
-		final var backgroundColors = (Color[][]) backgroundColorsField.get(panel);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
 
 		panel.setBackgroundAt(0, 0, null);
-		Assertions.assertEquals(UIManager.getColor("Panel.background"), backgroundColors[0][0]);
+		Assertions.assertEquals(UIManager.getColor("Panel.background").getRGB(), backgroundColors[0]);
+	}
+
+	@Test
+	public void canSetBackgroundColorAtLocationWithArgb() throws NoSuchFieldException, IllegalAccessException {
+		final var panel = new VPanel(1, 1);
+		panel.setBackgroundAt(0, 0, 0x80FF00FF);
+
+		final var backgroundColorsField = panel.getClass().getDeclaredField("backgroundColors");
+		backgroundColorsField.setAccessible(true);
+		final var backgroundColors = (int[]) backgroundColorsField.get(panel);
+
+		Assertions.assertEquals(0x80FF00FF, backgroundColors[0]);
 	}
 
 	@Test
@@ -272,9 +302,9 @@ public class VPanelTest {
 
 		final var codePointsField = panel.getClass().getDeclaredField("codePoints");
 		codePointsField.setAccessible(true);
-		final var codePoints = (int[][]) codePointsField.get(panel);
+		final var codePoints = (int[]) codePointsField.get(panel);
 
-		Assertions.assertEquals('~', codePoints[0][0]);
+		Assertions.assertEquals('~', codePoints[0]);
 	}
 
 	@Test
@@ -284,6 +314,13 @@ public class VPanelTest {
 		});
 	}
 
+	@Test
+	public void cannotSetCodePointPastTheEndOfARow() {
+		Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> {
+			new VPanel(2, 2).setCodePointAt(2, 0, '~');
+		});
+	}
+
 	@Test
 	public void canSetForegroundColor() throws NoSuchFieldException, IllegalAccessException {
 		final var panel = new VPanel(2, 2);
@@ -291,11 +328,11 @@ public class VPanelTest {
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(Color.MAGENTA, foregroundColors[y][x]);
+				Assertions.assertEquals(Color.MAGENTA.getRGB(), foregroundColors[y * panel.getWidthInTiles() + x]);
 			}
 		}
 	}
@@ -307,13 +344,13 @@ public class VPanelTest {
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
 		panel.setForeground(null);
 		final var defaultColor = UIManager.getColor("Panel.foreground");
 		for (int y = 0 ; y < panel.getHeightInTiles() ; y ++) {
 			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
-				Assertions.assertEquals(defaultColor, foregroundColors[y][x]);
+				Assertions.assertEquals(defaultColor.getRGB(), foregroundColors[y * panel.getWidthInTiles() + x]);
 
 			}
 		}
@@ -326,9 +363,9 @@ public class VPanelTest {
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
-		Assertions.assertEquals(Color.MAGENTA, foregroundColors[0][0]);
+		Assertions.assertEquals(Color.MAGENTA.getRGB(), foregroundColors[0]);
 	}
 
 	@Test
@@ -338,10 +375,22 @@ public class VPanelTest {
 
 		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
 		foregroundColorsField.setAccessible(true);
-		final var foregroundColors = (Color[][]) foregroundColorsField.get(panel);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
 
 		panel.setForegroundAt(0, 0, null);
-		Assertions.assertEquals(UIManager.getColor("Panel.foreground"), foregroundColors[0][0]);
+		Assertions.assertEquals(UIManager.getColor("Panel.foreground").getRGB(), foregroundColors[0]);
+	}
+
+	@Test
+	public void canSetForegroundColorAtLocationWithArgb() throws NoSuchFieldException, IllegalAccessException {
+		final var panel = new VPanel(1, 1);
+		panel.setForegroundAt(0, 0, 0x80FF00FF);
+
+		final var foregroundColorsField = panel.getClass().getDeclaredField("foregroundColors");
+		foregroundColorsField.setAccessible(true);
+		final var foregroundColors = (int[]) foregroundColorsField.get(panel);
+
+		Assertions.assertEquals(0x80FF00FF, foregroundColors[0]);
 	}
 
 	@Test
@@ -350,4 +399,694 @@ public class VPanelTest {
 			new VPanel(1, 1).setForegroundAt(-1, -1, Color.MAGENTA);
 		});
 	}
+
+	@Test
+	public void isCleanAfterCreation() {
+		Assertions.assertFalse(new VPanel(2, 2).isDirty());
+	}
+
+	@Test
+	public void isDirtyAfterChangingATile() {
+		final var panel = new VPanel(2, 2);
+		panel.setCodePointAt(1, 1, '~');
+		Assertions.assertTrue(panel.isDirty());
+	}
+
+	@Test
+	public void isCleanAfterSettingATileToItsCurrentValue() {
+		final var panel = new VPanel(2, 2);
+		panel.setCodePointAt(1, 1, ' ');
+		panel.setBackgroundAt(1, 1, panel.getBackground());
+		panel.setForegroundAt(1, 1, panel.getForeground());
+		panel.setSequentialImageOpAt(1, 1, null);
+		Assertions.assertFalse(panel.isDirty());
+	}
+
+	@Test
+	public void canRepaintDirtyTiles() {
+		final var regions = new ArrayList<Rectangle>();
+		final var panel = new VPanel(10, 10) {
+			@Override
+			public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+				regions.add(new Rectangle(x, y, width, height));
+			}
+		};
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		// Rows 2 and 3 share a span, so they should be merged.
+		panel.setCodePointAt(3, 2, '~');
+		panel.setCodePointAt(5, 2, '~');
+		panel.setCodePointAt(3, 3, '~');
+		panel.setCodePointAt(5, 3, '~');
+		panel.setCodePointAt(7, 8, '~');
+		regions.clear();
+
+		panel.repaintDirty();
+		Assertions.assertFalse(panel.isDirty());
+		Assertions.assertEquals(2, regions.size());
+		Assertions.assertEquals(new Rectangle(3 * tileWidth, 2 * tileHeight, 3 * tileWidth, 2 * tileHeight), regions.get(0));
+		Assertions.assertEquals(new Rectangle(7 * tileWidth, 8 * tileHeight, tileWidth, tileHeight), regions.get(1));
+
+		regions.clear();
+		panel.repaintDirty();
+		Assertions.assertTrue(regions.isEmpty());
+	}
+
+	@Test
+	public void canSwapBackBuffer() throws Exception {
+		final var regions = new ArrayList<Rectangle>();
+		final var panel = new VPanel(10, 10) {
+			@Override
+			public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+				regions.add(new Rectangle(x, y, width, height));
+			}
+		};
+		panel.setCodePointAt(0, 0, 'A');
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		// The back buffer starts as a copy of the panel's tiles.
+		final var backBuffer = panel.getBackBuffer();
+		Assertions.assertEquals('A', backBuffer.getCodePointAt(0, 0));
+
+		backBuffer.setCodePointAt(4, 6, 'B');
+		backBuffer.setForegroundAt(5, 6, Color.RED);
+		Assertions.assertEquals(' ', getCodePoint(panel, 4, 6));
+
+		panel.repaintDirty();
+		regions.clear();
+		panel.swap();
+		Assertions.assertNotSame(backBuffer, panel.getBackBuffer());
+
+		// Wait for the request which was posted by the swap.
+		SwingUtilities.invokeAndWait(() -> {});
+
+		Assertions.assertEquals('B', getCodePoint(panel, 4, 6));
+		Assertions.assertEquals(1, regions.size());
+		Assertions.assertEquals(new Rectangle(4 * tileWidth, 6 * tileHeight, 2 * tileWidth, tileHeight), regions.get(0));
+	}
+
+	@Test
+	public void canRepaintTileWhoseGlyphWasRasterizedInTheBackground() throws Exception {
+		final var regions = new ArrayList<Rectangle>();
+		final var panel = new VPanel(10, 10) {
+			@Override
+			public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+				regions.add(new Rectangle(x, y, width, height));
+			}
+		};
+
+		SwingUtilities.invokeAndWait(regions::clear);
+
+		Assertions.assertFalse(panel.imageUpdate(null, ImageObserver.ALLBITS, 2, 3, 0, 0));
+		Assertions.assertFalse(panel.imageUpdate(null, ImageObserver.ALLBITS, 10, 3, 0, 0));
+		SwingUtilities.invokeAndWait(() -> {});
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		Assertions.assertEquals(List.of(new Rectangle(2 * laf.getTileWidth(), 3 * laf.getTileHeight(), laf.getTileWidth(), laf.getTileHeight())), regions);
+	}
+
+	@Test
+	public void canRepaintOnlyTilesWhoseAnimationFrameChanged() throws Exception {
+		// Ticks of the shared clock are delivered on the event dispatch thread, so they can't interleave with the test.
+		SwingUtilities.invokeAndWait(() -> {
+			final var regions = new ArrayList<Rectangle>();
+			final var panel = new VPanel(10, 10) {
+				@Override
+				public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+					regions.add(new Rectangle(x, y, width, height));
+				}
+			};
+
+			// Four frames of 10ms each, and a static operation which never changes.
+			final var animatedOp = new AnimatedOp(40, TimeUnit.MILLISECONDS, 4, frame -> new SequentialOp(new AlphaOp(1 - frame / 4f)));
+			panel.setCodePointAt(2, 3, 'A');
+			panel.setSequentialImageOpAt(2, 3, animatedOp);
+			panel.setSequentialImageOpAt(7, 8, new SequentialOp(new AlphaOp(0.5f)));
+			panel.addNotify();
+			Assertions.assertTrue(panel.isListeningToAnimationClock());
+
+			final var laf = VTerminalLookAndFeel.getInstance();
+			final int tileWidth = laf.getTileWidth();
+			final int tileHeight = laf.getTileHeight();
+
+			panel.animate(0);
+			panel.repaintDirty();
+			regions.clear();
+
+			// Within the same frame, nothing is repainted.
+			panel.animate(TimeUnit.MILLISECONDS.toNanos(5));
+			Assertions.assertTrue(regions.isEmpty());
+
+			panel.animate(TimeUnit.MILLISECONDS.toNanos(15));
+			Assertions.assertEquals(1, regions.size());
+			Assertions.assertEquals(new Rectangle(2 * tileWidth, 3 * tileHeight, tileWidth, tileHeight), regions.get(0));
+
+			panel.setSequentialImageOpAt(2, 3, null);
+			Assertions.assertFalse(panel.isListeningToAnimationClock());
+			panel.removeNotify();
+		});
+	}
+
+	@Test
+	public void canOnlyListenToAnimationClockWhileDisplayable() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var panel = new VPanel(4, 2);
+			panel.setSequentialImageOpAt(1, 1, new AnimatedOp(40, TimeUnit.MILLISECONDS, 4, frame -> new SequentialOp(new AlphaOp(1 - frame / 4f))));
+			Assertions.assertFalse(panel.isListeningToAnimationClock());
+
+			panel.addNotify();
+			Assertions.assertTrue(panel.isListeningToAnimationClock());
+
+			// A removed panel mustn't be kept alive, or keep the clock ticking.
+			panel.removeNotify();
+			Assertions.assertFalse(panel.isListeningToAnimationClock());
+
+			panel.addNotify();
+			Assertions.assertTrue(panel.isListeningToAnimationClock());
+			panel.removeNotify();
+		});
+	}
+
+	@Test
+	public void canPaintAnimationFrames() throws Exception {
+		SwingUtilities.invokeAndWait(() -> {
+			final var animatedOp = new AnimatedOp(40, TimeUnit.MILLISECONDS, 4, frame -> new SequentialOp(new RecolorOp(new Color(frame * 60, 0, 0))));
+
+			final var animated = new VPanel(4, 2);
+			animated.setRenderMode(RenderMode.SOFTWARE);
+			final var expected = new VPanel(4, 2);
+			expected.setRenderMode(RenderMode.SOFTWARE);
+
+			for (int x = 0 ; x < 4 ; x++) {
+				animated.setCodePointAt(x, 0, 'M');
+				animated.setSequentialImageOpAt(x, 0, animatedOp);
+				expected.setCodePointAt(x, 0, 'M');
+			}
+
+			for (int frame = 0 ; frame < 4 ; frame++) {
+				animated.animate(TimeUnit.MILLISECONDS.toNanos(frame * 10 + 5));
+
+				for (int x = 0 ; x < 4 ; x++) {
+					expected.setSequentialImageOpAt(x, 0, animatedOp.getFrame(frame));
+				}
+
+				assertSimilarPixels(paint(expected), paint(animated));
+			}
+
+			animated.addNotify();
+			Assertions.assertTrue(animated.isListeningToAnimationClock());
+			animated.resetSequentialImageOps();
+			Assertions.assertFalse(animated.isListeningToAnimationClock());
+			animated.removeNotify();
+		});
+	}
+
+	@Test
+	public void canPaintSwappedBuffersWithoutTearing() throws Exception {
+		final int width = 16;
+		final int height = 8;
+		final var panel = new VPanel(width, height);
+
+		// Each frame has a single code point, so every paint must show the pixels of a single code point.
+		final var expectedPixels = new int[26][];
+		for (int i = 0 ; i < expectedPixels.length ; i++) {
+			final var expectedPanel = new VPanel(width, height);
+			for (int y = 0 ; y < height ; y++) {
+				for (int x = 0 ; x < width ; x++) {
+					expectedPanel.setCodePointAt(x, y, 'A' + i);
+				}
+			}
+
+			expectedPixels[i] = paint(expectedPanel);
+		}
+
+		final var producer = new Thread(() -> {
+			for (int frame = 0 ; frame < 2000 ; frame++) {
+				final var buffer = panel.getBackBuffer();
+				for (int y = 0 ; y < height ; y++) {
+					for (int x = 0 ; x < width ; x++) {
+						buffer.setCodePointAt(x, y, 'A' + frame % 26);
+					}
+				}
+
+				panel.swap();
+			}
+		});
+		producer.start();
+
+		while (producer.isAlive()) {
+			final var pixels = new AtomicReference<int[]>();
+			final var codePoint = new AtomicInteger();
+			SwingUtilities.invokeAndWait(() -> {
+				pixels.set(paint(panel));
+				codePoint.set(getCodePoint(panel, 0, 0));
+			});
+
+			// Until the first buffer is shown, the panel is blank.
+			if (codePoint.get() != ' ') {
+				Assertions.assertArrayEquals(expectedPixels[codePoint.get() - 'A'], pixels.get());
+			}
+		}
+
+		producer.join();
+		SwingUtilities.invokeAndWait(() -> {});
+		Assertions.assertEquals('A' + 1999 % 26, getCodePoint(panel, width - 1, height - 1));
+	}
+
+	@Test
+	public void canCreateBackBufferOnTheEventDispatchThread() throws Exception {
+		final var panel = new VPanel(4, 2);
+		panel.setCodePointAt(1, 1, 'A');
+
+		final var eventDispatchThreadBlocked = new CountDownLatch(1);
+		final var unblockEventDispatchThread = new CountDownLatch(1);
+		SwingUtilities.invokeLater(() -> {
+			eventDispatchThreadBlocked.countDown();
+
+			try {
+				unblockEventDispatchThread.await(10, TimeUnit.SECONDS);
+			} catch (final InterruptedException ignored) {}
+		});
+		Assertions.assertTrue(eventDispatchThreadBlocked.await(10, TimeUnit.SECONDS));
+
+		// The back buffer can't be created while the event dispatch thread is busy.
+		final var backBuffer = new AtomicReference<TileBuffer>();
+		final var producer = new Thread(() -> backBuffer.set(panel.getBackBuffer()));
+		producer.start();
+		producer.join(200);
+		Assertions.assertTrue(producer.isAlive());
+
+		unblockEventDispatchThread.countDown();
+		producer.join(10_000);
+		Assertions.assertFalse(producer.isAlive());
+		Assertions.assertEquals('A', backBuffer.get().getCodePointAt(1, 1));
+	}
+
+	@Test
+	public void canPaintInBufferedRenderMode() {
+		final var direct = new VPanel(4, 3);
+		final var buffered = new VPanel(4, 3);
+		buffered.setRenderMode(RenderMode.BUFFERED);
+		Assertions.assertEquals(RenderMode.BUFFERED, buffered.getRenderMode());
+
+		for (final var panel : new VPanel[] { direct, buffered }) {
+			panel.setCodePointAt(1, 1, 'A');
+			panel.setBackgroundAt(2, 1, Color.MAGENTA);
+		}
+		Assertions.assertArrayEquals(paint(direct), paint(buffered));
+
+		// Changes made after the backbuffer was created must also be painted.
+		for (final var panel : new VPanel[] { direct, buffered }) {
+			panel.setCodePointAt(3, 2, 'B');
+			panel.setForegroundAt(3, 2, Color.GREEN);
+		}
+		Assertions.assertArrayEquals(paint(direct), paint(buffered));
+	}
+
+	@Test
+	public void canPaintInSoftwareRenderMode() {
+		final var direct = new VPanel(6, 3);
+		final var software = new VPanel(6, 3);
+		software.setRenderMode(RenderMode.SOFTWARE);
+
+		for (final var panel : new VPanel[] { direct, software }) {
+			panel.setCodePointAt(1, 1, 'A');
+			panel.setCodePointAt(2, 1, 0x2588); // Full Block
+			panel.setBackgroundAt(2, 1, Color.MAGENTA);
+			panel.setForegroundAt(3, 2, new Color(0, 255, 0, 128));
+			panel.setCodePointAt(3, 2, '@');
+			panel.setSequentialImageOpAt(4, 0, new SequentialOp(new GaussianFilter()));
+			panel.setCodePointAt(4, 0, 'W');
+		}
+		assertSimilarPixels(paint(direct), paint(software));
+
+		// Changes made after the backbuffer was created must also be painted.
+		for (final var panel : new VPanel[] { direct, software }) {
+			panel.setCodePointAt(5, 2, 'B');
+			panel.setForegroundAt(5, 2, Color.GREEN);
+		}
+		assertSimilarPixels(paint(direct), paint(software));
+	}
+
+	@Test
+	public void canPaintInParallelRenderMode() {
+		// Enough tiles that the panel is rasterized in concurrent bands.
+		final var direct = new VPanel(40, 30);
+		final var parallel = new VPanel(40, 30);
+		parallel.setRenderMode(RenderMode.PARALLEL);
+
+		final var colors = new Color[] { Color.BLACK, Color.MAGENTA, Color.CYAN, new Color(255, 200, 0, 160) };
+		for (final var panel : new VPanel[] { direct, parallel }) {
+			for (int y = 0 ; y < 30 ; y++) {
+				for (int x = 0 ; x < 40 ; x++) {
+					panel.setCodePointAt(x, y, 0x21 + (x * 7 + y * 13) % 94);
+					panel.setBackgroundAt(x, y, colors[(x + y) % colors.length]);
+					panel.setForegroundAt(x, y, colors[(x * 3 + y + 1) % colors.length]);
+				}
+			}
+
+			panel.setCodePointAt(5, 5, 0x2593); // Dark Shade
+		}
+		assertSimilarPixels(paint(direct), paint(parallel));
+
+		// A small change is rasterized on the calling thread.
+		for (final var panel : new VPanel[] { direct, parallel }) {
+			panel.setCodePointAt(39, 29, 'Z');
+		}
+		assertSimilarPixels(paint(direct), paint(parallel));
+	}
+
+	@Test
+	public void canPrefilterSequentialOpsBeforePainting() {
+		final var filterCount = new AtomicInteger();
+		final var sequentialOp = new SequentialOp(new GaussianFilter() {
+			@Override
+			public BufferedImage filter(final BufferedImage src, final BufferedImage dst) {
+				filterCount.incrementAndGet();
+				return super.filter(src, dst);
+			}
+		});
+
+		final var panel = new VPanel(8, 4);
+		for (int x = 0 ; x < 8 ; x++) {
+			panel.setCodePointAt(x, 0, 'A' + (x % 4));
+			panel.setSequentialImageOpAt(x, 0, sequentialOp);
+		}
+
+		// Duplicate glyphs are only filtered once.
+		panel.prefilterSequentialOps();
+		Assertions.assertEquals(4, filterCount.get());
+
+		paint(panel);
+		Assertions.assertEquals(4, filterCount.get());
+	}
+
+	@Test
+	public void canPrefilterStaleTilesWhenPainting() {
+		final var filterCount = new AtomicInteger();
+		final var sequentialOp = new SequentialOp(new GaussianFilter() {
+			@Override
+			public BufferedImage filter(final BufferedImage src, final BufferedImage dst) {
+				filterCount.incrementAndGet();
+				return super.filter(src, dst);
+			}
+		});
+
+		final var panel = new VPanel(8, 4);
+		panel.setRenderMode(RenderMode.SOFTWARE);
+		paint(panel);
+
+		for (int x = 0 ; x < 8 ; x++) {
+			panel.setCodePointAt(x, 1, 'E' + x);
+			panel.setSequentialImageOpAt(x, 1, sequentialOp);
+		}
+
+		final var direct = new VPanel(8, 4);
+		for (int x = 0 ; x < 8 ; x++) {
+			direct.setCodePointAt(x, 1, 'E' + x);
+			direct.setSequentialImageOpAt(x, 1, sequentialOp);
+		}
+
+		assertSimilarPixels(paint(direct), paint(panel));
+		Assertions.assertEquals(8, filterCount.get());
+	}
+
+	/**
+	 * Asserts that each channel of each pixel differs by no more than 2, as
+	 * Java2D may round blended pixels differently.
+	 *
+	 * @param expected Expected ARGB pixels.
+	 * @param actual Actual ARGB pixels.
+	 */
+	private static void assertSimilarPixels(final int[] expected, final int[] actual) {
+		Assertions.assertEquals(expected.length, actual.length);
+
+		for (int i = 0 ; i < expected.length ; i++) {
+			for (int shift = 0 ; shift < 32 ; shift += 8) {
+				final int expectedChannel = (expected[i] >>> shift) & 0xFF;
+				final int actualChannel = (actual[i] >>> shift) & 0xFF;
+
+				if (Math.abs(expectedChannel - actualChannel) > 2) {
+					Assertions.fail("Pixel " + i + " should be " + Integer.toHexString(expected[i]) + ", but is " + Integer.toHexString(actual[i]) + ".");
+				}
+			}
+		}
+	}
+
+	@Test
+	public void canFillBackgroundRunsWithSingleRectangles() {
+		final var panel = new VPanel(8, 6);
+		panel.setBackground(Color.BLUE);
+
+		// Rows 2 and 3 have identical backgrounds, so they share their rectangles.
+		for (int y = 2 ; y <= 3 ; y++) {
+			for (int x = 3 ; x < 6 ; x++) {
+				panel.setBackgroundAt(x, y, Color.RED);
+			}
+		}
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+		panel.setSize(panel.getWidthInTiles() * tileWidth, panel.getHeightInTiles() * tileHeight);
+
+		final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = Mockito.spy(image.createGraphics());
+		graphics.setClip(0, 0, panel.getWidth(), panel.getHeight());
+		panel.paintComponent(graphics);
+
+		final var expectedPixels = paint(panel);
+		Assertions.assertArrayEquals(expectedPixels, image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+
+		Mockito.verify(graphics).fillRect(0, 0, 8 * tileWidth, 2 * tileHeight);
+		Mockito.verify(graphics).fillRect(0, 2 * tileHeight, 3 * tileWidth, 2 * tileHeight);
+		Mockito.verify(graphics).fillRect(3 * tileWidth, 2 * tileHeight, 3 * tileWidth, 2 * tileHeight);
+		Mockito.verify(graphics).fillRect(6 * tileWidth, 2 * tileHeight, 2 * tileWidth, 2 * tileHeight);
+		Mockito.verify(graphics).fillRect(0, 4 * tileHeight, 8 * tileWidth, 2 * tileHeight);
+		Mockito.verify(graphics, Mockito.times(5)).fillRect(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+	}
+
+	@Test
+	public void canHoldMonitorWhilePainting() throws InterruptedException {
+		final var panel = new VPanel(10, 10);
+		final var image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+
+		final var painter = new Thread(() -> {
+			final var graphics = image.createGraphics();
+			panel.paintComponent(graphics);
+			graphics.dispose();
+		});
+
+		// A paint can't begin while another thread holds the panel's monitor.
+		synchronized (panel) {
+			painter.start();
+			painter.join(200);
+			Assertions.assertEquals(Thread.State.BLOCKED, painter.getState());
+		}
+
+		painter.join(10_000);
+		Assertions.assertFalse(painter.isAlive());
+	}
+
+	@Test
+	public void canRepaintOnlyQueuedChangesOutsideTheClip() throws Exception {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final int tileWidth = laf.getTileWidth();
+		final int tileHeight = laf.getTileHeight();
+
+		final var repaintedRegions = new ArrayList<Rectangle>();
+		final var panel = new VPanel(8, 4) {
+			@Override
+			public void repaint(final long time, final int x, final int y, final int width, final int height) {
+				repaintedRegions.add(new Rectangle(x, y, width, height));
+			}
+		};
+
+		SwingUtilities.invokeAndWait(() -> {
+			panel.setSize(8 * tileWidth, 4 * tileHeight);
+			panel.repaintDirty();
+			repaintedRegions.clear();
+
+			// The changes are applied by the paint, which only covers the top two rows.
+			panel.getConcurrentTileWriter().createBatch()
+										   .setCodePointAt(0, 0, 'A')
+										   .setCodePointAt(5, 1, 'B')
+										   .setCodePointAt(2, 3, 'C')
+										   .submit();
+
+			final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+			final var graphics = image.createGraphics();
+			graphics.setClip(0, 0, panel.getWidth(), 2 * tileHeight);
+			panel.paintComponent(graphics);
+			graphics.dispose();
+		});
+
+		Assertions.assertEquals(List.of(new Rectangle(2 * tileWidth, 3 * tileHeight, tileWidth, tileHeight)), repaintedRegions);
+		Assertions.assertFalse(panel.isDirty());
+	}
+
+	@Test
+	public void canRenderFrameAsItIsPainted() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var panel = new VPanel(4, 2);
+		panel.setSize(4 * laf.getTileWidth(), 2 * laf.getTileHeight());
+		panel.setCodePointAt(0, 0, 'A');
+
+		// Queued changes are applied before the frame is rendered.
+		panel.getConcurrentTileWriter().setCodePointAt(3, 1, 'B');
+
+		final var image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, panel.getWidth(), panel.getHeight());
+		panel.renderFrame(graphics);
+		graphics.dispose();
+
+		Assertions.assertEquals('B', getCodePoint(panel, 3, 1));
+		Assertions.assertArrayEquals(paint(panel), image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+	}
+
+	@Test
+	public void canPaintWarmFramesWithoutAllocatingPerTile() {
+		final var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		final var panel = new VPanel(80, 24);
+		final var op = new SequentialOp(new GaussianFilter());
+		for (int y = 0 ; y < panel.getHeightInTiles() ; y++) {
+			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
+				panel.setCodePointAt(x, y, 0x21 + ((x + y) % 94));
+				panel.setBackgroundAt(x, y, 0xFF000000 | ((x * 37 + y * 11) % 16) * 0x0F0F0F);
+				panel.setForegroundAt(x, y, 0xFF000000 | ((x * 13 + y * 7) % 16) * 0x100F01);
+			}
+		}
+		panel.setCodePointAt(0, 0, 0x2660); // Outside of the font's mask table.
+		panel.setSequentialImageOpAt(1, 0, op);
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var size = new Dimension(panel.getWidthInTiles() * laf.getTileWidth(), panel.getHeightInTiles() * laf.getTileHeight());
+		panel.setSize(size);
+
+		final var image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, size.width, size.height);
+
+		final long allocatedPerFrame = getBytesAllocatedPerFrame(threadBean, frame -> panel.paintComponent(graphics));
+		graphics.dispose();
+
+		// A small, fixed amount of per-frame allocation is allowed, but none per tile.
+		Assertions.assertTrue(allocatedPerFrame <= MAX_BYTES_ALLOCATED_PER_FRAME, allocatedPerFrame + " bytes were allocated per frame.");
+	}
+
+	@Test
+	public void canPrefilterWarmFramesWithoutAllocatingPerTile() {
+		final var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		final var panel = new VPanel(80, 24);
+		panel.setRenderMode(RenderMode.SOFTWARE);
+
+		final var op = new SequentialOp(new AlphaOp(0.5f));
+		for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
+			panel.setSequentialImageOpAt(x, 0, op);
+		}
+
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var size = new Dimension(panel.getWidthInTiles() * laf.getTileWidth(), panel.getHeightInTiles() * laf.getTileHeight());
+		panel.setSize(size);
+
+		final var image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, size.width, size.height);
+
+		/*
+		 * The graphics context which Swing creates per paint varies in size
+		 * with its rendering hints, so frames which change tiles are compared
+		 * with frames which change nothing.
+		 */
+		final long allocatedPerUnchangedFrame = getBytesAllocatedPerFrame(threadBean, frame -> panel.paintComponent(graphics));
+
+		// Every frame changes each tile with an operation, so that its glyph is prefiltered.
+		final long allocatedPerFrame = getBytesAllocatedPerFrame(threadBean, frame -> {
+			for (int x = 0 ; x < panel.getWidthInTiles() ; x++) {
+				panel.setCodePointAt(x, 0, 'A' + (x + frame) % 26);
+			}
+
+			panel.paintComponent(graphics);
+		});
+		graphics.dispose();
+
+		// Less than one byte may be allocated per changed tile.
+		final long extraAllocatedPerFrame = allocatedPerFrame - allocatedPerUnchangedFrame;
+		Assertions.assertTrue(extraAllocatedPerFrame < panel.getWidthInTiles(), extraAllocatedPerFrame + " more bytes were allocated per frame than by a frame which changes nothing.");
+	}
+
+	/**
+	 * Measures the number of bytes which the current thread allocates per
+	 * frame, after warming the glyph cache and giving the JIT a chance to
+	 * compile the paint path.
+	 *
+	 * @param threadBean A thread bean, which measures allocations.
+	 * @param frame Paints a frame, given its index.
+	 * @return The average number of bytes allocated per frame.
+	 */
+	private static long getBytesAllocatedPerFrame(final com.sun.management.ThreadMXBean threadBean, final IntConsumer frame) {
+		for (int i = 0 ; i < 200 ; i++) {
+			frame.accept(i);
+		}
+
+		final int frames = 100;
+		final var threadId = Thread.currentThread().getId();
+		final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0 ; i < frames ; i++) {
+			frame.accept(i);
+		}
+
+		return (threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / frames;
+	}
+
+	/**
+	 * Retrieves the code point of a tile, as the panel currently stores it.
+	 *
+	 * @param panel A panel.
+	 * @param x X-Axis coordinate of the tile.
+	 * @param y Y-Axis coordinate of the tile.
+	 * @return The code point.
+	 */
+	private static int getCodePoint(final VPanel panel, final int x, final int y) {
+		try {
+			final var field = VPanel.class.getDeclaredField("codePoints");
+			field.setAccessible(true);
+			return ((int[]) field.get(panel))[y * panel.getWidthInTiles() + x];
+		} catch (final NoSuchFieldException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Paints every tile of a panel onto an image.
+	 *
+	 * @param panel A panel.
+	 * @return The ARGB pixels of the painted image.
+	 */
+	private static int[] paint(final VPanel panel) {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		final var size = new Dimension(panel.getWidthInTiles() * laf.getTileWidth(), panel.getHeightInTiles() * laf.getTileHeight());
+		panel.setSize(size);
+
+		final var image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		graphics.setClip(0, 0, size.width, size.height);
+		panel.paintComponent(graphics);
+		graphics.dispose();
+
+		return image.getRGB(0, 0, size.width, size.height, null, 0, size.width);
+	}
 }
@@ -0,0 +1,183 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+public class GlyphAtlasTest {
+	@Test
+	public void canCreateAtlas() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+		Assertions.assertEquals(10, atlas.getCellWidth());
+		Assertions.assertEquals(20, atlas.getCellHeight());
+		Assertions.assertEquals(1, atlas.getMaxSheets());
+		Assertions.assertEquals(0, atlas.getSheetCount());
+	}
+
+	@Test
+	public void cannotCreateAtlasWithNonPositiveCellWidth() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new GlyphAtlas(0, 20, 1, key -> {});
+		});
+	}
+
+	@Test
+	public void cannotCreateAtlasWithNonPositiveCellHeight() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new GlyphAtlas(10, 0, 1, key -> {});
+		});
+	}
+
+	@Test
+	public void cannotCreateAtlasWithNonPositiveMaxSheets() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new GlyphAtlas(10, 20, 0, key -> {});
+		});
+	}
+
+	@Test
+	public void canAddImage() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+
+		final var image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(3, 4, 0xFFFF00FF);
+
+		final var region = atlas.add("A", image);
+		Assertions.assertTrue(region.isValid());
+		Assertions.assertEquals(10, region.getWidth());
+		Assertions.assertEquals(20, region.getHeight());
+		Assertions.assertEquals(1, atlas.getSheetCount());
+
+		final var regionImage = region.copyImage();
+		Assertions.assertEquals(10, regionImage.getWidth());
+		Assertions.assertEquals(20, regionImage.getHeight());
+		Assertions.assertEquals(0xFFFF00FF, regionImage.getRGB(3, 4));
+		Assertions.assertEquals(0, regionImage.getRGB(0, 0));
+	}
+
+	@Test
+	public void canKeepCopyOfRegionAfterItsCellIsReused() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+
+		final var image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(3, 4, 0xFFFF00FF);
+
+		final var first = atlas.add("A", image);
+		final var copy = first.copyImage();
+		atlas.release(first);
+
+		final var second = atlas.add("B", new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB));
+		Assertions.assertEquals(first.getX(), second.getX());
+		Assertions.assertEquals(first.getY(), second.getY());
+		Assertions.assertEquals(0xFFFF00FF, copy.getRGB(3, 4));
+		Assertions.assertEquals(0, second.copyImage().getRGB(3, 4));
+		Assertions.assertEquals(0, second.getSheetPixels()[4 * second.getSheetScanline() + 3]);
+	}
+
+	@Test
+	public void cannotAddImageLargerThanACell() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			atlas.add("A", new BufferedImage(11, 20, BufferedImage.TYPE_INT_ARGB));
+		});
+	}
+
+	@Test
+	public void canReuseReleasedCell() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+		final var image = new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+
+		final var first = atlas.add("A", image);
+		atlas.release(first);
+		Assertions.assertFalse(first.isValid());
+
+		final var second = atlas.add("B", image);
+		Assertions.assertEquals(first.getX(), second.getX());
+		Assertions.assertEquals(first.getY(), second.getY());
+	}
+
+	@Test
+	public void canEvictLeastRecentlyUsedSheet() {
+		final var evictedKeys = new ArrayList<>();
+		final int cellSize = GlyphAtlas.SHEET_SIZE / 2;
+		final var atlas = new GlyphAtlas(cellSize, cellSize, 2, evictedKeys::add);
+		final var image = new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+
+		// Each sheet holds four cells, so the first eight images fill the atlas.
+		final var regions = new ArrayList<GlyphAtlas.Region>();
+		for (int i = 0 ; i < 8 ; i++) {
+			regions.add(atlas.add(i, image));
+		}
+		Assertions.assertEquals(2, atlas.getSheetCount());
+		Assertions.assertTrue(evictedKeys.isEmpty());
+
+		atlas.add(8, image);
+		Assertions.assertEquals(2, atlas.getSheetCount());
+		Assertions.assertEquals(4, evictedKeys.size());
+		for (int i = 0 ; i < 4 ; i++) {
+			Assertions.assertTrue(evictedKeys.contains(i));
+			Assertions.assertFalse(regions.get(i).isValid());
+		}
+
+		for (int i = 4 ; i < 8 ; i++) {
+			Assertions.assertTrue(regions.get(i).isValid());
+		}
+	}
+
+	@Test
+	public void canPinValidRegion() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+		final var region = atlas.add("A", new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB));
+
+		Assertions.assertTrue(atlas.pin(region));
+		atlas.unpin();
+	}
+
+	@Test
+	public void cannotPinEvictedRegion() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+		final var region = atlas.add("A", new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB));
+
+		atlas.clear();
+		Assertions.assertFalse(atlas.pin(region));
+	}
+
+	@Test
+	public void cannotEvictPinnedRegion() throws InterruptedException {
+		final int cellSize = GlyphAtlas.SHEET_SIZE / 2;
+		final var atlas = new GlyphAtlas(cellSize, cellSize, 1, key -> {});
+		final var image = new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+
+		final var region = atlas.add(0, image);
+		for (int i = 1 ; i < 4 ; i++) {
+			atlas.add(i, image);
+		}
+
+		// The atlas is full, so the next image evicts the pinned region's sheet.
+		Assertions.assertTrue(atlas.pin(region));
+		final var evictingThread = new Thread(() -> atlas.add(4, image));
+		evictingThread.start();
+
+		evictingThread.join(200);
+		Assertions.assertTrue(evictingThread.isAlive());
+		Assertions.assertTrue(region.isValid());
+
+		atlas.unpin();
+		evictingThread.join(10_000);
+		Assertions.assertFalse(evictingThread.isAlive());
+		Assertions.assertFalse(region.isValid());
+	}
+
+	@Test
+	public void canClear() {
+		final var atlas = new GlyphAtlas(10, 20, 1, key -> {});
+		final var region = atlas.add("A", new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB));
+
+		atlas.clear();
+		Assertions.assertFalse(region.isValid());
+		Assertions.assertEquals(0, atlas.getSheetCount());
+	}
+}
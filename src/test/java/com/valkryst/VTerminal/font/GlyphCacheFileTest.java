@@ -0,0 +1,155 @@
+package com.valkryst.VTerminal.font;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GlyphCacheFileTest {
+	private static VFont createFont(final int pointSize) throws IOException, FontFormatException {
+		return new VFont(GlyphCacheFileTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), pointSize);
+	}
+
+	private static int[] getPixels(final VFont font, final int codePoint) {
+		final var image = (BufferedImage) font.generateImage(codePoint, Color.WHITE, null);
+		return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+	}
+
+	@Test
+	public void canLoadSavedGlyphsWithoutRasterizingThem() throws IOException, FontFormatException {
+		final var fileSystem = Jimfs.newFileSystem(Configuration.unix());
+		final var path = fileSystem.getPath("glyphs.cache");
+
+		final var font = createFont(16);
+		font.warmUp(new int[] { 'A', 'B', 0x2500 }, null).join();
+		font.saveGlyphCache(path);
+
+		final var rasterizedCount = new AtomicInteger();
+		final var loadedFont = new VFont(GlyphCacheFileTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16) {
+			@Override
+			protected BufferedImage rasterize(final int codePoint, final Color color, final SequentialOp sequentialOp) {
+				rasterizedCount.incrementAndGet();
+				return super.rasterize(codePoint, color, sequentialOp);
+			}
+		};
+		Assertions.assertTrue(loadedFont.loadGlyphCache(path));
+
+		Assertions.assertArrayEquals(getPixels(font, 'A'), getPixels(loadedFont, 'A'));
+		Assertions.assertArrayEquals(getPixels(font, 0x2500), getPixels(loadedFont, 0x2500));
+		Assertions.assertEquals(0, rasterizedCount.get());
+
+		getPixels(loadedFont, 'C');
+		Assertions.assertEquals(1, rasterizedCount.get());
+
+		fileSystem.close();
+	}
+
+	@Test
+	public void canMemoryMapGlyphCacheFile() throws IOException, FontFormatException {
+		final var directory = Files.createTempDirectory("vterminal");
+		final var path = directory.resolve("glyphs.cache");
+
+		try {
+			final var font = createFont(16);
+			font.generateImage('A', Color.WHITE, null);
+			font.saveGlyphCache(path);
+
+			final var loadedFont = createFont(16);
+			Assertions.assertTrue(loadedFont.loadGlyphCache(path));
+			Assertions.assertArrayEquals(getPixels(font, 'A'), getPixels(loadedFont, 'A'));
+		} finally {
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+	@Test
+	public void canKeepUndrawnGlyphsWhenResaving() throws IOException, FontFormatException {
+		final var fileSystem = Jimfs.newFileSystem(Configuration.unix());
+		final var path = fileSystem.getPath("glyphs.cache");
+
+		final var font = createFont(16);
+		font.generateImage('A', Color.WHITE, null);
+		font.saveGlyphCache(path);
+
+		final var loadedFont = createFont(16);
+		Assertions.assertTrue(loadedFont.loadGlyphCache(path));
+		loadedFont.generateImage('B', Color.WHITE, null);
+		loadedFont.saveGlyphCache(path);
+
+		final var file = GlyphCacheFile.load(path, readDigest(path), font.getMaxTileWidth(), font.getMaxTileHeight());
+		Assertions.assertNotNull(file);
+		Assertions.assertTrue(file.contains('A'));
+		Assertions.assertTrue(file.contains('B'));
+
+		fileSystem.close();
+	}
+
+	@Test
+	public void cannotLoadGlyphCacheOfDifferentPointSize() throws IOException, FontFormatException {
+		final var fileSystem = Jimfs.newFileSystem(Configuration.unix());
+		final var path = fileSystem.getPath("glyphs.cache");
+
+		final var font = createFont(16);
+		font.generateImage('A', Color.WHITE, null);
+		font.saveGlyphCache(path);
+
+		Assertions.assertFalse(createFont(18).loadGlyphCache(path));
+
+		fileSystem.close();
+	}
+
+	@Test
+	public void cannotLoadMissingOrTruncatedGlyphCache() throws IOException, FontFormatException {
+		final var fileSystem = Jimfs.newFileSystem(Configuration.unix());
+		final var path = fileSystem.getPath("glyphs.cache");
+
+		final var font = createFont(16);
+		Assertions.assertFalse(font.loadGlyphCache(path));
+
+		font.generateImage('A', Color.WHITE, null);
+		font.saveGlyphCache(path);
+
+		final var data = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(data, data.length - 1));
+		Assertions.assertFalse(font.loadGlyphCache(path));
+
+		fileSystem.close();
+	}
+
+	@Test
+	public void canRasterizeGlyphsWhichFailTheirChecksum() throws IOException, FontFormatException {
+		final var fileSystem = Jimfs.newFileSystem(Configuration.unix());
+		final var path = fileSystem.getPath("glyphs.cache");
+
+		final var font = createFont(16);
+		font.generateImage('A', Color.WHITE, null);
+		font.saveGlyphCache(path);
+
+		// Corrupt the last pixel of the only entry.
+		final var data = Files.readAllBytes(path);
+		data[data.length - 1] ^= 0x7F;
+		Files.write(path, data);
+
+		final var loadedFont = createFont(16);
+		Assertions.assertTrue(loadedFont.loadGlyphCache(path));
+		Assertions.assertArrayEquals(getPixels(font, 'A'), getPixels(loadedFont, 'A'));
+
+		fileSystem.close();
+	}
+
+	private static byte[] readDigest(final Path path) throws IOException {
+		final var data = Files.readAllBytes(path);
+		return Arrays.copyOfRange(data, 8, 8 + GlyphCacheFile.DIGEST_LENGTH);
+	}
+}
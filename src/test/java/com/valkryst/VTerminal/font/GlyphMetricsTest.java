@@ -0,0 +1,64 @@
+package com.valkryst.VTerminal.font;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.io.IOException;
+
+public class GlyphMetricsTest {
+	private static VFont font;
+	private static GlyphMetrics glyphMetrics;
+
+	@BeforeAll
+	public static void createFont() throws IOException, FontFormatException {
+		font = new VFont(GlyphMetricsTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+		glyphMetrics = font.getGlyphMetrics();
+	}
+
+	@Test
+	public void canMatchFontMetrics() {
+		final var fontMetrics = font.getFontMetrics();
+
+		for (int codePoint = 0 ; codePoint <= Character.MAX_VALUE ; codePoint += 7) {
+			Assertions.assertEquals(fontMetrics.charWidth(codePoint), glyphMetrics.getAdvance(codePoint));
+			Assertions.assertEquals(font.getFont().canDisplay(codePoint), glyphMetrics.isDisplayable(codePoint));
+			Assertions.assertEquals(Character.isWhitespace(codePoint), glyphMetrics.isWhitespace(codePoint));
+		}
+	}
+
+	@Test
+	public void canClassifyGraphicCharacters() {
+		Assertions.assertTrue(glyphMetrics.isGraphic(0x2500)); // Box Drawings Light Horizontal
+		Assertions.assertTrue(glyphMetrics.isGraphic(0x2588)); // Full Block
+		Assertions.assertTrue(glyphMetrics.isGraphic(0x25A0)); // Black Square
+		Assertions.assertFalse(glyphMetrics.isGraphic('A'));
+	}
+
+	@Test
+	public void canDetectBlankCodePoints() {
+		Assertions.assertTrue(glyphMetrics.isBlank(' '));
+		Assertions.assertTrue(glyphMetrics.isBlank('\t'));
+		Assertions.assertFalse(glyphMetrics.isBlank('A'));
+	}
+
+	@Test
+	public void canDetectGlyphsWhichNeedScaling() {
+		Assertions.assertFalse(glyphMetrics.needsScaling('A'));
+
+		for (int codePoint = 0 ; codePoint <= Character.MAX_VALUE ; codePoint++) {
+			Assertions.assertEquals(glyphMetrics.getAdvance(codePoint) > font.getMaxTileWidth(), glyphMetrics.needsScaling(codePoint));
+		}
+	}
+
+	@Test
+	public void canComputeSupplementaryCodePointsLazily() {
+		final int codePoint = 0x1F600; // Grinning Face
+		final var fontMetrics = font.getFontMetrics();
+
+		Assertions.assertEquals(fontMetrics.charWidth(codePoint), glyphMetrics.getAdvance(codePoint));
+		Assertions.assertEquals(font.getFont().canDisplay(codePoint), glyphMetrics.isDisplayable(codePoint));
+		Assertions.assertFalse(glyphMetrics.isWhitespace(codePoint));
+	}
+}
@@ -0,0 +1,100 @@
+package com.valkryst.VTerminal.font;
+
+import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class PrebakedAtlasTest {
+	private static VFont font;
+	private static byte[] imageData;
+	private static byte[] metricsData;
+
+	@BeforeAll
+	public static void bakeAtlas() throws IOException, FontFormatException {
+		font = new VFont(PrebakedAtlasTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+
+		final var atlas = PrebakedAtlas.bake(font, new int[] { 'A', 'B', 'B', ' ', 0x2500, 0x1F600 });
+		final var imageOutputStream = new ByteArrayOutputStream();
+		final var metricsOutputStream = new ByteArrayOutputStream();
+		atlas.write(imageOutputStream, metricsOutputStream);
+
+		imageData = imageOutputStream.toByteArray();
+		metricsData = metricsOutputStream.toByteArray();
+	}
+
+	private static VFont loadFont() throws IOException {
+		return new VFont(new ByteArrayInputStream(imageData), new ByteArrayInputStream(metricsData));
+	}
+
+	private static int[] getPixels(final VFont font, final int codePoint, final SequentialOp sequentialOp) {
+		final var image = (BufferedImage) font.generateImage(codePoint, Color.MAGENTA, sequentialOp);
+		final var copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		copy.getGraphics().drawImage(image, 0, 0, null);
+		return ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+	}
+
+	@Test
+	public void canReadBakedAtlas() throws IOException {
+		final var atlas = PrebakedAtlas.read(new ByteArrayInputStream(imageData), new ByteArrayInputStream(metricsData));
+		Assertions.assertEquals(16, atlas.getPointSize());
+		Assertions.assertEquals(font.getMaxTileWidth(), atlas.getCellWidth());
+		Assertions.assertEquals(font.getMaxTileHeight(), atlas.getCellHeight());
+		Assertions.assertTrue(atlas.contains('A'));
+		Assertions.assertTrue(atlas.contains(0x2500));
+		Assertions.assertFalse(atlas.contains(' '));
+
+		// 'B' is only baked once, and the space has no visible glyph.
+		Assertions.assertEquals(font.getGlyphMetrics().isDisplayable(0x1F600) ? 4 : 3, atlas.getGlyphCount());
+	}
+
+	@Test
+	public void canLoadFontFromBakedAtlas() throws IOException {
+		final var loadedFont = loadFont();
+		Assertions.assertEquals(font.getMaxTileWidth(), loadedFont.getMaxTileWidth());
+		Assertions.assertEquals(font.getMaxTileHeight(), loadedFont.getMaxTileHeight());
+
+		Assertions.assertArrayEquals(getPixels(font, 'A', null), getPixels(loadedFont, 'A', null));
+		Assertions.assertArrayEquals(getPixels(font, 0x2500, null), getPixels(loadedFont, 0x2500, null));
+	}
+
+	@Test
+	public void canApplySequentialOpsToBakedGlyphs() throws IOException {
+		final var op = new SequentialOp(new GaussianFilter());
+		Assertions.assertArrayEquals(getPixels(font, 'B', op), getPixels(loadFont(), 'B', op));
+	}
+
+	@Test
+	public void cannotDisplayGlyphsMissingFromBakedAtlas() throws IOException {
+		final var loadedFont = loadFont();
+		Assertions.assertNull(loadedFont.generateImage('C', Color.WHITE, null));
+		Assertions.assertNull(loadedFont.generateImage(' ', Color.WHITE, null));
+		Assertions.assertFalse(loadedFont.getGlyphMetrics().isDisplayable('C'));
+		Assertions.assertTrue(loadedFont.getGlyphMetrics().isWhitespace(' '));
+	}
+
+	@Test
+	public void cannotReadInvalidMetrics() {
+		final var corruptMetrics = metricsData.clone();
+		corruptMetrics[0] ^= 0x7F;
+
+		Assertions.assertThrows(IOException.class, () -> {
+			PrebakedAtlas.read(new ByteArrayInputStream(imageData), new ByteArrayInputStream(corruptMetrics));
+		});
+	}
+
+	@Test
+	public void cannotReadInvalidImage() {
+		Assertions.assertThrows(IOException.class, () -> {
+			PrebakedAtlas.read(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), new ByteArrayInputStream(metricsData));
+		});
+	}
+}
@@ -0,0 +1,366 @@
+package com.valkryst.VTerminal.font;
+
+import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.image.AlphaOp;
+import com.valkryst.VTerminal.image.AnimatedOp;
+import com.valkryst.VTerminal.image.BrightnessOp;
+import com.valkryst.VTerminal.image.SequentialOp;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class VFontTest {
+	private static VFont font;
+
+	@BeforeAll
+	public static void createFont() throws IOException, FontFormatException {
+		font = new VFont(VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+	}
+
+	@Test
+	public void canGenerateImageInColor() {
+		final var image = (BufferedImage) font.generateImage('A', Color.MAGENTA, null);
+		Assertions.assertNotNull(image);
+
+		boolean foundOpaquePixel = false;
+		for (int y = 0 ; y < image.getHeight() ; y++) {
+			for (int x = 0 ; x < image.getWidth() ; x++) {
+				final int argb = image.getRGB(x, y);
+
+				if ((argb >>> 24) == 255) {
+					Assertions.assertEquals(Color.MAGENTA.getRGB(), argb);
+					foundOpaquePixel = true;
+				}
+			}
+		}
+
+		Assertions.assertTrue(foundOpaquePixel);
+	}
+
+	@Test
+	public void cannotGenerateImageOfWhitespace() {
+		Assertions.assertNull(font.generateImage(' ', Color.MAGENTA, null));
+	}
+
+	@Test
+	public void cannotGenerateImageOfInvalidCodePoint() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			font.generateImage(-1, Color.MAGENTA, null);
+		});
+	}
+
+	@Test
+	public void canShareOneMaskBetweenColors() {
+		font.imageCache.invalidateAll();
+
+		final var image = new BufferedImage(font.getMaxTileWidth(), font.getMaxTileHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		for (int i = 0 ; i < 64 ; i++) {
+			Assertions.assertTrue(font.drawGlyph(graphics, 'B', 0xFF000000 | (i * 4), null, 0, 0));
+		}
+		graphics.dispose();
+
+		font.imageCache.cleanUp();
+		Assertions.assertEquals(1, font.imageCache.estimatedSize());
+	}
+
+	@Test
+	public void canReuseTintedImages() {
+		final var image = font.generateImage('D', Color.MAGENTA, null);
+		Assertions.assertSame(image, font.generateImage('D', Color.MAGENTA, null));
+		Assertions.assertNotSame(image, font.generateImage('D', Color.GREEN, null));
+	}
+
+	@Test
+	public void canCacheGlyphsWithSequentialOpsPerColor() {
+		font.imageCache.invalidateAll();
+
+		final var op = new SequentialOp(new GaussianFilter());
+		font.generateImage('C', Color.MAGENTA, op);
+		font.generateImage('C', Color.GREEN, op);
+
+		font.imageCache.cleanUp();
+		Assertions.assertEquals(2, font.imageCache.estimatedSize());
+	}
+
+	@Test
+	public void canShareGlyphsBetweenEquivalentSequentialOps() {
+		font.imageCache.invalidateAll();
+
+		final var gaussianFilter = new GaussianFilter();
+		font.generateImage('C', Color.MAGENTA, new SequentialOp(new BrightnessOp(0.5f), gaussianFilter));
+		font.generateImage('C', Color.MAGENTA, new SequentialOp(new BrightnessOp(0.5f), gaussianFilter));
+
+		font.imageCache.cleanUp();
+		Assertions.assertEquals(1, font.imageCache.estimatedSize());
+	}
+
+	@Test
+	public void cannotShareGlyphsBetweenDifferentInstancesOfUnknownOps() {
+		font.imageCache.invalidateAll();
+
+		font.generateImage('C', Color.MAGENTA, new SequentialOp(new GaussianFilter()));
+		font.generateImage('C', Color.MAGENTA, new SequentialOp(new GaussianFilter()));
+
+		font.imageCache.cleanUp();
+		Assertions.assertEquals(2, font.imageCache.estimatedSize());
+	}
+
+	@Test
+	public void canFilterGlyphsOnceWhileTheirRegionsAreCached() {
+		final var filterCount = new AtomicInteger();
+		final var op = new SequentialOp(new GaussianFilter() {
+			@Override
+			public BufferedImage filter(final BufferedImage src, final BufferedImage dst) {
+				filterCount.incrementAndGet();
+				return super.filter(src, dst);
+			}
+		});
+
+		font.generateImage('E', Color.MAGENTA, op);
+		font.generateImage('E', Color.MAGENTA, op);
+
+		// An equivalent chain, from another SequentialOp, shares the region.
+		font.generateImage('E', Color.MAGENTA, new SequentialOp(op.getBufferedImageOps().get(0)));
+		Assertions.assertEquals(1, filterCount.get());
+
+		// The region is the only copy of the result, so it's filtered again once evicted.
+		font.imageCache.invalidateAll();
+		font.glyphAtlas.clear();
+		font.generateImage('E', Color.MAGENTA, op);
+		Assertions.assertEquals(2, filterCount.get());
+	}
+
+	@Test
+	public void canCountHitsAndMissesOfTheGlyphCache() {
+		final var op = new SequentialOp(new BrightnessOp(0.25f));
+		final long hitCount = font.getCacheHitCount();
+		final long missCount = font.getCacheMissCount();
+
+		// The first lookup misses, and the second finds the glyph in the cache.
+		Assertions.assertEquals(1, font.prefilter(List.of(GlyphKey.colored('H', 0xFFFF00FF, op))));
+		Assertions.assertEquals(0, font.prefilter(List.of(GlyphKey.colored('H', 0xFFFF00FF, op))));
+
+		Assertions.assertTrue(font.getCacheMissCount() > missCount);
+		Assertions.assertTrue(font.getCacheHitCount() > hitCount);
+		Assertions.assertTrue(font.getCacheHitRate() > 0);
+	}
+
+	@Test
+	public void canPrefilterGlyphs() {
+		final var op = new SequentialOp(new GaussianFilter(1));
+		final var keys = new ArrayList<GlyphKey>();
+		for (int codePoint = 'a' ; codePoint <= 'z' ; codePoint++) {
+			keys.add(GlyphKey.colored(codePoint, 0xFFFF00FF, op));
+			keys.add(GlyphKey.colored(codePoint, 0xFFFF00FF, op));
+		}
+		keys.add(GlyphKey.colored(' ', 0xFFFF00FF, op));
+
+		Assertions.assertEquals(26, font.prefilter(keys));
+		for (final var key : keys) {
+			if (key.getCodePoint() != ' ') {
+				Assertions.assertNotNull(font.imageCache.getIfPresent(key));
+			}
+		}
+
+		Assertions.assertEquals(0, font.prefilter(keys));
+	}
+
+	@Test
+	public void cannotPrefilterInvalidCodePoints() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			font.prefilter(List.of(GlyphKey.colored(-1, 0xFFFF00FF, new SequentialOp())));
+		});
+	}
+
+	@Test
+	public void canChooseAnimationFramesByTheGivenTime() {
+		// The shared clock won't reach the second frame while the test runs.
+		final var animatedOp = new AnimatedOp(2, TimeUnit.DAYS, 2, frame -> new SequentialOp(new AlphaOp(1 - frame / 2f)));
+		final long secondFrameNanos = TimeUnit.DAYS.toNanos(1);
+
+		Assertions.assertEquals(1, font.prefilter(List.of(GlyphKey.colored('G', 0xFFFF00FF, animatedOp)), secondFrameNanos));
+		Assertions.assertNotNull(font.imageCache.getIfPresent(GlyphKey.colored('G', 0xFFFF00FF, animatedOp.getFrame(1))));
+		Assertions.assertNull(font.imageCache.getIfPresent(GlyphKey.colored('G', 0xFFFF00FF, animatedOp.getFrame(0))));
+
+		final var image = new BufferedImage(font.getMaxTileWidth(), font.getMaxTileHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+		Assertions.assertTrue(font.drawGlyph(graphics, 'G', 0xFFFF00FF, animatedOp, secondFrameNanos, 0, 0, null, 0, 0));
+		graphics.dispose();
+
+		Assertions.assertTrue(font.isCached('G', 0xFFFF00FF, animatedOp, secondFrameNanos));
+		Assertions.assertFalse(font.isCached('G', 0xFFFF00FF, animatedOp, 0));
+	}
+
+	@Test
+	public void canReloadMaskAfterItsRegionIsEvicted() {
+		final var region = font.getRegion('D', 0xFFFFFFFF, null);
+		Assertions.assertSame(region, font.getRegion('D', 0xFF00FF00, null));
+
+		font.glyphAtlas.clear();
+		Assertions.assertFalse(region.isValid());
+
+		final var reloadedRegion = font.getRegion('D', 0xFFFFFFFF, null);
+		Assertions.assertNotSame(region, reloadedRegion);
+		Assertions.assertTrue(reloadedRegion.isValid());
+	}
+
+	@Test
+	public void canLookUpMasksOutsideTheMaskTable() {
+		final int codePoint = 0x2660; // Black Spade Suit
+		final var region = font.getRegion(codePoint, 0xFFFFFFFF, null);
+		Assertions.assertNotNull(region);
+		Assertions.assertSame(region, font.getRegion(codePoint, 0xFFFFFFFF, null));
+	}
+
+	@Test
+	public void canBlendGlyphsInParallelWhileTheirRegionsAreEvicted() throws IOException, FontFormatException {
+		// The cells of a large font are large, so these glyphs don't all fit in the atlas.
+		final var largeFont = new VFont(VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 200);
+		final int width = largeFont.getMaxTileWidth();
+		final int height = largeFont.getMaxTileHeight();
+		final int cellCount = (GlyphAtlas.SHEET_SIZE / width) * (GlyphAtlas.SHEET_SIZE / height) * largeFont.glyphAtlas.getMaxSheets();
+
+		final var codePoints = new ArrayList<Integer>();
+		final var expectedPixels = new ArrayList<int[]>();
+		for (int codePoint = 0x21 ; codePoint <= 0x17F ; codePoint++) {
+			final var pixels = new int[width * height];
+			if (largeFont.blendGlyph(codePoint, 0xFFFF00FF, null, pixels, 0, width, null, 0, 0)) {
+				codePoints.add(codePoint);
+				expectedPixels.add(pixels);
+			}
+		}
+		Assertions.assertTrue(codePoints.size() > cellCount);
+
+		IntStream.range(0, codePoints.size() * 4).parallel().forEach(i -> {
+			final int index = i % codePoints.size();
+			final var pixels = new int[width * height];
+
+			Assertions.assertTrue(largeFont.blendGlyph(codePoints.get(index), 0xFFFF00FF, null, pixels, 0, width, null, 0, 0));
+			Assertions.assertArrayEquals(expectedPixels.get(index), pixels);
+		});
+	}
+
+	@Test
+	public void canLookUpOneGlyphFromManyThreads() throws InterruptedException {
+		final int codePoint = 0x263A; // White Smiling Face
+		final var regions = Collections.synchronizedList(new ArrayList<GlyphAtlas.Region>());
+		final var start = new CountDownLatch(1);
+
+		final var threads = new Thread[8];
+		for (int i = 0 ; i < threads.length ; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+					regions.add(font.getRegion(codePoint, 0xFFFFFFFF, null));
+				} catch (final InterruptedException ignored) {}
+			});
+			threads[i].start();
+		}
+
+		start.countDown();
+		for (final var thread : threads) {
+			thread.join();
+		}
+
+		// The glyph must only have been rasterized once.
+		Assertions.assertEquals(threads.length, regions.size());
+		for (final var region : regions) {
+			Assertions.assertSame(regions.get(0), region);
+		}
+	}
+
+	@Test
+	public void canRasterizeGlyphsAsynchronously() throws IOException, FontFormatException, InterruptedException {
+		final var asyncFont = new VFont(VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+		asyncFont.setAsynchronous(true);
+		Assertions.assertTrue(asyncFont.isAsynchronous());
+
+		final var latch = new CountDownLatch(2);
+		final var notifiedPositions = Collections.synchronizedList(new ArrayList<Point>());
+		final ImageObserver observer = (image, infoFlags, x, y, width, height) -> {
+			Assertions.assertEquals(ImageObserver.ALLBITS, infoFlags);
+			notifiedPositions.add(new Point(x, y));
+			latch.countDown();
+			return false;
+		};
+
+		final var image = new BufferedImage(asyncFont.getMaxTileWidth() * 2, asyncFont.getMaxTileHeight(), BufferedImage.TYPE_INT_ARGB);
+		final var graphics = image.createGraphics();
+
+		// Every request made while the glyph is pending must be notified.
+		Assertions.assertFalse(asyncFont.drawGlyph(graphics, 'E', 0xFFFFFFFF, null, 0, 0, observer));
+		final boolean secondDrawn = asyncFont.drawGlyph(graphics, 'E', 0xFFFFFFFF, null, 10, 0, observer);
+		if (secondDrawn) {
+			// The glyph was ready before the second request was made.
+			latch.countDown();
+		}
+
+		Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assertions.assertTrue(notifiedPositions.contains(new Point(0, 0)));
+		Assertions.assertEquals(!secondDrawn, notifiedPositions.contains(new Point(10, 0)));
+
+		Assertions.assertTrue(asyncFont.drawGlyph(graphics, 'E', 0xFFFFFFFF, null, 0, 0, observer));
+		graphics.dispose();
+	}
+
+	@Test
+	public void canWarmUpGlyphs() throws Exception {
+		final var warmFont = new VFont(VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+		final int[] codePoints = { 'F', 'G', ' ', 0x2500 };
+
+		final var progressCount = new AtomicInteger();
+		final var lastTotal = new AtomicInteger();
+		warmFont.warmUp(codePoints, (completed, total) -> {
+			progressCount.incrementAndGet();
+			lastTotal.set(total);
+		}).get(10, TimeUnit.SECONDS);
+
+		Assertions.assertEquals(codePoints.length, progressCount.get());
+		Assertions.assertEquals(codePoints.length, lastTotal.get());
+
+		warmFont.imageCache.cleanUp();
+		Assertions.assertEquals(3, warmFont.imageCache.estimatedSize());
+		Assertions.assertNotNull(warmFont.imageCache.getIfPresent(GlyphKey.mask('F')));
+		Assertions.assertNotNull(warmFont.imageCache.getIfPresent(GlyphKey.mask(0x2500)));
+
+		// Warming up glyphs which are already cached rasterizes nothing new.
+		final var region = warmFont.getRegion('F', 0xFFFFFFFF, null);
+		warmFont.warmUp(codePoints, null).get(10, TimeUnit.SECONDS);
+		Assertions.assertSame(region, warmFont.getRegion('F', 0xFF00FF00, null));
+	}
+
+	@Test
+	public void canCancelWarmUp() throws Exception {
+		final var warmFont = new VFont(VFontTest.class.getResourceAsStream("/Fonts/DejaVuSansMono.ttf"), 16);
+		final int[] codePoints = IntStream.concat(IntStream.rangeClosed(0x21, 0x7E), IntStream.rangeClosed(0xA1, 0x4FF)).toArray();
+
+		final var latch = new CountDownLatch(codePoints.length);
+		final var future = warmFont.warmUp(codePoints, (completed, total) -> latch.countDown());
+		Assertions.assertTrue(future.cancel(false));
+
+		// Skipped glyphs are still counted as progress.
+		Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS));
+		warmFont.imageCache.cleanUp();
+		Assertions.assertTrue(warmFont.imageCache.estimatedSize() < codePoints.length);
+	}
+
+	@Test
+	public void cannotWarmUpInvalidCodePoints() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			font.warmUp(new int[] { 'A', -1 }, null);
+		});
+	}
+}
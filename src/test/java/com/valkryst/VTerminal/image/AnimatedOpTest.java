@@ -0,0 +1,83 @@
+package com.valkryst.VTerminal.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AnimatedOpTest {
+	@Test
+	public void cannotCreateOpWithNonPositivePeriod() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new AnimatedOp(0, TimeUnit.SECONDS, 4, frame -> new SequentialOp());
+		});
+	}
+
+	@Test
+	public void cannotCreateOpWithNonPositiveFrameCount() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new AnimatedOp(1, TimeUnit.SECONDS, 0, frame -> new SequentialOp());
+		});
+	}
+
+	@Test
+	public void canGetFrameIndex() {
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> new SequentialOp());
+		Assertions.assertEquals(0, op.getFrameIndex(0));
+		Assertions.assertEquals(0, op.getFrameIndex(TimeUnit.MILLISECONDS.toNanos(249)));
+		Assertions.assertEquals(1, op.getFrameIndex(TimeUnit.MILLISECONDS.toNanos(250)));
+		Assertions.assertEquals(3, op.getFrameIndex(TimeUnit.MILLISECONDS.toNanos(999)));
+		Assertions.assertEquals(0, op.getFrameIndex(TimeUnit.MILLISECONDS.toNanos(1000)));
+		Assertions.assertEquals(2, op.getFrameIndex(TimeUnit.MILLISECONDS.toNanos(5600)));
+	}
+
+	@Test
+	public void canCreateEachFrameOnce() {
+		final var createdCount = new AtomicInteger();
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> {
+			createdCount.incrementAndGet();
+			return new SequentialOp(new AlphaOp(frame / 4f));
+		});
+
+		for (int loop = 0 ; loop < 3 ; loop++) {
+			for (int frame = 0 ; frame < 4 ; frame++) {
+				Assertions.assertSame(op.getFrame(frame), op.getFrameAt(TimeUnit.MILLISECONDS.toNanos(loop * 1000 + frame * 250)));
+			}
+		}
+
+		Assertions.assertEquals(4, createdCount.get());
+	}
+
+	@Test
+	public void cannotCreateNullFrame() {
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> null);
+		Assertions.assertThrows(IllegalStateException.class, () -> op.getFrame(0));
+	}
+
+	@Test
+	public void cannotGetFrameOutsideTheLoop() {
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> new SequentialOp());
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> op.getFrame(4));
+	}
+
+	@Test
+	public void canOnlyEqualItself() {
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> new SequentialOp());
+		Assertions.assertEquals(op, op);
+		Assertions.assertNotEquals(op, new AnimatedOp(1, TimeUnit.SECONDS, 4, frame -> new SequentialOp()));
+		Assertions.assertNotEquals(new SequentialOp(), op);
+		Assertions.assertNotEquals(op, new SequentialOp());
+	}
+
+	@Test
+	public void canFilterWithCurrentFrame() {
+		final var op = new AnimatedOp(1, TimeUnit.DAYS, 1, frame -> new SequentialOp(new RecolorOp(Color.RED)));
+
+		final var image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(1, 1, 0xFF0000FF);
+		Assertions.assertEquals(0xFFFF0000, op.filter(image, null).getRGB(1, 1));
+	}
+}
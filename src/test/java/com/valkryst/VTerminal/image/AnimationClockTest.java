@@ -0,0 +1,57 @@
+package com.valkryst.VTerminal.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+public class AnimationClockTest {
+	@Test
+	public void cannotCreateClockWithNonPositiveTicksPerSecond() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AnimationClock(0));
+	}
+
+	@Test
+	public void cannotSetNonPositiveTicksPerSecond() {
+		final var clock = new AnimationClock(60);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> clock.setTicksPerSecond(0));
+	}
+
+	@Test
+	public void cannotCreateClockWithMoreTicksPerSecondThanMilliseconds() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AnimationClock(AnimationClock.MAX_TICKS_PER_SECOND + 1));
+	}
+
+	@Test
+	public void cannotSetMoreTicksPerSecondThanMilliseconds() {
+		final var clock = new AnimationClock(60);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> clock.setTicksPerSecond(AnimationClock.MAX_TICKS_PER_SECOND + 1));
+
+		clock.setTicksPerSecond(AnimationClock.MAX_TICKS_PER_SECOND);
+		Assertions.assertEquals(AnimationClock.MAX_TICKS_PER_SECOND, clock.getTicksPerSecond());
+	}
+
+	@Test
+	public void canTickListenersOnTheEventDispatchThread() throws InterruptedException {
+		final var clock = new AnimationClock(100);
+		final var ticks = new CountDownLatch(3);
+		final LongConsumer listener = nanos -> {
+			Assertions.assertTrue(SwingUtilities.isEventDispatchThread());
+			ticks.countDown();
+		};
+
+		Assertions.assertFalse(clock.isRunning());
+		clock.addListener(listener);
+		Assertions.assertTrue(clock.isRunning());
+		Assertions.assertTrue(clock.hasListener(listener));
+
+		Assertions.assertTrue(ticks.await(10, TimeUnit.SECONDS));
+
+		clock.removeListener(listener);
+		Assertions.assertFalse(clock.isRunning());
+		Assertions.assertFalse(clock.hasListener(listener));
+	}
+}
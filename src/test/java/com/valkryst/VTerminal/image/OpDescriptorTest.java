@@ -0,0 +1,57 @@
+package com.valkryst.VTerminal.image;
+
+import com.jhlabs.image.GaussianFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+public class OpDescriptorTest {
+	@Test
+	public void canEqualDescriptorOfEquivalentOp() {
+		Assertions.assertEquals(new OpDescriptor(new AlphaOp(0.5f)), new OpDescriptor(new AlphaOp(0.5f)));
+		Assertions.assertEquals(new OpDescriptor(new BrightnessOp(2)), new OpDescriptor(new BrightnessOp(2)));
+		Assertions.assertEquals(new OpDescriptor(new RecolorOp(Color.RED)), new OpDescriptor(new RecolorOp(Color.RED)));
+		Assertions.assertEquals(new OpDescriptor(new RecolorOp(Color.RED)).hashCode(), new OpDescriptor(new RecolorOp(Color.RED)).hashCode());
+		Assertions.assertEquals(new OpDescriptor(new SequentialOp(new AlphaOp(0.5f))), new OpDescriptor(new SequentialOp(new AlphaOp(0.5f))));
+	}
+
+	@Test
+	public void cannotEqualDescriptorOfOpWithDifferentParameters() {
+		Assertions.assertNotEquals(new OpDescriptor(new AlphaOp(0.5f)), new OpDescriptor(new AlphaOp(0.6f)));
+		Assertions.assertNotEquals(new OpDescriptor(new RecolorOp(Color.RED)), new OpDescriptor(new RecolorOp(Color.BLUE)));
+		Assertions.assertNotEquals(new OpDescriptor(new SequentialOp(new AlphaOp(0.5f))), new OpDescriptor(new SequentialOp(new AlphaOp(0.6f))));
+	}
+
+	@Test
+	public void cannotEqualDescriptorOfOpOfDifferentClass() {
+		Assertions.assertNotEquals(new OpDescriptor(new AlphaOp(0.5f)), new OpDescriptor(new BrightnessOp(0.5f)));
+	}
+
+	@Test
+	public void canOnlyEqualDescriptorOfSameUnknownOp() {
+		final var op = new GaussianFilter(3);
+		Assertions.assertEquals(new OpDescriptor(op), new OpDescriptor(op));
+		Assertions.assertNotEquals(new OpDescriptor(op), new OpDescriptor(new GaussianFilter(3)));
+	}
+
+	@Test
+	public void canOnlyEqualDescriptorOfSameAnimatedOp() {
+		final var op = new AnimatedOp(1, TimeUnit.SECONDS, 2, index -> new SequentialOp(new AlphaOp(0.5f)));
+		Assertions.assertEquals(new OpDescriptor(op), new OpDescriptor(op));
+		Assertions.assertNotEquals(new OpDescriptor(op), new OpDescriptor(new AnimatedOp(1, TimeUnit.SECONDS, 2, index -> new SequentialOp(new AlphaOp(0.5f)))));
+	}
+
+	@Test
+	public void canOnlyEqualDescriptorOfSamePointOpSubclass() {
+		final var op = new PointOp() {
+			@Override
+			public int filterRGB(final int argb) {
+				return argb;
+			}
+		};
+
+		Assertions.assertEquals(new OpDescriptor(op), new OpDescriptor(op));
+	}
+}
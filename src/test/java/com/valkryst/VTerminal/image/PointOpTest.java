@@ -0,0 +1,84 @@
+package com.valkryst.VTerminal.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+
+public class PointOpTest {
+	@Test
+	public void canFilterWithNullDestination() {
+		final var image = createImage(BufferedImage.TYPE_INT_ARGB);
+		final var result = new RecolorOp(Color.RED).filter(image, null);
+
+		Assertions.assertNotSame(image, result);
+		Assertions.assertEquals(BufferedImage.TYPE_INT_ARGB, result.getType());
+		Assertions.assertEquals(0x80FF0000, result.getRGB(1, 2));
+		Assertions.assertEquals(0x800000FF, image.getRGB(1, 2));
+	}
+
+	@Test
+	public void canFilterWithDestination() {
+		final var image = createImage(BufferedImage.TYPE_INT_ARGB);
+		final var destination = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		Assertions.assertSame(destination, new RecolorOp(Color.RED).filter(image, destination));
+		Assertions.assertEquals(0x80FF0000, destination.getRGB(1, 2));
+	}
+
+	@Test
+	public void canFilterImageWhosePixelsArentPackedARGB() {
+		final var image = createImage(BufferedImage.TYPE_4BYTE_ABGR);
+		final var destination = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB_PRE);
+		new RecolorOp(Color.RED).filter(image, destination);
+		Assertions.assertEquals(0x80FF0000, destination.getRGB(1, 2));
+	}
+
+	@Test
+	public void cannotFilterWithDestinationOfDifferentSize() {
+		final var image = createImage(BufferedImage.TYPE_INT_ARGB);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			new RecolorOp(Color.RED).filter(image, new BufferedImage(2, 4, BufferedImage.TYPE_INT_ARGB));
+		});
+	}
+
+	@Test
+	public void canGetPoint2D() {
+		final var point = new RecolorOp(Color.RED).getPoint2D(new Point2D.Double(1, 2), null);
+		Assertions.assertEquals(new Point2D.Double(1, 2), point);
+	}
+
+	@Test
+	public void canScaleBrightness() {
+		Assertions.assertEquals(0x80402010, new BrightnessOp(0.5f).filterRGB(0x80804020));
+		Assertions.assertEquals(0x80FF8040, new BrightnessOp(2).filterRGB(0x80C04020));
+	}
+
+	@Test
+	public void cannotScaleBrightnessByNegativeFactor() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new BrightnessOp(-1));
+	}
+
+	@Test
+	public void canScaleAlpha() {
+		Assertions.assertEquals(0x40804020, new AlphaOp(0.5f).filterRGB(0x80804020));
+	}
+
+	@Test
+	public void cannotScaleAlphaByFactorOutsideRange() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AlphaOp(-0.1f));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AlphaOp(1.1f));
+	}
+
+	@Test
+	public void canRecolorWithoutChangingAlpha() {
+		Assertions.assertEquals(0x80FF0000, new RecolorOp(new Color(0x00FF0000, true)).filterRGB(0x800000FF));
+	}
+
+	private static BufferedImage createImage(final int type) {
+		final var image = new BufferedImage(4, 4, type);
+		image.setRGB(1, 2, 0x800000FF);
+		return image;
+	}
+}
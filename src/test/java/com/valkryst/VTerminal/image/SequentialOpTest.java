@@ -1,6 +1,7 @@
 package com.valkryst.VTerminal.image;
 
 import com.jhlabs.image.GaussianFilter;
+import com.jhlabs.image.MarbleFilter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -31,6 +32,109 @@ public class SequentialOpTest {
 		new SequentialOp(new GaussianFilter(), null, new GaussianFilter());
 	}
 
+	@Test
+	public void canEqualSequentialOpWithEquivalentOps() {
+		final var marbleFilter = new MarbleFilter();
+		final var op = new SequentialOp(new BrightnessOp(0.5f), marbleFilter, new RecolorOp(Color.RED), new SequentialOp(new AlphaOp(0.5f)), null);
+		final var equivalentOp = new SequentialOp(new BrightnessOp(0.5f), marbleFilter, new RecolorOp(Color.RED), new SequentialOp(new AlphaOp(0.5f)), null);
+		Assertions.assertEquals(op, equivalentOp);
+		Assertions.assertEquals(op.hashCode(), equivalentOp.hashCode());
+	}
+
+	@Test
+	public void cannotEqualSequentialOpWithDifferentOps() {
+		final var marbleFilter = new MarbleFilter();
+		final var op = new SequentialOp(new BrightnessOp(0.5f), marbleFilter);
+		Assertions.assertNotEquals(op, new SequentialOp(marbleFilter, new BrightnessOp(0.5f)));
+		Assertions.assertNotEquals(op, new SequentialOp(new BrightnessOp(0.6f), marbleFilter));
+		Assertions.assertNotEquals(op, new SequentialOp(new AlphaOp(0.5f), marbleFilter));
+		Assertions.assertNotEquals(op, new SequentialOp(new BrightnessOp(0.5f)));
+	}
+
+	@Test
+	public void cannotEqualSequentialOpWithOtherInstancesOfUnknownOps() {
+		Assertions.assertNotEquals(new SequentialOp(new GaussianFilter()), new SequentialOp(new GaussianFilter()));
+	}
+
+	@Test
+	public void canEqualSequentialOpWithEqualKey() {
+		final var op = SequentialOp.keyed("blur", new GaussianFilter());
+		Assertions.assertSame(op, SequentialOp.keyed("blur", new GaussianFilter()));
+		Assertions.assertNotEquals(op, SequentialOp.keyed("marble", new GaussianFilter()));
+		Assertions.assertNotEquals(op, new SequentialOp(op.getBufferedImageOps().get(0)));
+	}
+
+	@Test
+	public void canEqualSequentialOpWithEquivalentDescribableOps() {
+		Assertions.assertEquals(new SequentialOp(new DescribedBlur(3)), new SequentialOp(new DescribedBlur(3)));
+		Assertions.assertNotEquals(new SequentialOp(new DescribedBlur(3)), new SequentialOp(new DescribedBlur(4)));
+		Assertions.assertSame(SequentialOp.of(new DescribedBlur(3)), SequentialOp.of(new DescribedBlur(3)));
+	}
+
+	@Test
+	public void cannotCreateSequentialOpWithNullDescriptor() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new SequentialOp(new DescribedBlur(Float.NaN) {
+			@Override
+			public Object getDescriptor() {
+				return null;
+			}
+		}));
+	}
+
+	@Test
+	public void canInternEquivalentSequentialOps() {
+		final var op = SequentialOp.of(new BrightnessOp(0.5f), new RecolorOp(Color.RED));
+		Assertions.assertSame(op, SequentialOp.of(new BrightnessOp(0.5f), new RecolorOp(Color.RED)));
+		Assertions.assertSame(op, new SequentialOp(new BrightnessOp(0.5f), new RecolorOp(Color.RED)).intern());
+		Assertions.assertNotSame(op, SequentialOp.of(new BrightnessOp(0.5f)));
+	}
+
+	@Test
+	public void canFusePointOps() {
+		final var image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(1, 2, 0xFF804020);
+
+		final var result = new SequentialOp(new BrightnessOp(0.5f), new AlphaOp(0.5f), new RecolorOp(Color.GREEN)).filter(image, null);
+		Assertions.assertEquals(0x8000FF00, result.getRGB(1, 2));
+		Assertions.assertEquals(0xFF804020, image.getRGB(1, 2));
+	}
+
+	@Test
+	public void canMixPointOpsWithOtherOps() {
+		final var image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB_PRE);
+		image.setRGB(5, 5, 0xFFFFFFFF);
+
+		final var gaussianFilter = new GaussianFilter(2);
+		final var expected = new AlphaOp(0.5f).filter(gaussianFilter.filter(new RecolorOp(Color.RED).filter(image, null), null), null);
+		final var result = new SequentialOp(new RecolorOp(Color.RED), gaussianFilter, new AlphaOp(0.5f)).filter(image, null);
+
+		for (int y = 0 ; y < 10 ; y++) {
+			for (int x = 0 ; x < 10 ; x++) {
+				Assertions.assertEquals(expected.getRGB(x, y), result.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void canReturnNewImageFromEachFilter() {
+		final var image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		image.setRGB(0, 0, 0xFFFFFFFF);
+
+		final var first = new SequentialOp(new RecolorOp(Color.RED), new GaussianFilter(1), new RecolorOp(Color.RED)).filter(image, null);
+		final var firstPixel = first.getRGB(0, 0);
+		final var second = new SequentialOp(new RecolorOp(Color.BLUE), new GaussianFilter(1), new RecolorOp(Color.BLUE)).filter(image, null);
+
+		Assertions.assertNotSame(first, second);
+		Assertions.assertEquals(firstPixel, first.getRGB(0, 0));
+	}
+
+	@Test
+	public void canDetermineWhetherSequentialOpIsThreadSafe() {
+		Assertions.assertTrue(new SequentialOp().isThreadSafe());
+		Assertions.assertTrue(new SequentialOp(new AlphaOp(0.5f), new RecolorOp(Color.RED)).isThreadSafe());
+		Assertions.assertFalse(new SequentialOp(new AlphaOp(0.5f), new GaussianFilter()).isThreadSafe());
+	}
+
 	@Test
 	public void cannotFilterWithNullSource() {
 		Assertions.assertThrows(NullPointerException.class, () -> {
@@ -198,4 +302,16 @@ public class SequentialOpTest {
 			new SequentialOp().getRenderingHints();
 		});
 	}
+
+	/** A filter of another library, which describes itself by its radius. */
+	private static class DescribedBlur extends GaussianFilter implements DescribableOp {
+		private DescribedBlur(final float radius) {
+			super(radius);
+		}
+
+		@Override
+		public Object getDescriptor() {
+			return getRadius();
+		}
+	}
 }
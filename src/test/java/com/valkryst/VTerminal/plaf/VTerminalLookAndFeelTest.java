@@ -1,6 +1,7 @@
 package com.valkryst.VTerminal.plaf;
 
 import com.jhlabs.image.GaussianFilter;
+import com.valkryst.VTerminal.font.GlyphKey;
 import com.valkryst.VTerminal.image.SequentialOp;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -11,6 +12,8 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class VTerminalLookAndFeelTest {
 	private final int tileWidth;
@@ -195,6 +198,58 @@ public class VTerminalLookAndFeelTest {
 		Assertions.assertTrue(image.getHeight(null) >= 1);
 	}
 
+	@Test
+	public void doesNotWarmUpWhenInstalledByDefault() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		laf.initialize();
+
+		try {
+			Assertions.assertNull(laf.getInstallWarmUp());
+		} finally {
+			laf.uninitialize();
+		}
+	}
+
+	@Test
+	public void canWarmUpWhenInstalledIfRequested() throws Exception {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		System.setProperty(VTerminalLookAndFeel.WARM_UP_ON_INSTALL_PROPERTY, "true");
+
+		try {
+			laf.initialize();
+			laf.getInstallWarmUp().get(30, TimeUnit.SECONDS);
+
+			// Every warmed up glyph is already cached, so none are rasterized.
+			Assertions.assertEquals(0, laf.prefilter(List.of(GlyphKey.mask('A'), GlyphKey.mask('\u2550')), 0));
+		} finally {
+			laf.uninitialize();
+			System.clearProperty(VTerminalLookAndFeel.WARM_UP_ON_INSTALL_PROPERTY);
+		}
+	}
+
+	@Test
+	public void canCancelWarmUpWhenUninstalled() {
+		final var laf = VTerminalLookAndFeel.getInstance();
+		System.setProperty(VTerminalLookAndFeel.WARM_UP_ON_INSTALL_PROPERTY, "true");
+
+		try {
+			laf.initialize();
+			final var warmUp = laf.getInstallWarmUp();
+			Assertions.assertNotNull(warmUp);
+
+			// Installing it again replaces the warm-up, rather than starting a second.
+			laf.initialize();
+			Assertions.assertTrue(warmUp.isDone());
+
+			final var secondWarmUp = laf.getInstallWarmUp();
+			laf.uninitialize();
+			Assertions.assertTrue(secondWarmUp.isDone());
+			Assertions.assertNull(laf.getInstallWarmUp());
+		} finally {
+			System.clearProperty(VTerminalLookAndFeel.WARM_UP_ON_INSTALL_PROPERTY);
+		}
+	}
+
 	@Test
 	public void canRetrieveDescription() {
 		final var laf = VTerminalLookAndFeel.getInstance();